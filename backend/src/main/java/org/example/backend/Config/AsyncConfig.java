@@ -0,0 +1,50 @@
+package org.example.backend.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${market.async.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    /**
+     * Executor the blocking upstream market calls are offloaded to. Uses a virtual
+     * thread per call on Java 21+ with the java21 profile, which sets
+     * spring.threads.virtual.enabled, otherwise a bounded platform thread pool.
+     * Tasks count their queries against the request that submitted them.
+     */
+    @Bean
+    public AsyncTaskExecutor marketTaskExecutor(Environment environment,
+                                                @Value("${market.async.pool-size:64}") int poolSize,
+                                                @Value("${market.async.queue-capacity:1000}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("market-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(QueryCountInspector::propagate);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("market-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setTaskDecorator(QueryCountInspector::propagate);
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(requestTimeoutMs);
+    }
+}
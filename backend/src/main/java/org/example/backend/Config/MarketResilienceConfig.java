@@ -0,0 +1,48 @@
+package org.example.backend.Config;
+
+import org.example.backend.service.MarketBulkhead;
+import org.example.backend.service.MarketCircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.retry.RetryPolicy;
+import org.springframework.core.retry.RetryTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+
+@Configuration
+public class MarketResilienceConfig {
+
+    @Bean
+    public MarketCircuitBreaker marketCircuitBreaker(
+            @Value("${market.resilience.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${market.resilience.circuit.open-duration-ms:30000}") long openDurationMs) {
+        return new MarketCircuitBreaker(failureThreshold, Duration.ofMillis(openDurationMs));
+    }
+
+    @Bean
+    public MarketBulkhead marketBulkhead(
+            @Value("${market.resilience.bulkhead.max-concurrent:20}") int maxConcurrent,
+            @Value("${market.resilience.bulkhead.max-wait-ms:500}") long maxWaitMs) {
+        return new MarketBulkhead(maxConcurrent, Duration.ofMillis(maxWaitMs));
+    }
+
+    @Bean
+    public RetryTemplate marketRetryTemplate(
+            @Value("${market.resilience.retry.max-retries:2}") long maxRetries,
+            @Value("${market.resilience.retry.delay-ms:100}") long delayMs,
+            @Value("${market.resilience.retry.jitter-ms:50}") long jitterMs,
+            @Value("${market.resilience.retry.max-delay-ms:1000}") long maxDelayMs) {
+        // 4xx means the symbol is bad, retrying will not help
+        RetryPolicy policy = RetryPolicy.builder()
+                .maxRetries(maxRetries)
+                .delay(Duration.ofMillis(delayMs))
+                .jitter(Duration.ofMillis(jitterMs))
+                .multiplier(2)
+                .maxDelay(Duration.ofMillis(maxDelayMs))
+                .excludes(HttpClientErrorException.class)
+                .build();
+        return new RetryTemplate(policy);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.backend.Config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the SQL statements Hibernate prepares for the request the current thread
+ * works for. Registered through hibernate.session_factory.statement_inspector.
+ *
+ * QueryCountInterceptor binds one counter per request to the servlet thread, and
+ * propagate carries it over to market executor tasks, so statements of async
+ * endpoints land on the request that submitted them. Threads with no counter bound,
+ * like schedulers and the ingestion writer, are not counted.
+ *
+ * Only statements Hibernate prepares pass through here. SQL sent through
+ * JdbcTemplate, which is what bulk import and export, ingestion and the catalogue
+ * write buffer use, is not counted even on a request thread, so for /bulk the
+ * per-request figure leaves out the rows it streams.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<AtomicInteger> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = COUNT.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    // statements counted on this thread so far, 0 when no request is bound
+    public static int current() {
+        AtomicInteger count = COUNT.get();
+        return count == null ? 0 : count.get();
+    }
+
+    static void bind(AtomicInteger count) {
+        COUNT.set(count);
+    }
+
+    static void unbind() {
+        COUNT.remove();
+    }
+
+    // TaskDecorator for executors that run work on behalf of a request
+    public static Runnable propagate(Runnable task) {
+        AtomicInteger count = COUNT.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = COUNT.get();
+            COUNT.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    COUNT.remove();
+                } else {
+                    COUNT.set(previous);
+                }
+            }
+        };
+    }
+}
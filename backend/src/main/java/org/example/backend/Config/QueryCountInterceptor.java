@@ -0,0 +1,65 @@
+package org.example.backend.Config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records how many repository queries each request issued, as http.server.requests.queries{method, uri}.
+ * These are the statements QueryCountInspector sees, Hibernate's only; JdbcTemplate SQL is not included.
+ *
+ * The counter lives in a request attribute, so the second dispatch of an async request
+ * picks up what the first one and the market executor counted instead of starting over.
+ * It is recorded once, when the last dispatch completes.
+ */
+@Component
+public class QueryCountInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String COUNT_ATTRIBUTE = QueryCountInterceptor.class.getName() + ".count";
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            count = new AtomicInteger();
+            request.setAttribute(COUNT_ATTRIBUTE, count);
+        }
+        QueryCountInspector.bind(count);
+        return true;
+    }
+
+    // the servlet thread goes back to the pool while the async work runs; nothing is recorded yet
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        QueryCountInspector.unbind();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryCountInspector.unbind();
+        AtomicInteger count = (AtomicInteger) request.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("Hibernate statements issued per request, JdbcTemplate SQL not included")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(count.get());
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.backend.Config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary/replica datasources, only when app.datasource.replica.enabled=true.
+ * Otherwise Spring Boot's single datasource from spring.datasource.* is used as before.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username}") String username,
+                                              @Value("${app.datasource.replica.password}") String password) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl(url);
+        replica.setUsername(username);
+        replica.setPassword(password);
+        replica.setReadOnly(true);
+        replica.setPoolName("replica");
+        return replica;
+    }
+
+    @Bean
+    public ReplicaRoutingPolicy replicaRoutingPolicy(
+            @Value("${app.datasource.replica.max-staleness-ms:2000}") long maxStalenessMs,
+            MeterRegistry meterRegistry) {
+        ReplicaRoutingPolicy policy = new ReplicaRoutingPolicy(maxStalenessMs);
+        Gauge.builder("datasource.replica.lag", policy, p -> p.getReplicaLagMs() == Long.MAX_VALUE ? -1 : p.getReplicaLagMs())
+                .description("Replica lag in ms measured by the heartbeat, -1 when unknown")
+                .register(meterRegistry);
+        return policy;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaRoutingPolicy policy) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(policy);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Target.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // registered as a servlet filter by Spring Boot
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaRoutingPolicy policy) {
+        return new ReadYourWritesFilter(policy);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               ReplicaRoutingPolicy policy) {
+        return new ReplicaLagMonitor(new JdbcTemplate(primary), new JdbcTemplate(replica), policy);
+    }
+}
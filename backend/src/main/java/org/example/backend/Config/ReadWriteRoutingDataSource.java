@@ -0,0 +1,32 @@
+package org.example.backend.Config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the replica pool and
+ * everything else to the primary. Must sit behind a LazyConnectionDataSourceProxy
+ * so the connection is fetched after the transaction's read-only flag is set.
+ * A write transaction pins the reads of the client it runs for, see ReplicaRoutingPolicy.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaRoutingPolicy policy;
+
+    public ReadWriteRoutingDataSource(ReplicaRoutingPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return policy.replicaAllowed() ? Target.REPLICA : Target.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            policy.recordWrite();
+        }
+        return Target.PRIMARY;
+    }
+}
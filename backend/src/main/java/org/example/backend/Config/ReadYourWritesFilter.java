@@ -0,0 +1,78 @@
+package org.example.backend.Config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps each client's reads on the primary for the staleness window after its own
+ * writes. The time of the client's last write travels in a cookie, so the pin
+ * follows the client from request to request without a server-side session, and
+ * other clients, or background jobs, writing meanwhile do not move anyone else
+ * off the replica.
+ *
+ * The cookie is set when the first write of a request happens, while the response
+ * is still open.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "last-write";
+
+    private final ReplicaRoutingPolicy policy;
+
+    public ReadYourWritesFilter(ReplicaRoutingPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean[] cookieSet = {false};
+        policy.bindClient(lastWrite(request), writtenAt -> {
+            if (!cookieSet[0] && !response.isCommitted()) {
+                response.addHeader(HttpHeaders.SET_COOKIE, cookie(writtenAt).toString());
+                cookieSet[0] = true;
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            policy.unbindClient();
+        }
+    }
+
+    private ResponseCookie cookie(long writtenAt) {
+        return ResponseCookie.from(COOKIE, Long.toString(writtenAt))
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                // rounded up, the cookie only has to outlive the pin
+                .maxAge(Duration.ofMillis(policy.getMaxStalenessMs()).plusSeconds(1))
+                .build();
+    }
+
+    private static long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.backend.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Measures replica lag with a heartbeat row: the primary stamps the current time
+ * into replication_heartbeat, the replica's copy of that row shows how far behind it is.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaRoutingPolicy policy;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, ReplicaRoutingPolicy policy) {
+        this.primary = primary;
+        this.replica = replica;
+        this.policy = policy;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-ms:1000}")
+    public void beat() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            primary.update("UPDATE replication_heartbeat SET beat = ? WHERE id = 1", Timestamp.valueOf(now));
+            Timestamp seen = replica.queryForObject(
+                    "SELECT beat FROM replication_heartbeat WHERE id = 1", Timestamp.class);
+            long lagMs = seen == null ? Long.MAX_VALUE : Duration.between(seen.toLocalDateTime(), now).toMillis();
+            policy.recordReplicaLag(lagMs);
+        } catch (RuntimeException e) {
+            // replica unreachable: keep all reads on the primary
+            policy.recordReplicaLag(Long.MAX_VALUE);
+            log.warn("Replica heartbeat failed: {}", e.getMessage());
+        }
+    }
+}
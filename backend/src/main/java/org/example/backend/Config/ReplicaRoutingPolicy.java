@@ -0,0 +1,79 @@
+package org.example.backend.Config;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Decides whether a read-only transaction may use the replica.
+ * Reads stay on the primary while the replica lags more than the staleness
+ * tolerance, and for that same window after the client's own last write so
+ * whoever just traded reads their own changes back.
+ *
+ * A client is bound per request by ReadYourWritesFilter. Writes on threads with
+ * no client, like the ingestion writer, the snapshot job or the catalogue write
+ * buffer, do not pin anyone's reads.
+ */
+public class ReplicaRoutingPolicy {
+
+    private static final ThreadLocal<Client> CLIENT = new ThreadLocal<>();
+
+    private final long maxStalenessMs;
+
+    // unknown until the first heartbeat has been read from the replica
+    private volatile long replicaLagMs = Long.MAX_VALUE;
+
+    public ReplicaRoutingPolicy(long maxStalenessMs) {
+        this.maxStalenessMs = maxStalenessMs;
+    }
+
+    public long getMaxStalenessMs() {
+        return maxStalenessMs;
+    }
+
+    public boolean replicaAllowed() {
+        if (replicaLagMs > maxStalenessMs) {
+            return false;
+        }
+        Client client = CLIENT.get();
+        return client == null || System.currentTimeMillis() - client.lastWriteAt > maxStalenessMs;
+    }
+
+    public void recordWrite() {
+        Client client = CLIENT.get();
+        if (client == null) {
+            return;
+        }
+        client.lastWriteAt = System.currentTimeMillis();
+        client.onWrite.accept(client.lastWriteAt);
+    }
+
+    public void recordReplicaLag(long lagMs) {
+        replicaLagMs = lagMs;
+    }
+
+    public long getReplicaLagMs() {
+        return replicaLagMs;
+    }
+
+    /**
+     * Route this thread's reads for a client whose last write was at lastWriteAt
+     * (0 for none); onWrite is told about every write the client makes from here.
+     */
+    public void bindClient(long lastWriteAt, LongConsumer onWrite) {
+        CLIENT.set(new Client(lastWriteAt, onWrite));
+    }
+
+    public void unbindClient() {
+        CLIENT.remove();
+    }
+
+    private static final class Client {
+
+        private long lastWriteAt;
+        private final LongConsumer onWrite;
+
+        private Client(long lastWriteAt, LongConsumer onWrite) {
+            this.lastWriteAt = lastWriteAt;
+            this.onWrite = onWrite;
+        }
+    }
+}
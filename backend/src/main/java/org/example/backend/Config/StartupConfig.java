@@ -0,0 +1,36 @@
+package org.example.backend.Config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationInitializer;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+
+/**
+ * Startup tuning used by the prod profile (application-prod.properties).
+ *
+ * With spring.main.lazy-initialization=true every bean waits for its first use,
+ * except the ones excluded here: the schema check and the entity manager factory
+ * still run at boot, so an instance with a bad database fails to start instead of
+ * failing its first request, and that request does not pay for Hibernate bootstrap.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class,
+                EntityManagerFactory.class, LocalContainerEntityManagerFactoryBean.class);
+    }
+
+    // migrations are applied once by the deploy step, new instances only check the checksums;
+    // an AOT build (-Paot) decides this condition at build time, see application-prod.properties
+    @Bean
+    @ConditionalOnProperty(name = "app.flyway.validate-only", havingValue = "true")
+    public FlywayMigrationStrategy validateOnlyMigrationStrategy() {
+        return flyway -> flyway.validate();
+    }
+}
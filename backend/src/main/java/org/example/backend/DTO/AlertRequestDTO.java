@@ -0,0 +1,24 @@
+package org.example.backend.DTO;
+
+import org.example.backend.Model.AlertType;
+
+public class AlertRequestDTO {
+
+    private String symbol;
+    private AlertType type;
+    private double threshold;   // price, percent move or P&L amount depending on type
+
+    public AlertRequestDTO() {
+    }
+
+    // getters & setters
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public AlertType getType() { return type; }
+    public void setType(AlertType type) { this.type = type; }
+
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+}
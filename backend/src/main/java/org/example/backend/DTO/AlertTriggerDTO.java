@@ -0,0 +1,53 @@
+package org.example.backend.DTO;
+
+import org.example.backend.Model.AlertType;
+
+import java.time.LocalDateTime;
+
+public class AlertTriggerDTO {
+
+    private long alertId;
+    private String symbol;
+    private AlertType type;
+    private double threshold;
+    private double value;        // the price, percent move or P&L that reached the threshold
+    private double price;
+    private LocalDateTime triggeredAt;
+
+    public AlertTriggerDTO() {
+    }
+
+    public AlertTriggerDTO(long alertId, String symbol, AlertType type, double threshold,
+                           double value, double price, LocalDateTime triggeredAt) {
+        this.alertId = alertId;
+        this.symbol = symbol;
+        this.type = type;
+        this.threshold = threshold;
+        this.value = value;
+        this.price = price;
+        this.triggeredAt = triggeredAt;
+    }
+
+    // getters & setters
+
+    public long getAlertId() { return alertId; }
+    public void setAlertId(long alertId) { this.alertId = alertId; }
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public AlertType getType() { return type; }
+    public void setType(AlertType type) { this.type = type; }
+
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+
+    public double getValue() { return value; }
+    public void setValue(double value) { this.value = value; }
+
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+
+    public LocalDateTime getTriggeredAt() { return triggeredAt; }
+    public void setTriggeredAt(LocalDateTime triggeredAt) { this.triggeredAt = triggeredAt; }
+}
@@ -0,0 +1,41 @@
+package org.example.backend.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkImportResultDTO {
+
+    private String table;
+    private long rowsRead;        // records in the file, header excluded
+    private long rowsWritten;     // inserted or updated, duplicates ignored by the table are not counted
+    private long rowsRejected;    // failed validation, see errors
+    private List<String> errors = new ArrayList<>();   // the first few, "line N: reason"
+    private double seconds;
+    private double rowsPerSecond;
+
+    public BulkImportResultDTO() {
+    }
+
+    // getters & setters
+
+    public String getTable() { return table; }
+    public void setTable(String table) { this.table = table; }
+
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+
+    public long getRowsWritten() { return rowsWritten; }
+    public void setRowsWritten(long rowsWritten) { this.rowsWritten = rowsWritten; }
+
+    public long getRowsRejected() { return rowsRejected; }
+    public void setRowsRejected(long rowsRejected) { this.rowsRejected = rowsRejected; }
+
+    public List<String> getErrors() { return errors; }
+    public void setErrors(List<String> errors) { this.errors = errors; }
+
+    public double getSeconds() { return seconds; }
+    public void setSeconds(double seconds) { this.seconds = seconds; }
+
+    public double getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(double rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+}
@@ -0,0 +1,42 @@
+package org.example.backend.DTO;
+
+// One symbol's entry in a bulk market response, either data or an error
+public class MarketResultDTO<T> {
+
+    private String symbol;
+    private T data;
+    private boolean cached;
+    private String error;
+
+    public MarketResultDTO() {
+    }
+
+    public static <T> MarketResultDTO<T> ok(String symbol, T data, boolean cached) {
+        MarketResultDTO<T> result = new MarketResultDTO<>();
+        result.setSymbol(symbol);
+        result.setData(data);
+        result.setCached(cached);
+        return result;
+    }
+
+    public static <T> MarketResultDTO<T> failed(String symbol, String error) {
+        MarketResultDTO<T> result = new MarketResultDTO<>();
+        result.setSymbol(symbol);
+        result.setError(error);
+        return result;
+    }
+
+    // getters & setters
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public T getData() { return data; }
+    public void setData(T data) { this.data = data; }
+
+    public boolean isCached() { return cached; }
+    public void setCached(boolean cached) { this.cached = cached; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,33 @@
+package org.example.backend.DTO;
+
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Model.OrderType;
+
+public class OrderRequestDTO {
+
+    private String symbol;
+    private OrderSide side;
+    private OrderType type;
+    private int quantity;
+    private double price;   // limit or stop price
+
+    public OrderRequestDTO() {
+    }
+
+    // getters & setters
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public OrderSide getSide() { return side; }
+    public void setSide(OrderSide side) { this.side = side; }
+
+    public OrderType getType() { return type; }
+    public void setType(OrderType type) { this.type = type; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+}
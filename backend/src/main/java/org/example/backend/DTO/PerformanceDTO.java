@@ -0,0 +1,48 @@
+package org.example.backend.DTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class PerformanceDTO {
+
+    private LocalDate from;
+    private LocalDate to;
+
+    private double startValue;           // value at the close before the first point
+    private double endValue;
+    private double netFlows;
+
+    private double timeWeightedReturn;   // over the whole range
+    private Double moneyWeightedReturn;  // over the whole range, null if undefined
+
+    private List<PerformancePointDTO> points;
+
+    public PerformanceDTO() {
+    }
+
+    // getters & setters
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public double getStartValue() { return startValue; }
+    public void setStartValue(double startValue) { this.startValue = startValue; }
+
+    public double getEndValue() { return endValue; }
+    public void setEndValue(double endValue) { this.endValue = endValue; }
+
+    public double getNetFlows() { return netFlows; }
+    public void setNetFlows(double netFlows) { this.netFlows = netFlows; }
+
+    public double getTimeWeightedReturn() { return timeWeightedReturn; }
+    public void setTimeWeightedReturn(double timeWeightedReturn) { this.timeWeightedReturn = timeWeightedReturn; }
+
+    public Double getMoneyWeightedReturn() { return moneyWeightedReturn; }
+    public void setMoneyWeightedReturn(Double moneyWeightedReturn) { this.moneyWeightedReturn = moneyWeightedReturn; }
+
+    public List<PerformancePointDTO> getPoints() { return points; }
+    public void setPoints(List<PerformancePointDTO> points) { this.points = points; }
+}
@@ -0,0 +1,45 @@
+package org.example.backend.DTO;
+
+import java.time.LocalDate;
+
+public class PerformancePointDTO {
+
+    private LocalDate date;
+    private double holdingsValue;
+    private double cashBalance;
+    private double totalValue;
+    private double netFlow;              // deposits minus withdrawals that day
+    private double dailyReturn;
+
+    private double timeWeightedReturn;   // cumulative since the start of the range
+    private Double moneyWeightedReturn;  // cumulative since the start of the range, null if undefined
+
+    public PerformancePointDTO() {
+    }
+
+    // getters & setters
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public double getHoldingsValue() { return holdingsValue; }
+    public void setHoldingsValue(double holdingsValue) { this.holdingsValue = holdingsValue; }
+
+    public double getCashBalance() { return cashBalance; }
+    public void setCashBalance(double cashBalance) { this.cashBalance = cashBalance; }
+
+    public double getTotalValue() { return totalValue; }
+    public void setTotalValue(double totalValue) { this.totalValue = totalValue; }
+
+    public double getNetFlow() { return netFlow; }
+    public void setNetFlow(double netFlow) { this.netFlow = netFlow; }
+
+    public double getDailyReturn() { return dailyReturn; }
+    public void setDailyReturn(double dailyReturn) { this.dailyReturn = dailyReturn; }
+
+    public double getTimeWeightedReturn() { return timeWeightedReturn; }
+    public void setTimeWeightedReturn(double timeWeightedReturn) { this.timeWeightedReturn = timeWeightedReturn; }
+
+    public Double getMoneyWeightedReturn() { return moneyWeightedReturn; }
+    public void setMoneyWeightedReturn(Double moneyWeightedReturn) { this.moneyWeightedReturn = moneyWeightedReturn; }
+}
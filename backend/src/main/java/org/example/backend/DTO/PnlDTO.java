@@ -0,0 +1,35 @@
+package org.example.backend.DTO;
+
+public class PnlDTO {
+
+    private String symbol;
+    private int quantity;
+    private double currentPrice;
+
+    private double costBasis;       // of the open lots
+    private double unrealizedPnl;   // open lots at the current price
+    private double realizedPnl;     // all sales so far
+
+    public PnlDTO() {
+    }
+
+    // getters & setters
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public double getCurrentPrice() { return currentPrice; }
+    public void setCurrentPrice(double currentPrice) { this.currentPrice = currentPrice; }
+
+    public double getCostBasis() { return costBasis; }
+    public void setCostBasis(double costBasis) { this.costBasis = costBasis; }
+
+    public double getUnrealizedPnl() { return unrealizedPnl; }
+    public void setUnrealizedPnl(double unrealizedPnl) { this.unrealizedPnl = unrealizedPnl; }
+
+    public double getRealizedPnl() { return realizedPnl; }
+    public void setRealizedPnl(double realizedPnl) { this.realizedPnl = realizedPnl; }
+}
@@ -1,5 +1,6 @@
 package org.example.backend.DTO;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 public class PortfolioAssetDTO {
@@ -12,7 +13,13 @@ public class PortfolioAssetDTO {
     private int quantity;
 
     private double currentPrice;   // from asset_catalogue
-    private double profitLoss;     // calculated
+    private double profitLoss;     // calculated, in the asset's currency
+
+    private String currency;       // the asset's quote currency
+    private String baseCurrency;
+    private BigDecimal fxRate;      // one unit of currency in baseCurrency
+    private BigDecimal marketValue; // quantity * currentPrice in baseCurrency
+    private BigDecimal profitLossBase;
 
     private double high;
     private double low;
@@ -57,5 +64,19 @@ public class PortfolioAssetDTO {
 
     public LocalDateTime getBuyTimestamp() { return buyTimestamp; }
     public void setBuyTimestamp(LocalDateTime buyTimestamp) { this.buyTimestamp = buyTimestamp; }
-}
 
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public String getBaseCurrency() { return baseCurrency; }
+    public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
+
+    public BigDecimal getFxRate() { return fxRate; }
+    public void setFxRate(BigDecimal fxRate) { this.fxRate = fxRate; }
+
+    public BigDecimal getMarketValue() { return marketValue; }
+    public void setMarketValue(BigDecimal marketValue) { this.marketValue = marketValue; }
+
+    public BigDecimal getProfitLossBase() { return profitLossBase; }
+    public void setProfitLossBase(BigDecimal profitLossBase) { this.profitLossBase = profitLossBase; }
+}
@@ -0,0 +1,47 @@
+package org.example.backend.DTO;
+
+import java.util.List;
+import java.util.Map;
+
+public class RebalancePlanDTO {
+
+    private double totalValue;                  // holdings plus cash
+    private double cashBefore;
+    private double cashAfter;
+
+    private Map<String, Double> currentWeights;   // by asset type, cash under "CASH"
+    private Map<String, Double> targetWeights;
+    private Map<String, Double> projectedWeights; // after the trades
+
+    private List<RebalanceTradeDTO> trades;     // sells first, then buys
+    private boolean executed;
+
+    public RebalancePlanDTO() {
+    }
+
+    // getters & setters
+
+    public double getTotalValue() { return totalValue; }
+    public void setTotalValue(double totalValue) { this.totalValue = totalValue; }
+
+    public double getCashBefore() { return cashBefore; }
+    public void setCashBefore(double cashBefore) { this.cashBefore = cashBefore; }
+
+    public double getCashAfter() { return cashAfter; }
+    public void setCashAfter(double cashAfter) { this.cashAfter = cashAfter; }
+
+    public Map<String, Double> getCurrentWeights() { return currentWeights; }
+    public void setCurrentWeights(Map<String, Double> currentWeights) { this.currentWeights = currentWeights; }
+
+    public Map<String, Double> getTargetWeights() { return targetWeights; }
+    public void setTargetWeights(Map<String, Double> targetWeights) { this.targetWeights = targetWeights; }
+
+    public Map<String, Double> getProjectedWeights() { return projectedWeights; }
+    public void setProjectedWeights(Map<String, Double> projectedWeights) { this.projectedWeights = projectedWeights; }
+
+    public List<RebalanceTradeDTO> getTrades() { return trades; }
+    public void setTrades(List<RebalanceTradeDTO> trades) { this.trades = trades; }
+
+    public boolean isExecuted() { return executed; }
+    public void setExecuted(boolean executed) { this.executed = executed; }
+}
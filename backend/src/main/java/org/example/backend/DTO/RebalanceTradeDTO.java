@@ -0,0 +1,45 @@
+package org.example.backend.DTO;
+
+import org.example.backend.Model.OrderSide;
+
+public class RebalanceTradeDTO {
+
+    private String symbol;
+    private String type;
+    private OrderSide side;
+    private int quantity;
+    private double price;
+    private double value;
+
+    public RebalanceTradeDTO() {
+    }
+
+    public RebalanceTradeDTO(String symbol, String type, OrderSide side, int quantity, double price) {
+        this.symbol = symbol;
+        this.type = type;
+        this.side = side;
+        this.quantity = quantity;
+        this.price = price;
+        this.value = quantity * price;
+    }
+
+    // getters & setters
+
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public OrderSide getSide() { return side; }
+    public void setSide(OrderSide side) { this.side = side; }
+
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+
+    public double getValue() { return value; }
+    public void setValue(double value) { this.value = value; }
+}
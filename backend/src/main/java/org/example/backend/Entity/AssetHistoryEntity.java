@@ -5,15 +5,18 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "asset_history")
+@IdClass(AssetHistoryId.class)
 public class AssetHistoryEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
+    @Column(length = 16, nullable = false)
     private String symbol;
-    private String type;
+
+    @Id
+    @Column(nullable = false)
     private LocalDate date;
+
+    private String type;
     private double open;
     private double high;
     private double low;
@@ -23,8 +26,6 @@ public class AssetHistoryEntity {
     public AssetHistoryEntity() {}
 
     // getters & setters
-    public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
     public String getSymbol() { return symbol; }
     public void setSymbol(String symbol) { this.symbol = symbol; }
     public String getType() { return type; }
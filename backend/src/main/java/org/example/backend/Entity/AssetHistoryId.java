@@ -0,0 +1,34 @@
+package org.example.backend.Entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Composite key of asset_history: one bar per symbol per day
+public class AssetHistoryId implements Serializable {
+
+    private String symbol;
+    private LocalDate date;
+
+    public AssetHistoryId() {}
+
+    public AssetHistoryId(String symbol, LocalDate date) {
+        this.symbol = symbol;
+        this.date = date;
+    }
+
+    public String getSymbol() { return symbol; }
+    public LocalDate getDate() { return date; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AssetHistoryId other)) return false;
+        return Objects.equals(symbol, other.symbol) && Objects.equals(date, other.date);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(symbol, date);
+    }
+}
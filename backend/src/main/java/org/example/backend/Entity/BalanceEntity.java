@@ -1,6 +1,7 @@
 package org.example.backend.Entity;
 
 import jakarta.persistence.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -11,7 +12,8 @@ public class BalanceEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    private double amount;
+    @Column(precision = 19, scale = 4, nullable = false)
+    private BigDecimal amount;
 
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
@@ -21,8 +23,8 @@ public class BalanceEntity {
     // getters & setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
-    public double getAmount() { return amount; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
     public LocalDateTime getLastUpdated() { return lastUpdated; }
     public void setLastUpdated(LocalDateTime lastUpdated) { this.lastUpdated = lastUpdated; }
 }
@@ -0,0 +1,40 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Money moved into (positive) or out of (negative) the account from outside, trades are not cash flows
+@Entity
+@Table(name = "cash_flow")
+public class CashFlowEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(precision = 19, scale = 4, nullable = false)
+    private BigDecimal amount;
+    private String kind;
+
+    @Column(name = "occurred_at")
+    private LocalDateTime occurredAt;
+
+    public CashFlowEntity() {}
+
+    public CashFlowEntity(BigDecimal amount, String kind, LocalDateTime occurredAt) {
+        this.amount = amount;
+        this.kind = kind;
+        this.occurredAt = occurredAt;
+    }
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public void setOccurredAt(LocalDateTime occurredAt) { this.occurredAt = occurredAt; }
+}
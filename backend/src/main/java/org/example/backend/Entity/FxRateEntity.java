@@ -0,0 +1,43 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The last rate fetched for a currency, the fallback when the market service is down on a cold cache
+@Entity
+@Table(name = "fx_rate")
+public class FxRateEntity {
+
+    @Id
+    @Column(name = "currency", nullable = false)
+    private String currency;
+
+    @Column(name = "base_currency", nullable = false)
+    private String baseCurrency;
+
+    @Column(name = "rate", nullable = false, precision = 19, scale = 8)
+    private BigDecimal rate;
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+
+    public FxRateEntity() {}
+
+    public FxRateEntity(String currency, String baseCurrency, BigDecimal rate, LocalDateTime fetchedAt) {
+        this.currency = currency;
+        this.baseCurrency = baseCurrency;
+        this.rate = rate;
+        this.fetchedAt = fetchedAt;
+    }
+
+    // getters & setters
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+    public String getBaseCurrency() { return baseCurrency; }
+    public void setBaseCurrency(String baseCurrency) { this.baseCurrency = baseCurrency; }
+    public BigDecimal getRate() { return rate; }
+    public void setRate(BigDecimal rate) { this.rate = rate; }
+    public LocalDateTime getFetchedAt() { return fetchedAt; }
+    public void setFetchedAt(LocalDateTime fetchedAt) { this.fetchedAt = fetchedAt; }
+}
@@ -0,0 +1,35 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Where market ingestion got to for a symbol, so a restarted pipeline resumes from here
+@Entity
+@Table(name = "ingestion_checkpoint")
+public class IngestionCheckpointEntity {
+
+    @Id
+    @Column(name = "symbol", nullable = false)
+    private String symbol;
+
+    @Column(name = "last_history_date")
+    private LocalDate lastHistoryDate;
+
+    @Column(name = "last_ingested")
+    private LocalDateTime lastIngested;
+
+    public IngestionCheckpointEntity() {}
+
+    public IngestionCheckpointEntity(String symbol) {
+        this.symbol = symbol;
+    }
+
+    // getters & setters
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public LocalDate getLastHistoryDate() { return lastHistoryDate; }
+    public void setLastHistoryDate(LocalDate lastHistoryDate) { this.lastHistoryDate = lastHistoryDate; }
+    public LocalDateTime getLastIngested() { return lastIngested; }
+    public void setLastIngested(LocalDateTime lastIngested) { this.lastIngested = lastIngested; }
+}
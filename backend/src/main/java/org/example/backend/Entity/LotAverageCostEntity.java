@@ -0,0 +1,36 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+
+// The running average an average-cost sale left a symbol's open lots at, see LotBook
+@Entity
+@Table(name = "lot_average_cost")
+public class LotAverageCostEntity {
+
+    @Id
+    @Column(name = "symbol", nullable = false)
+    private String symbol;
+
+    // lots of the symbol with an id up to this one are carried at cost_price
+    @Column(name = "through_lot_id", nullable = false)
+    private long throughLotId;
+
+    @Column(name = "cost_price", nullable = false)
+    private double costPrice;
+
+    public LotAverageCostEntity() {}
+
+    public LotAverageCostEntity(String symbol, long throughLotId, double costPrice) {
+        this.symbol = symbol;
+        this.throughLotId = throughLotId;
+        this.costPrice = costPrice;
+    }
+
+    // getters & setters
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public long getThroughLotId() { return throughLotId; }
+    public void setThroughLotId(long throughLotId) { this.throughLotId = throughLotId; }
+    public double getCostPrice() { return costPrice; }
+    public void setCostPrice(double costPrice) { this.costPrice = costPrice; }
+}
@@ -0,0 +1,53 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// One purchase of a symbol; remaining goes down as sales are matched against it
+@Entity
+@Table(name = "portfolio_lot")
+public class PortfolioLotEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String symbol;
+    private int quantity;
+    private int remaining;
+    private double price;
+
+    // cash the trade moved, in the base currency; null on rows from before it was recorded
+    @Column(name = "settled_amount", precision = 19, scale = 4)
+    private BigDecimal settledAmount;
+
+    @Column(name = "acquired_at")
+    private LocalDateTime acquiredAt;
+
+    public PortfolioLotEntity() {}
+
+    public PortfolioLotEntity(String symbol, int quantity, double price, LocalDateTime acquiredAt) {
+        this.symbol = symbol;
+        this.quantity = quantity;
+        this.remaining = quantity;
+        this.price = price;
+        this.acquiredAt = acquiredAt;
+    }
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public int getRemaining() { return remaining; }
+    public void setRemaining(int remaining) { this.remaining = remaining; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public BigDecimal getSettledAmount() { return settledAmount; }
+    public void setSettledAmount(BigDecimal settledAmount) { this.settledAmount = settledAmount; }
+    public LocalDateTime getAcquiredAt() { return acquiredAt; }
+    public void setAcquiredAt(LocalDateTime acquiredAt) { this.acquiredAt = acquiredAt; }
+}
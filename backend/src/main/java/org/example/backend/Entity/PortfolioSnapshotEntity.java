@@ -0,0 +1,57 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// End-of-day portfolio value. twrIndex chains the daily returns, so the
+// time-weighted return between two days is the ratio of their indexes.
+@Entity
+@Table(name = "portfolio_snapshot")
+public class PortfolioSnapshotEntity {
+
+    @Id
+    @Column(name = "snapshot_date", nullable = false)
+    private LocalDate snapshotDate;
+
+    @Column(name = "holdings_value", nullable = false)
+    private double holdingsValue;
+
+    @Column(name = "cash_balance", nullable = false)
+    private double cashBalance;
+
+    @Column(name = "total_value", nullable = false)
+    private double totalValue;
+
+    @Column(name = "net_flow", nullable = false)
+    private double netFlow;
+
+    @Column(name = "daily_return", nullable = false)
+    private double dailyReturn;
+
+    @Column(name = "twr_index", nullable = false)
+    private double twrIndex;
+
+    @Column(name = "computed_at")
+    private LocalDateTime computedAt;
+
+    public PortfolioSnapshotEntity() {}
+
+    // getters & setters
+    public LocalDate getSnapshotDate() { return snapshotDate; }
+    public void setSnapshotDate(LocalDate snapshotDate) { this.snapshotDate = snapshotDate; }
+    public double getHoldingsValue() { return holdingsValue; }
+    public void setHoldingsValue(double holdingsValue) { this.holdingsValue = holdingsValue; }
+    public double getCashBalance() { return cashBalance; }
+    public void setCashBalance(double cashBalance) { this.cashBalance = cashBalance; }
+    public double getTotalValue() { return totalValue; }
+    public void setTotalValue(double totalValue) { this.totalValue = totalValue; }
+    public double getNetFlow() { return netFlow; }
+    public void setNetFlow(double netFlow) { this.netFlow = netFlow; }
+    public double getDailyReturn() { return dailyReturn; }
+    public void setDailyReturn(double dailyReturn) { this.dailyReturn = dailyReturn; }
+    public double getTwrIndex() { return twrIndex; }
+    public void setTwrIndex(double twrIndex) { this.twrIndex = twrIndex; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+    public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
+}
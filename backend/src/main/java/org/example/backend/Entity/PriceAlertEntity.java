@@ -0,0 +1,55 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+import org.example.backend.Model.AlertType;
+
+import java.time.LocalDateTime;
+
+// A registered alert; it fires once, then stays with active = false as a record of the trigger
+@Entity
+@Table(name = "price_alert")
+public class PriceAlertEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AlertType type;
+
+    private double threshold;
+    private boolean active;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "triggered_at")
+    private LocalDateTime triggeredAt;
+
+    @Column(name = "triggered_value")
+    private Double triggeredValue;
+
+    public PriceAlertEntity() {}
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public AlertType getType() { return type; }
+    public void setType(AlertType type) { this.type = type; }
+    public double getThreshold() { return threshold; }
+    public void setThreshold(double threshold) { this.threshold = threshold; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getTriggeredAt() { return triggeredAt; }
+    public void setTriggeredAt(LocalDateTime triggeredAt) { this.triggeredAt = triggeredAt; }
+    public Double getTriggeredValue() { return triggeredValue; }
+    public void setTriggeredValue(Double triggeredValue) { this.triggeredValue = triggeredValue; }
+}
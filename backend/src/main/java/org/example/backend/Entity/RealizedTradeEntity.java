@@ -0,0 +1,58 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A sale and the profit it realized against the matched lots
+@Entity
+@Table(name = "realized_trade")
+public class RealizedTradeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String symbol;
+    private int quantity;
+
+    @Column(name = "sale_price", nullable = false)
+    private double salePrice;
+
+    @Column(name = "cost_basis", nullable = false)
+    private double costBasis;
+
+    @Column(name = "realized_pnl", nullable = false)
+    private double realizedPnl;
+
+    private String method;
+
+    // cash the trade moved, in the base currency; null on rows from before it was recorded
+    @Column(name = "settled_amount", precision = 19, scale = 4)
+    private BigDecimal settledAmount;
+
+    @Column(name = "sold_at")
+    private LocalDateTime soldAt;
+
+    public RealizedTradeEntity() {}
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public double getSalePrice() { return salePrice; }
+    public void setSalePrice(double salePrice) { this.salePrice = salePrice; }
+    public double getCostBasis() { return costBasis; }
+    public void setCostBasis(double costBasis) { this.costBasis = costBasis; }
+    public double getRealizedPnl() { return realizedPnl; }
+    public void setRealizedPnl(double realizedPnl) { this.realizedPnl = realizedPnl; }
+    public String getMethod() { return method; }
+    public void setMethod(String method) { this.method = method; }
+    public BigDecimal getSettledAmount() { return settledAmount; }
+    public void setSettledAmount(BigDecimal settledAmount) { this.settledAmount = settledAmount; }
+    public LocalDateTime getSoldAt() { return soldAt; }
+    public void setSoldAt(LocalDateTime soldAt) { this.soldAt = soldAt; }
+}
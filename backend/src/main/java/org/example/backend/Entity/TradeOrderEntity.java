@@ -0,0 +1,75 @@
+package org.example.backend.Entity;
+
+import jakarta.persistence.*;
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Model.OrderStatus;
+import org.example.backend.Model.OrderType;
+
+import java.time.LocalDateTime;
+
+// A resting limit or stop order, executed through the normal buy/sell flow once the price crosses it
+@Entity
+@Table(name = "trade_order")
+public class TradeOrderEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderSide side;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderType type;
+
+    private int quantity;
+
+    @Column(name = "order_price", nullable = false)
+    private double orderPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "executed_at")
+    private LocalDateTime executedAt;
+
+    @Column(name = "executed_price")
+    private Double executedPrice;
+
+    private String message;
+
+    public TradeOrderEntity() {}
+
+    // getters & setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    public OrderSide getSide() { return side; }
+    public void setSide(OrderSide side) { this.side = side; }
+    public OrderType getType() { return type; }
+    public void setType(OrderType type) { this.type = type; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public double getOrderPrice() { return orderPrice; }
+    public void setOrderPrice(double orderPrice) { this.orderPrice = orderPrice; }
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExecutedAt() { return executedAt; }
+    public void setExecutedAt(LocalDateTime executedAt) { this.executedAt = executedAt; }
+    public Double getExecutedPrice() { return executedPrice; }
+    public void setExecutedPrice(Double executedPrice) { this.executedPrice = executedPrice; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
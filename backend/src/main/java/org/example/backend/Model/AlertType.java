@@ -0,0 +1,9 @@
+package org.example.backend.Model;
+
+// What an alert watches; threshold is a price, a percentage or a P&L amount
+public enum AlertType {
+    PRICE_ABOVE,    // price rises to or above the threshold
+    PRICE_BELOW,    // price falls to or below the threshold
+    DAILY_MOVE,     // price is at least threshold percent away from the day's open, either way
+    PNL_BELOW       // unrealized P&L of the held position falls to or below the threshold
+}
@@ -19,6 +19,9 @@ public class Asset {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS")
     private LocalDateTime timestamp;
 
+    // true when served from the catalogue because the market service was unavailable
+    private boolean stale;
+
     public Asset() {
     }
 
@@ -75,4 +78,7 @@ public class Asset {
 
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public boolean isStale() { return stale; }
+    public void setStale(boolean stale) { this.stale = stale; }
 }
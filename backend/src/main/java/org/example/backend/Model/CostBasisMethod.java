@@ -0,0 +1,8 @@
+package org.example.backend.Model;
+
+// Which purchase lots a sale is matched against
+public enum CostBasisMethod {
+    FIFO,
+    LIFO,
+    AVERAGE
+}
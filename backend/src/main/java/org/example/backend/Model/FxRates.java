@@ -0,0 +1,25 @@
+package org.example.backend.Model;
+
+import java.util.Map;
+
+// Response of the market service's bulk fx endpoint: value of one unit of each currency in base
+public class FxRates {
+    private String base;
+    private Map<String, Double> rates;
+
+    public FxRates() {
+    }
+
+    public FxRates(String base, Map<String, Double> rates) {
+        this.base = base;
+        this.rates = rates;
+    }
+
+    // Getters and setters
+
+    public String getBase() { return base; }
+    public void setBase(String base) { this.base = base; }
+
+    public Map<String, Double> getRates() { return rates; }
+    public void setRates(Map<String, Double> rates) { this.rates = rates; }
+}
@@ -0,0 +1,6 @@
+package org.example.backend.Model;
+
+public enum OrderSide {
+    BUY,
+    SELL
+}
@@ -0,0 +1,8 @@
+package org.example.backend.Model;
+
+public enum OrderStatus {
+    OPEN,
+    FILLED,
+    CANCELLED,
+    REJECTED    // triggered but the trade failed, e.g. insufficient balance
+}
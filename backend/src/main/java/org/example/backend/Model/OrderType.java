@@ -0,0 +1,7 @@
+package org.example.backend.Model;
+
+// LIMIT waits for a better price than now, STOP for a worse one
+public enum OrderType {
+    LIMIT,  // buy at or below / sell at or above the order price
+    STOP    // buy at or above / sell at or below the order price
+}
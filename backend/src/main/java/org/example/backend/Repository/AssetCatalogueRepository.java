@@ -3,10 +3,15 @@ package org.example.backend.Repository;
 import org.example.backend.Entity.AssetCatalogueEntity;
 import org.example.backend.Entity.AssetCatalogueEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface AssetCatalogueRepository extends JpaRepository<AssetCatalogueEntity, String> {
     Optional<AssetCatalogueEntity> findBySymbol(String symbol);
-}
 
+    // every currency the catalogue quotes in, null among them for unset ones
+    @Query("select distinct c.currency from AssetCatalogueEntity c")
+    List<String> findDistinctCurrencies();
+}
@@ -1,12 +1,21 @@
 package org.example.backend.Repository;
 
 import org.example.backend.Entity.AssetHistoryEntity;
+import org.example.backend.Entity.AssetHistoryId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
 import java.util.List;
 
-public interface AssetHistoryRepository extends JpaRepository<AssetHistoryEntity, Long> {
+// All lookups lead with symbol so they are range scans on the (symbol, date) primary key
+public interface AssetHistoryRepository extends JpaRepository<AssetHistoryEntity, AssetHistoryId> {
     List<AssetHistoryEntity> findBySymbolOrderByDateAsc(String symbol);
-}
 
+    List<AssetHistoryEntity> findBySymbolAndDateBetweenOrderByDateAsc(String symbol, LocalDate from, LocalDate to);
+
+    @Query("select max(h.date) from AssetHistoryEntity h where h.symbol = :symbol")
+    LocalDate findLatestDate(@Param("symbol") String symbol);
+}
 
@@ -9,10 +9,17 @@
 
 package org.example.backend.Repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.backend.Entity.BalanceEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.Optional;
 
 public interface BalanceRepository extends JpaRepository<BalanceEntity, Long> {
-    // No extra methods needed for now
+
+    // SELECT ... FOR UPDATE: held until the transaction ends, so balance changes apply one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BalanceEntity> findFirstByOrderByIdAsc();
 }
 
@@ -0,0 +1,15 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.CashFlowEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CashFlowRepository extends JpaRepository<CashFlowEntity, Long> {
+
+    Optional<CashFlowEntity> findFirstByOrderByOccurredAtAsc();
+
+    List<CashFlowEntity> findByOccurredAtGreaterThanEqualOrderByOccurredAtAsc(LocalDateTime from);
+}
@@ -0,0 +1,7 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.FxRateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FxRateRepository extends JpaRepository<FxRateEntity, String> {
+}
@@ -0,0 +1,7 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.IngestionCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpointEntity, String> {
+}
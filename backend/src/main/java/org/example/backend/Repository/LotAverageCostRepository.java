@@ -0,0 +1,7 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.LotAverageCostEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LotAverageCostRepository extends JpaRepository<LotAverageCostEntity, String> {
+}
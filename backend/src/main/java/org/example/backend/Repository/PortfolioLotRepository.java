@@ -0,0 +1,29 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.PortfolioLotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface PortfolioLotRepository extends JpaRepository<PortfolioLotEntity, Long> {
+
+    // open lots in purchase order, used to build the in-memory lot book
+    List<PortfolioLotEntity> findBySymbolAndRemainingGreaterThanOrderByIdAsc(String symbol, int remaining);
+
+    List<PortfolioLotEntity> findByAcquiredAtGreaterThanEqualOrderByAcquiredAtAsc(LocalDateTime from);
+
+    Optional<PortfolioLotEntity> findFirstByOrderByAcquiredAtAsc();
+
+    // [symbol, shares bought] before a point in time
+    @Query("select l.symbol, sum(l.quantity) from PortfolioLotEntity l where l.acquiredAt < :before group by l.symbol")
+    List<Object[]> sumQuantityBySymbolBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("update PortfolioLotEntity l set l.remaining = :remaining where l.id = :id")
+    void updateRemaining(@Param("id") long id, @Param("remaining") int remaining);
+}
@@ -0,0 +1,25 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.PortfolioSnapshotEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+// Keyed by snapshot_date, so every lookup is a primary key range scan
+public interface PortfolioSnapshotRepository extends JpaRepository<PortfolioSnapshotEntity, LocalDate> {
+
+    Optional<PortfolioSnapshotEntity> findTopByOrderBySnapshotDateDesc();
+
+    Optional<PortfolioSnapshotEntity> findTopBySnapshotDateLessThanOrderBySnapshotDateDesc(LocalDate date);
+
+    List<PortfolioSnapshotEntity> findBySnapshotDateBetweenOrderBySnapshotDateAsc(LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query("delete from PortfolioSnapshotEntity s where s.snapshotDate >= :from")
+    int deleteFrom(@Param("from") LocalDate from);
+}
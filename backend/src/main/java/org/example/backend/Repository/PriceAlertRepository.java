@@ -0,0 +1,31 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.PriceAlertEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PriceAlertRepository extends JpaRepository<PriceAlertEntity, Long> {
+
+    List<PriceAlertEntity> findByActiveTrueOrderByIdAsc();
+
+    List<PriceAlertEntity> findBySymbolOrderByIdAsc(String symbol);
+
+    // [id, symbol, type, threshold] of every active alert, without loading entities
+    @Query("select a.id, a.symbol, a.type, a.threshold from PriceAlertEntity a where a.active = true")
+    List<Object[]> findActiveKeys();
+
+    // runs after the price update committed, so it needs its own transaction
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update PriceAlertEntity a set a.active = false, a.triggeredAt = :at, a.triggeredValue = :value "
+            + "where a.id in :ids and a.active = true")
+    int markTriggered(@Param("ids") Collection<Long> ids, @Param("value") double value, @Param("at") LocalDateTime at);
+}
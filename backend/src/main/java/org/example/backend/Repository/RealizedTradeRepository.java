@@ -0,0 +1,24 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.RealizedTradeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RealizedTradeRepository extends JpaRepository<RealizedTradeEntity, Long> {
+
+    List<RealizedTradeEntity> findBySymbolOrderBySoldAtAsc(String symbol);
+
+    List<RealizedTradeEntity> findBySoldAtGreaterThanEqualOrderBySoldAtAsc(LocalDateTime from);
+
+    // [symbol, shares sold] before a point in time
+    @Query("select t.symbol, sum(t.quantity) from RealizedTradeEntity t where t.soldAt < :before group by t.symbol")
+    List<Object[]> sumQuantityBySymbolBefore(@Param("before") LocalDateTime before);
+
+    // [symbol, total realized pnl]
+    @Query("select t.symbol, sum(t.realizedPnl) from RealizedTradeEntity t group by t.symbol")
+    List<Object[]> sumRealizedBySymbol();
+}
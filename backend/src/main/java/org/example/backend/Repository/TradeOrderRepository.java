@@ -0,0 +1,14 @@
+package org.example.backend.Repository;
+
+import org.example.backend.Entity.TradeOrderEntity;
+import org.example.backend.Model.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface TradeOrderRepository extends JpaRepository<TradeOrderEntity, Long> {
+
+    List<TradeOrderEntity> findByStatusOrderByIdAsc(OrderStatus status);
+
+    List<TradeOrderEntity> findAllByOrderByIdDesc();
+}
@@ -0,0 +1,47 @@
+package org.example.backend.RestController;
+
+import org.example.backend.DTO.AlertRequestDTO;
+import org.example.backend.Entity.PriceAlertEntity;
+import org.example.backend.service.AlertNotifier;
+import org.example.backend.service.AlertService;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/alerts")
+public class AlertController {
+
+    private final AlertService alertService;
+    private final AlertNotifier alertNotifier;
+
+    public AlertController(AlertService alertService, AlertNotifier alertNotifier) {
+        this.alertService = alertService;
+        this.alertNotifier = alertNotifier;
+    }
+
+    // POST /alerts {"symbol":"AAPL","type":"PRICE_ABOVE","threshold":200}
+    @PostMapping
+    public PriceAlertEntity register(@RequestBody AlertRequestDTO request) {
+        return alertService.register(request);
+    }
+
+    // active alerts, or every alert of one symbol including fired ones with ?symbol=
+    @GetMapping
+    public List<PriceAlertEntity> getAlerts(@RequestParam(required = false) String symbol) {
+        return alertService.getAlerts(symbol);
+    }
+
+    @DeleteMapping("/{id}")
+    public String delete(@PathVariable long id) {
+        alertService.delete(id);
+        return "Alert deleted successfully";
+    }
+
+    // GET /alerts/stream -> one SSE "alert" event per trigger
+    @GetMapping("/stream")
+    public SseEmitter stream() {
+        return alertNotifier.subscribe();
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.backend.RestController;
+
+import org.example.backend.service.DomainError;
+import org.example.backend.service.DomainException;
+import org.example.backend.service.MarketUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Turns rejected requests into 4xx problem details instead of a 500 with a logged
+ * stack trace. Rejections are logged at debug, one line and no trace: they are the
+ * client's to fix, and a burst of invalid orders should not become a burst of logging.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    @ExceptionHandler(DomainException.class)
+    public ProblemDetail domain(DomainException e) {
+        log.debug("Rejected: {} {}", e.getError(), e.getMessage());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status(e.getError()), e.getMessage());
+        problem.setProperty("error", e.getError().name());
+        return problem;
+    }
+
+    // request validation in the services and controllers
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail invalid(IllegalArgumentException e) {
+        log.debug("Invalid request: {}", e.getMessage());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problem.setProperty("error", DomainError.INVALID_REQUEST.name());
+        return problem;
+    }
+
+    @ExceptionHandler(MarketUnavailableException.class)
+    public ProblemDetail marketUnavailable(MarketUnavailableException e) {
+        log.warn("Market unavailable: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+    static HttpStatus status(DomainError error) {
+        return switch (error) {
+            case INVALID_REQUEST -> HttpStatus.BAD_REQUEST;
+            case ASSET_NOT_FOUND, NOT_IN_PORTFOLIO, ORDER_NOT_FOUND, ALERT_NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case ASSET_EXISTS, ORDER_NOT_OPEN -> HttpStatus.CONFLICT;
+            case INSUFFICIENT_BALANCE, INSUFFICIENT_QUANTITY -> HttpStatus.UNPROCESSABLE_CONTENT;
+        };
+    }
+}
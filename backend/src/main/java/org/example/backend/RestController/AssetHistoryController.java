@@ -2,8 +2,10 @@ package org.example.backend.RestController;
 
 import org.example.backend.Entity.AssetHistoryEntity;
 import org.example.backend.service.AssetHistoryService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -22,6 +24,15 @@ public class AssetHistoryController {
         return historyService.getAllHistory();
     }
 
+    // GET /asset_history/{symbol}?from=2024-01-01&to=2024-12-31
+    @GetMapping("/{symbol}")
+    public List<AssetHistoryEntity> getHistory(
+            @PathVariable String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return historyService.getHistory(symbol, from, to);
+    }
+
     // POST to fetch from Flask API and save
     @PostMapping("/{symbol}")
     public List<AssetHistoryEntity> fetchAndSave(@PathVariable String symbol) {
@@ -4,6 +4,8 @@ import org.example.backend.Entity.BalanceEntity;
 import org.example.backend.service.BalanceService;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+
 @RestController
 @RequestMapping("/balance")
 public class BalanceController {
@@ -20,21 +22,21 @@ public class BalanceController {
         return balanceService.getBalance();
     }
 
-    // Add to balance
+    // Add to balance, recorded as a deposit
     @PostMapping("/add/{amount}")
-    public BalanceEntity add(@PathVariable double amount) {
-        return balanceService.add(amount);
+    public BalanceEntity add(@PathVariable BigDecimal amount) {
+        return balanceService.deposit(amount);
     }
 
-    // Subtract from balance
+    // Subtract from balance, recorded as a withdrawal
     @PostMapping("/subtract/{amount}")
-    public BalanceEntity subtract(@PathVariable double amount) {
-        return balanceService.subtract(amount);
+    public BalanceEntity subtract(@PathVariable BigDecimal amount) {
+        return balanceService.withdraw(amount);
     }
 
     // Update balance to a specific amount
     @PutMapping("/update/{amount}")
-    public BalanceEntity update(@PathVariable double amount) {
+    public BalanceEntity update(@PathVariable BigDecimal amount) {
         return balanceService.updateBalance(amount);
     }
 }
@@ -0,0 +1,41 @@
+package org.example.backend.RestController;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.backend.DTO.BulkImportResultDTO;
+import org.example.backend.service.BulkTable;
+import org.example.backend.service.BulkTransferService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/bulk")
+public class BulkController {
+
+    private final BulkTransferService bulkTransferService;
+
+    public BulkController(BulkTransferService bulkTransferService) {
+        this.bulkTransferService = bulkTransferService;
+    }
+
+    // GET /bulk/asset_history -> the whole table as CSV (also asset_catalogue, portfolio_asset).
+    // Written on the request thread straight to the response: an async StreamingResponseBody
+    // would be cut off by the async request timeout on a large table.
+    @GetMapping("/{table}")
+    public void export(@PathVariable String table, HttpServletResponse response) throws IOException {
+        BulkTable bulkTable = BulkTable.of(table);
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + bulkTable.getTable() + ".csv\"");
+        bulkTransferService.export(bulkTable, response.getOutputStream());
+    }
+
+    // POST /bulk/asset_history with a CSV body in the export format -> rows read, written,
+    // rejected with the first errors, and rows/s. The body is read as it arrives, never buffered whole.
+    @PostMapping(value = "/{table}", consumes = {"text/csv", "text/plain"})
+    public BulkImportResultDTO importCsv(@PathVariable String table, InputStream body) throws IOException {
+        return bulkTransferService.importCsv(BulkTable.of(table), body);
+    }
+}
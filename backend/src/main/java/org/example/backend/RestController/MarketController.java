@@ -1,14 +1,21 @@
 package org.example.backend.RestController;
 
+import org.example.backend.DTO.MarketResultDTO;
 import org.example.backend.Model.Asset;
 import org.example.backend.Model.AssetHistory;
 import org.example.backend.service.MarketApiService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/market")
@@ -16,18 +23,72 @@ public class MarketController {
 
     private final MarketApiService marketApiService;
 
+    @Value("${market.bulk.max-symbols:100}")
+    private int maxSymbols;
+
     public MarketController(MarketApiService marketApiService) {
         this.marketApiService = marketApiService;
     }
 
+    // Returning a future releases the servlet thread while Flask is being called
     @GetMapping("/quote/{ticker}")
-    public Asset getQuote(@PathVariable String ticker) {
-        return marketApiService.getQuote(ticker);
+    public CompletableFuture<Asset> getQuote(@PathVariable String ticker) {
+        return marketApiService.getQuoteAsync(ticker);
     }
 
     @GetMapping("/history/{ticker}")
-    public List<AssetHistory> getHistory(@PathVariable String ticker) {
-        return marketApiService.getHistory(ticker);
+    public CompletableFuture<List<AssetHistory>> getHistory(@PathVariable String ticker) {
+        return marketApiService.getHistoryAsync(ticker);
     }
-}
 
+    // GET /market/quotes?symbols=AAPL,MSFT -> all quotes in one response
+    @GetMapping("/quotes")
+    public CompletableFuture<List<MarketResultDTO<Asset>>> getQuotes(@RequestParam String symbols) {
+        return joinAll(marketApiService.getQuotes(parseSymbols(symbols)));
+    }
+
+    // GET /market/histories?symbols=AAPL,MSFT -> all histories in one response
+    @GetMapping("/histories")
+    public CompletableFuture<List<MarketResultDTO<List<AssetHistory>>>> getHistories(@RequestParam String symbols) {
+        return joinAll(marketApiService.getHistories(parseSymbols(symbols)));
+    }
+
+    // GET /market/quotes/stream?symbols=AAPL,MSFT -> one SSE event per symbol as soon as it resolves
+    @GetMapping("/quotes/stream")
+    public SseEmitter streamQuotes(@RequestParam String symbols) {
+        SseEmitter emitter = new SseEmitter();
+        List<CompletableFuture<MarketResultDTO<Asset>>> results =
+                marketApiService.getQuotes(parseSymbols(symbols));
+
+        results.forEach(future -> future.thenAccept(result -> {
+            try {
+                // SseEmitter is not thread safe, futures complete on different threads
+                synchronized (emitter) {
+                    emitter.send(SseEmitter.event().name("quote").data(result));
+                }
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+        }));
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0]))
+                .thenRun(emitter::complete);
+        return emitter;
+    }
+
+    private List<String> parseSymbols(String symbols) {
+        List<String> parsed = Arrays.stream(symbols.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .toList();
+        if (parsed.isEmpty() || parsed.size() > maxSymbols) {
+            throw new IllegalArgumentException("Between 1 and " + maxSymbols + " symbols are allowed");
+        }
+        return parsed;
+    }
+
+    private static <T> CompletableFuture<List<T>> joinAll(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.backend.RestController;
+
+import org.example.backend.DTO.OrderRequestDTO;
+import org.example.backend.Entity.TradeOrderEntity;
+import org.example.backend.Model.OrderStatus;
+import org.example.backend.service.OrderService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/orders")
+public class OrderController {
+
+    private final OrderService orderService;
+
+    public OrderController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    // POST /orders {"symbol":"AAPL","side":"BUY","type":"LIMIT","quantity":10,"price":180}
+    @PostMapping
+    public TradeOrderEntity place(@RequestBody OrderRequestDTO request) {
+        return orderService.place(request);
+    }
+
+    // all orders, newest first, or only those with ?status=OPEN|FILLED|CANCELLED|REJECTED
+    @GetMapping
+    public List<TradeOrderEntity> getOrders(@RequestParam(required = false) OrderStatus status) {
+        return orderService.getOrders(status);
+    }
+
+    @DeleteMapping("/{id}")
+    public TradeOrderEntity cancel(@PathVariable long id) {
+        return orderService.cancel(id);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.backend.RestController;
+
+import org.example.backend.DTO.PerformanceDTO;
+import org.example.backend.service.PortfolioSnapshotService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/portfolio/performance")
+public class PerformanceController {
+
+    private final PortfolioSnapshotService snapshotService;
+
+    public PerformanceController(PortfolioSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    // GET /portfolio/performance?from=2024-01-01&to=2024-12-31, defaults to the last year
+    @GetMapping
+    public PerformanceDTO getPerformance(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        return snapshotService.getPerformance(start, end);
+    }
+
+    // Snapshot the days missing up to yesterday, or recompute everything from ?from=
+    @PostMapping("/snapshots")
+    public String snapshot(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+        LocalDate through = LocalDate.now().minusDays(1);
+        int written = from != null
+                ? snapshotService.rebuild(from, through)
+                : snapshotService.refresh(through);
+        return written + " snapshots written";
+    }
+}
@@ -1,20 +1,27 @@
 package org.example.backend.RestController;
 
 
+import org.example.backend.DTO.PnlDTO;
 import org.example.backend.DTO.PortfolioAssetDTO;
+import org.example.backend.DTO.RebalancePlanDTO;
+import org.example.backend.Model.CostBasisMethod;
 import org.example.backend.service.PortfolioService;
+import org.example.backend.service.RebalanceService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/portfolio")
 public class PortfolioController {
 
     private final PortfolioService portfolioService;
+    private final RebalanceService rebalanceService;
 
-    public PortfolioController(PortfolioService portfolioService) {
+    public PortfolioController(PortfolioService portfolioService, RebalanceService rebalanceService) {
         this.portfolioService = portfolioService;
+        this.rebalanceService = rebalanceService;
     }
 
     @GetMapping("/assets")
@@ -22,6 +29,12 @@ public class PortfolioController {
         return portfolioService.getPortfolio();
     }
 
+    // realized and unrealized P&L per symbol from the purchase lots
+    @GetMapping("/pnl")
+    public List<PnlDTO> getPnl() {
+        return portfolioService.getPnl();
+    }
+
     @PutMapping("/{symbol}/buy/{quantity}")
     public String buyAsset(
             @PathVariable String symbol,
@@ -31,18 +44,28 @@ public class PortfolioController {
         return "Asset bought successfully";
     }
 
+    // optional ?method=FIFO|LIFO|AVERAGE picks the lots the sale is matched against
     @PutMapping("/{symbol}/sell/{quantity}")
-    public String sellAsset(@PathVariable String symbol, @PathVariable int quantity) {
-        portfolioService.sellAsset(symbol, quantity);
+    public String sellAsset(@PathVariable String symbol, @PathVariable int quantity,
+                            @RequestParam(required = false) CostBasisMethod method) {
+        portfolioService.sellAsset(symbol, quantity, method);
         return "Asset sold successfully";
     }
 
     @DeleteMapping("/{symbol}")
-    public String sellAll(@PathVariable String symbol) {
-        portfolioService.sellAllAsset(symbol);
+    public String sellAll(@PathVariable String symbol,
+                          @RequestParam(required = false) CostBasisMethod method) {
+        portfolioService.sellAllAsset(symbol, method);
         return "All quantity sold successfully";
     }
 
+    // POST /portfolio/rebalance {"STOCK":0.6,"BOND":0.3} -> planned trades, ?execute=true to place them
+    @PostMapping("/rebalance")
+    public RebalancePlanDTO rebalance(@RequestBody Map<String, Double> targets,
+                                      @RequestParam(defaultValue = "false") boolean execute) {
+        return execute ? rebalanceService.execute(targets) : rebalanceService.plan(targets);
+    }
+
 
 
 }
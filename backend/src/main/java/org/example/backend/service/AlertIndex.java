@@ -0,0 +1,153 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.AlertType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Active alerts indexed by symbol, then by kind in sorted threshold books.
+ * A price update only looks at the books of its own symbol and only walks the
+ * alerts it fires, so its cost does not depend on how many alerts are registered.
+ * Alerts fire once and leave the index. Updates of different symbols run in parallel.
+ */
+public class AlertIndex {
+
+    public interface AlertListener {
+        void fired(long alertId, AlertType type, double threshold, double value);
+    }
+
+    public record Alert(long id, String symbol, AlertType type, double threshold) {
+    }
+
+    private final Map<String, SymbolAlerts> bySymbol = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // replace the whole index, sorting each book once
+    public void load(Collection<Alert> alerts) {
+        Map<String, Map<AlertType, List<Alert>>> grouped = new HashMap<>();
+        for (Alert alert : alerts) {
+            grouped.computeIfAbsent(alert.symbol(), s -> new HashMap<>())
+                    .computeIfAbsent(alert.type(), t -> new ArrayList<>())
+                    .add(alert);
+        }
+        bySymbol.clear();
+        grouped.forEach((symbol, byType) -> {
+            SymbolAlerts symbolAlerts = new SymbolAlerts();
+            byType.forEach((type, list) -> {
+                double[] keys = new double[list.size()];
+                long[] ids = new long[list.size()];
+                for (int i = 0; i < list.size(); i++) {
+                    keys[i] = key(type, list.get(i).threshold());
+                    ids[i] = list.get(i).id();
+                }
+                symbolAlerts.set(type, ThresholdBook.of(keys, ids, list.size()));
+            });
+            bySymbol.put(symbol, symbolAlerts);
+        });
+        size.set(alerts.size());
+    }
+
+    public void add(Alert alert) {
+        SymbolAlerts alerts = bySymbol.computeIfAbsent(alert.symbol(), s -> new SymbolAlerts());
+        synchronized (alerts) {
+            alerts.book(alert.type()).add(key(alert.type(), alert.threshold()), alert.id());
+        }
+        size.incrementAndGet();
+    }
+
+    public boolean remove(Alert alert) {
+        SymbolAlerts alerts = bySymbol.get(alert.symbol());
+        if (alerts == null) {
+            return false;
+        }
+        boolean removed;
+        synchronized (alerts) {
+            removed = alerts.book(alert.type()).remove(key(alert.type(), alert.threshold()), alert.id());
+        }
+        if (removed) {
+            size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    /**
+     * Fire the alerts of a symbol that this update reaches. The position P&L is
+     * only computed when the symbol has P&L alerts. Returns how many fired.
+     */
+    public int evaluate(String symbol, double price, double open, DoubleSupplier pnl, AlertListener listener) {
+        SymbolAlerts alerts = bySymbol.get(symbol);
+        if (alerts == null) {
+            return 0;
+        }
+        int fired = 0;
+        synchronized (alerts) {
+            fired += fire(alerts.above, AlertType.PRICE_ABOVE, price, listener);
+            fired += fire(alerts.below, AlertType.PRICE_BELOW, price, listener);
+            if (alerts.move != null && open > 0) {
+                fired += fire(alerts.move, AlertType.DAILY_MOVE, Math.abs(price / open - 1) * 100, listener);
+            }
+            if (alerts.pnlBelow != null && alerts.pnlBelow.size() > 0) {
+                fired += fire(alerts.pnlBelow, AlertType.PNL_BELOW, pnl.getAsDouble(), listener);
+            }
+        }
+        size.addAndGet(-fired);
+        return fired;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private static int fire(ThresholdBook book, AlertType type, double value, AlertListener listener) {
+        if (book == null) {
+            return 0;
+        }
+        return book.fire(key(type, value), (id, key) -> listener.fired(id, type, key(type, key), value));
+    }
+
+    // falling thresholds are negated so every book fires on key <= value; the mapping is its own inverse
+    private static double key(AlertType type, double value) {
+        return type == AlertType.PRICE_BELOW || type == AlertType.PNL_BELOW ? -value : value;
+    }
+
+    private static final class SymbolAlerts {
+        private ThresholdBook above;
+        private ThresholdBook below;
+        private ThresholdBook move;
+        private ThresholdBook pnlBelow;
+
+        ThresholdBook book(AlertType type) {
+            ThresholdBook book = get(type);
+            if (book == null) {
+                book = new ThresholdBook();
+                set(type, book);
+            }
+            return book;
+        }
+
+        ThresholdBook get(AlertType type) {
+            return switch (type) {
+                case PRICE_ABOVE -> above;
+                case PRICE_BELOW -> below;
+                case DAILY_MOVE -> move;
+                case PNL_BELOW -> pnlBelow;
+            };
+        }
+
+        void set(AlertType type, ThresholdBook book) {
+            switch (type) {
+                case PRICE_ABOVE -> above = book;
+                case PRICE_BELOW -> below = book;
+                case DAILY_MOVE -> move = book;
+                case PNL_BELOW -> pnlBelow = book;
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.backend.DTO.AlertTriggerDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Push channel for alert triggers. Subscribers hold an SSE stream open.
+ *
+ * Every subscriber has its own bounded queue and at most one sender task
+ * draining it, so a slow client only holds up its own stream, never the price
+ * update that fired the alert or the other clients. When a client falls
+ * queue-capacity triggers behind, its oldest pending triggers are dropped.
+ */
+@Component
+public class AlertNotifier {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertNotifier.class);
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int queueCapacity;
+    private final Counter dropped;
+    // threads are only created while a subscriber has triggers to send, at most one each
+    private final ExecutorService senders;
+
+    public AlertNotifier(MeterRegistry meterRegistry,
+                         @Value("${alerts.notifier.queue-capacity:256}") int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        this.dropped = Counter.builder("alerts.notifications.dropped")
+                .description("Alert triggers dropped because a subscriber fell too far behind")
+                .register(meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "alert-send-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(0L));   // no timeout, the client closes it
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    public void publish(List<AlertTriggerDTO> triggers) {
+        if (triggers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(triggers);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(s -> s.emitter.complete());
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        // both guarded by this
+        private final ArrayDeque<AlertTriggerDTO> pending = new ArrayDeque<>();
+        private boolean draining;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(List<AlertTriggerDTO> triggers) {
+            synchronized (this) {
+                for (AlertTriggerDTO trigger : triggers) {
+                    if (pending.size() == queueCapacity) {
+                        pending.pollFirst();
+                        dropped.increment();
+                    }
+                    pending.addLast(trigger);
+                }
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.debug("Alert senders are shut down, dropping pending triggers");
+                synchronized (this) {
+                    pending.clear();
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                AlertTriggerDTO next;
+                synchronized (this) {
+                    next = pending.pollFirst();
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(SseEmitter.event().name("alert").data(next));
+                } catch (IOException | IllegalStateException e) {
+                    subscribers.remove(this);
+                    synchronized (this) {
+                        pending.clear();
+                        draining = false;
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.DTO.AlertRequestDTO;
+import org.example.backend.DTO.AlertTriggerDTO;
+import org.example.backend.Entity.PriceAlertEntity;
+import org.example.backend.Model.AlertType;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.PriceAlertRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registers alerts and evaluates them on every catalogue price update.
+ *
+ * Active alerts live in an AlertIndex loaded at startup, so an update only
+ * touches the alerts of its symbol that actually fire. Evaluation runs after
+ * the price update commits; fired alerts are deactivated in the database and
+ * pushed to subscribers through the AlertNotifier.
+ */
+@Service
+public class AlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertService.class);
+
+    private final PriceAlertRepository alertRepo;
+    private final AssetCatalogueRepository assetCatalogueRepo;
+    private final LotAccountingService lotAccounting;
+    private final AlertNotifier notifier;
+    private final AlertIndex index = new AlertIndex();
+
+    private final Counter triggered;
+
+    public AlertService(PriceAlertRepository alertRepo,
+                        AssetCatalogueRepository assetCatalogueRepo,
+                        LotAccountingService lotAccounting,
+                        AlertNotifier notifier,
+                        MeterRegistry meterRegistry) {
+        this.alertRepo = alertRepo;
+        this.assetCatalogueRepo = assetCatalogueRepo;
+        this.lotAccounting = lotAccounting;
+        this.notifier = notifier;
+
+        this.triggered = Counter.builder("alerts.triggered")
+                .description("Alerts fired by catalogue price updates")
+                .register(meterRegistry);
+        Gauge.builder("alerts.active", index, AlertIndex::size)
+                .description("Alerts waiting to fire")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveAlerts() {
+        List<AlertIndex.Alert> alerts = alertRepo.findActiveKeys().stream()
+                .map(row -> new AlertIndex.Alert(((Number) row[0]).longValue(), (String) row[1],
+                        (AlertType) row[2], ((Number) row[3]).doubleValue()))
+                .toList();
+        index.load(alerts);
+        log.info("Loaded {} active alerts", alerts.size());
+    }
+
+    public PriceAlertEntity register(AlertRequestDTO request) {
+        if (request.getSymbol() == null || request.getType() == null) {
+            throw new IllegalArgumentException("symbol and type are required");
+        }
+        if (assetCatalogueRepo.findBySymbol(request.getSymbol()).isEmpty()) {
+            throw new DomainException(DomainError.ASSET_NOT_FOUND,
+                    "Asset not found in catalogue: " + request.getSymbol());
+        }
+        PriceAlertEntity alert = new PriceAlertEntity();
+        alert.setSymbol(request.getSymbol());
+        alert.setType(request.getType());
+        alert.setThreshold(request.getThreshold());
+        alert.setActive(true);
+        alert.setCreatedAt(LocalDateTime.now());
+        alert = alertRepo.save(alert);
+
+        index.add(toIndexed(alert));
+        return alert;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PriceAlertEntity> getAlerts(String symbol) {
+        return symbol != null
+                ? alertRepo.findBySymbolOrderByIdAsc(symbol)
+                : alertRepo.findByActiveTrueOrderByIdAsc();
+    }
+
+    public void delete(long id) {
+        PriceAlertEntity alert = alertRepo.findById(id)
+                .orElseThrow(() -> new DomainException(DomainError.ALERT_NOT_FOUND, "Alert not found: " + id));
+        if (alert.isActive()) {
+            index.remove(toIndexed(alert));
+        }
+        alertRepo.delete(alert);
+    }
+
+    // fallbackExecution: catalogue updates outside a transaction are evaluated straight away
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        String symbol = event.symbol();
+        LocalDateTime now = LocalDateTime.now();
+        List<AlertTriggerDTO> triggers = new ArrayList<>();
+
+        index.evaluate(symbol, event.price(), event.open(), () -> positionPnl(symbol, event.price()),
+                (id, type, threshold, value) ->
+                        triggers.add(new AlertTriggerDTO(id, symbol, type, threshold, value, event.price(), now)));
+        if (triggers.isEmpty()) {
+            return;
+        }
+
+        // one update per alert kind, they share the observed value
+        Map<AlertType, List<Long>> idsByType = new HashMap<>();
+        Map<AlertType, Double> valueByType = new HashMap<>();
+        for (AlertTriggerDTO trigger : triggers) {
+            idsByType.computeIfAbsent(trigger.getType(), t -> new ArrayList<>()).add(trigger.getAlertId());
+            valueByType.put(trigger.getType(), trigger.getValue());
+        }
+        idsByType.forEach((type, ids) -> alertRepo.markTriggered(ids, valueByType.get(type), now));
+
+        triggered.increment(triggers.size());
+        notifier.publish(triggers);
+    }
+
+    // NaN when nothing is held, so P&L alerts never fire on a closed position
+    private double positionPnl(String symbol, double price) {
+        return lotAccounting.getQuantity(symbol) > 0
+                ? lotAccounting.unrealizedPnl(symbol, price)
+                : Double.NaN;
+    }
+
+    private static AlertIndex.Alert toIndexed(PriceAlertEntity alert) {
+        return new AlertIndex.Alert(alert.getId(), alert.getSymbol(), alert.getType(), alert.getThreshold());
+    }
+}
@@ -3,31 +3,44 @@ package org.example.backend.service;
 import org.example.backend.Entity.AssetCatalogueEntity;
 import org.example.backend.Model.Asset;
 import org.example.backend.Repository.AssetCatalogueRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class AssetCatalogueService {
 
     private final AssetCatalogueRepository assetCatalogueRepo;
     private final MarketApiService marketApiService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogueWriteBuffer writeBuffer;
 
-    public AssetCatalogueService(AssetCatalogueRepository assetCatalogueRepo, MarketApiService marketApiService) {
+    public AssetCatalogueService(AssetCatalogueRepository assetCatalogueRepo,
+                                 MarketApiService marketApiService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 CatalogueWriteBuffer writeBuffer) {
         this.assetCatalogueRepo = assetCatalogueRepo;
         this.marketApiService = marketApiService;
+        this.eventPublisher = eventPublisher;
+        this.writeBuffer = writeBuffer;
     }
 
-    // Get all assets in catalogue
+    // Get all assets in catalogue, with quotes not yet flushed to the database
+    @Transactional(readOnly = true)
     public List<AssetCatalogueEntity> getAllAssets() {
-        return assetCatalogueRepo.findAll();
+        return writeBuffer.live(assetCatalogueRepo.findAll());
     }
 
     // Add a new asset by symbol
     public AssetCatalogueEntity addAsset(String symbol) {
         if (assetCatalogueRepo.findBySymbol(symbol).isPresent()) {
-            throw new RuntimeException("Asset already exists: " + symbol);
+            throw new DomainException(DomainError.ASSET_EXISTS, "Asset already exists: " + symbol);
         }
         Asset asset = marketApiService.getQuote(symbol);
         return saveOrUpdate(asset);
@@ -36,23 +49,39 @@ public class AssetCatalogueService {
     // Update existing asset by symbol
     public AssetCatalogueEntity updateAsset(String symbol) {
         AssetCatalogueEntity existing = assetCatalogueRepo.findBySymbol(symbol)
-                .orElseThrow(() -> new RuntimeException("Asset not found: " + symbol));
+                .orElseThrow(() -> new DomainException(DomainError.ASSET_NOT_FOUND, "Asset not found: " + symbol));
 
         Asset asset = marketApiService.getQuote(symbol);
 
-        existing.setName(asset.getName());
-        existing.setType(asset.getType());
-        existing.setOpen(asset.getOpen());
-        existing.setHigh(asset.getHigh());
-        existing.setLow(asset.getLow());
-        existing.setClose(asset.getClose());
-        existing.setPrice(asset.getPrice());
-        existing.setVolume(asset.getVolume());
-        existing.setCurrency(asset.getCurrency());
-        existing.setExchange(asset.getExchange());
-        existing.setLastUpdated(LocalDateTime.now());
-
-        return assetCatalogueRepo.save(existing);
+        // market service is down, keep the last known values as they are
+        if (asset.isStale()) {
+            return existing;
+        }
+
+        // the row is written by the next buffer flush, readers see the quote right away
+        writeBuffer.put(asset);
+        AssetCatalogueEntity updated = writeBuffer.live(existing);
+        publishPrice(updated);
+        return updated;
+    }
+
+    // Apply a batch of fresh quotes to existing catalogue rows through the write buffer
+    public List<AssetCatalogueEntity> applyQuotes(Collection<Asset> quotes) {
+        Map<String, Asset> bySymbol = quotes.stream()
+                .filter(q -> !q.isStale())
+                .collect(Collectors.toMap(Asset::getSymbol, q -> q, (a, b) -> b));
+
+        List<AssetCatalogueEntity> entities = assetCatalogueRepo.findAllById(bySymbol.keySet());
+        entities.forEach(e -> writeBuffer.put(bySymbol.get(e.getSymbol())));
+        List<AssetCatalogueEntity> updated = writeBuffer.live(entities);
+        updated.forEach(this::publishPrice);
+        return updated;
+    }
+
+    // alerts and other listeners react to every new catalogue price; called after put, so
+    // live() already returns it, but with write-behind on the row may not be flushed yet
+    private void publishPrice(AssetCatalogueEntity entity) {
+        eventPublisher.publishEvent(new PriceUpdatedEvent(entity.getSymbol(), entity.getPrice(), entity.getOpen()));
     }
 
     // Helper: convert Asset -> Entity
@@ -71,7 +100,9 @@ public class AssetCatalogueService {
         entity.setExchange(asset.getExchange());
         entity.setLastUpdated(LocalDateTime.now());
 
-        return assetCatalogueRepo.save(entity);
+        AssetCatalogueEntity saved = assetCatalogueRepo.save(entity);
+        publishPrice(saved);
+        return saved;
     }
 }
 
@@ -4,13 +4,19 @@ import org.example.backend.Entity.AssetHistoryEntity;
 import org.example.backend.Model.AssetHistory;
 import org.example.backend.Repository.AssetHistoryRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 public class AssetHistoryService {
 
+    // open range ends, kept inside what a SQL DATE column can hold
+    private static final LocalDate EARLIEST = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
     private final AssetHistoryRepository historyRepo;
     private final MarketApiService marketApiService;
 
@@ -20,10 +26,23 @@ public class AssetHistoryService {
     }
 
     // Get all rows from asset_history table
+    @Transactional(readOnly = true)
     public List<AssetHistoryEntity> getAllHistory() {
         return historyRepo.findAll();
     }
 
+    // History of one symbol, optionally limited to a date range (index range scan on symbol, date)
+    @Transactional(readOnly = true)
+    public List<AssetHistoryEntity> getHistory(String symbol, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return historyRepo.findBySymbolOrderByDateAsc(symbol);
+        }
+        return historyRepo.findBySymbolAndDateBetweenOrderByDateAsc(
+                symbol,
+                from != null ? from : EARLIEST,
+                to != null ? to : LATEST);
+    }
+
     // Fetch history from Flask API and persist in DB
     public List<AssetHistoryEntity> fetchAndSave(String symbol) {
 
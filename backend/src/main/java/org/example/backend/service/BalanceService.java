@@ -1,18 +1,30 @@
 package org.example.backend.service;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.example.backend.Entity.BalanceEntity;
+import org.example.backend.Entity.CashFlowEntity;
 import org.example.backend.Repository.BalanceRepository;
+import org.example.backend.Repository.CashFlowRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Service
 public class BalanceService {
 
     private final BalanceRepository balanceRepo;
+    private final CashFlowRepository cashFlowRepo;
+    private final ObservationRegistry observationRegistry;
 
-    public BalanceService(BalanceRepository balanceRepo) {
+    public BalanceService(BalanceRepository balanceRepo,
+                          CashFlowRepository cashFlowRepo,
+                          ObservationRegistry observationRegistry) {
         this.balanceRepo = balanceRepo;
+        this.cashFlowRepo = cashFlowRepo;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
@@ -25,43 +37,105 @@ public class BalanceService {
                 .findFirst()
                 .orElseGet(() -> {
                     BalanceEntity initialBalance = new BalanceEntity();
-                    initialBalance.setAmount(100000); // starting balance
+                    initialBalance.setAmount(Money.of(100000)); // starting balance
                     initialBalance.setLastUpdated(LocalDateTime.now());
                     return balanceRepo.save(initialBalance);
                 });
     }
 
     /**
-     * Set the balance to a specific new amount
+     * Set the balance to a specific new amount.
+     * The difference is recorded as an external cash flow.
      */
-    public BalanceEntity updateBalance(double newAmount) {
-        BalanceEntity balance = getBalance();
-        balance.setAmount(newAmount);
-        balance.setLastUpdated(LocalDateTime.now());
-        return balanceRepo.save(balance);
+    @Transactional
+    public BalanceEntity updateBalance(BigDecimal newAmount) {
+        if (newAmount.signum() < 0) {
+            throw new DomainException(DomainError.INVALID_REQUEST, "Balance must not be negative");
+        }
+        return mutation("update").observe(() -> {
+            BalanceEntity balance = lockBalance();
+            recordFlow(newAmount.subtract(balance.getAmount()), "ADJUSTMENT");
+            balance.setAmount(newAmount.setScale(Money.SCALE, Money.ROUNDING));
+            balance.setLastUpdated(LocalDateTime.now());
+            return balanceRepo.save(balance);
+        });
     }
 
     /**
      * Add a specific amount to the balance
      */
-    public BalanceEntity add(double amount) {
-        BalanceEntity balance = getBalance();
-        balance.setAmount(balance.getAmount() + amount);
-        balance.setLastUpdated(LocalDateTime.now());
-        return balanceRepo.save(balance);
+    @Transactional
+    public BalanceEntity add(BigDecimal amount) {
+        return mutation("add").observe(() -> {
+            BalanceEntity balance = lockBalance();
+            balance.setAmount(balance.getAmount().add(amount).setScale(Money.SCALE, Money.ROUNDING));
+            balance.setLastUpdated(LocalDateTime.now());
+            return balanceRepo.save(balance);
+        });
     }
 
     /**
      * Subtract a specific amount from the balance
      */
-    public BalanceEntity subtract(double amount) {
-        BalanceEntity balance = getBalance();
-        if (balance.getAmount() < amount) {
-            throw new RuntimeException("Insufficient balance");
+    @Transactional
+    public BalanceEntity subtract(BigDecimal amount) {
+        return mutation("subtract").observe(() -> {
+            BalanceEntity balance = lockBalance();
+            if (balance.getAmount().compareTo(amount) < 0) {
+                throw new DomainException(DomainError.INSUFFICIENT_BALANCE, "Insufficient balance");
+            }
+            balance.setAmount(balance.getAmount().subtract(amount).setScale(Money.SCALE, Money.ROUNDING));
+            balance.setLastUpdated(LocalDateTime.now());
+            return balanceRepo.save(balance);
+        });
+    }
+
+    /**
+     * Money paid in from outside the account, unlike add which also takes sale proceeds
+     */
+    @Transactional
+    public BalanceEntity deposit(BigDecimal amount) {
+        requirePositive(amount);
+        BalanceEntity balance = add(amount);
+        recordFlow(amount, "DEPOSIT");
+        return balance;
+    }
+
+    /**
+     * Money taken out of the account, unlike subtract which also pays for purchases
+     */
+    @Transactional
+    public BalanceEntity withdraw(BigDecimal amount) {
+        requirePositive(amount);
+        BalanceEntity balance = subtract(amount);
+        recordFlow(amount.negate(), "WITHDRAWAL");
+        return balance;
+    }
+
+    // checked before any query: a negative deposit would be a withdrawal that skips the balance check
+    private static void requirePositive(BigDecimal amount) {
+        if (amount.signum() <= 0) {
+            throw new DomainException(DomainError.INVALID_REQUEST, "Amount must be positive");
         }
-        balance.setAmount(balance.getAmount() - amount);
-        balance.setLastUpdated(LocalDateTime.now());
-        return balanceRepo.save(balance);
+    }
+
+    // Fills on the order lanes and REST trades change the one row concurrently: read it
+    // locked, or two of them would start from the same amount and one change be lost
+    private BalanceEntity lockBalance() {
+        return balanceRepo.findFirstByOrderByIdAsc().orElseGet(this::getBalance);
+    }
+
+    // external flows are what separates investment returns from money moved in or out
+    private void recordFlow(BigDecimal amount, String kind) {
+        if (amount.signum() != 0) {
+            cashFlowRepo.save(new CashFlowEntity(amount, kind, LocalDateTime.now()));
+        }
+    }
+
+    // timed as balance.mutation{operation}
+    private Observation mutation(String operation) {
+        return Observation.createNotStarted("balance.mutation", observationRegistry)
+                .lowCardinalityKeyValue("operation", operation);
     }
 }
 
@@ -0,0 +1,174 @@
+package org.example.backend.service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The tables that can be exported and imported as CSV, with their columns in file order.
+ * The header of an imported file has to list exactly these columns.
+ */
+public enum BulkTable {
+
+    ASSET_CATALOGUE("asset_catalogue",
+            "INSERT INTO asset_catalogue (symbol, name, type, open, high, low, close, price, volume, currency, "
+                    + "exchange, last_updated) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE name = VALUES(name), type = VALUES(type), open = VALUES(open), "
+                    + "high = VALUES(high), low = VALUES(low), close = VALUES(close), price = VALUES(price), "
+                    + "volume = VALUES(volume), currency = VALUES(currency), exchange = VALUES(exchange), "
+                    + "last_updated = VALUES(last_updated)",
+            new Column("symbol", Kind.SYMBOL), new Column("name", Kind.TEXT), new Column("type", Kind.TEXT),
+            new Column("open", Kind.PRICE), new Column("high", Kind.PRICE), new Column("low", Kind.PRICE),
+            new Column("close", Kind.PRICE), new Column("price", Kind.PRICE), new Column("volume", Kind.COUNT),
+            new Column("currency", Kind.TEXT), new Column("exchange", Kind.TEXT),
+            new Column("last_updated", Kind.TIMESTAMP)),
+
+    // IGNORE, like ingestion: a bar already stored under the same (symbol, date) key is kept
+    ASSET_HISTORY("asset_history",
+            "INSERT IGNORE INTO asset_history (symbol, date, type, open, high, low, close, volume) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            new Column("symbol", Kind.SYMBOL), new Column("date", Kind.DATE), new Column("type", Kind.TEXT),
+            new Column("open", Kind.PRICE), new Column("high", Kind.PRICE), new Column("low", Kind.PRICE),
+            new Column("close", Kind.PRICE), new Column("volume", Kind.COUNT)),
+
+    // each position also opens one lot, so imported positions can be sold like bought ones
+    PORTFOLIO_ASSET("portfolio_asset",
+            "INSERT INTO portfolio_asset (symbol, name, type, buy_price, quantity, buy_timestamp) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)",
+            new Column("symbol", Kind.SYMBOL), new Column("name", Kind.TEXT), new Column("type", Kind.TEXT),
+            new Column("buy_price", Kind.PRICE), new Column("quantity", Kind.QUANTITY),
+            new Column("buy_timestamp", Kind.TIMESTAMP));
+
+    enum Kind { SYMBOL, TEXT, PRICE, COUNT, QUANTITY, DATE, TIMESTAMP }
+
+    record Column(String name, Kind kind) {
+    }
+
+    private final String table;
+    private final String insert;
+    private final List<Column> columns;
+
+    BulkTable(String table, String insert, Column... columns) {
+        this.table = table;
+        this.insert = insert;
+        this.columns = List.of(columns);
+    }
+
+    // asset_history or asset-history in a URL
+    public static BulkTable of(String name) {
+        return Arrays.stream(values())
+                .filter(t -> t.table.equalsIgnoreCase(name.replace('-', '_')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown table " + name + ", expected one of "
+                        + Arrays.stream(values()).map(BulkTable::getTable).toList()));
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    String getInsert() {
+        return insert;
+    }
+
+    List<Column> getColumns() {
+        return columns;
+    }
+
+    String header() {
+        return String.join(",", columns.stream().map(Column::name).toList());
+    }
+
+    String select() {
+        return "SELECT " + header() + " FROM " + table;
+    }
+
+    /**
+     * Parse and check one CSV record into insert parameters, in column order.
+     * Throws IllegalArgumentException naming the first bad column.
+     */
+    Object[] parse(List<String> fields) {
+        if (fields.size() != columns.size()) {
+            throw new IllegalArgumentException("expected " + columns.size() + " fields, got " + fields.size());
+        }
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            Column column = columns.get(i);
+            try {
+                row[i] = parse(column.kind(), fields.get(i).trim());
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException(column.name() + ": " + e.getMessage());
+            }
+        }
+        if (this != PORTFOLIO_ASSET && (double) row[4] < (double) row[5]) {
+            throw new IllegalArgumentException("high is below low");
+        }
+        return row;
+    }
+
+    private static Object parse(Kind kind, String value) {
+        if (value.isEmpty()) {
+            return switch (kind) {
+                case TEXT, TIMESTAMP -> null;
+                default -> throw new IllegalArgumentException("is required");
+            };
+        }
+        return switch (kind) {
+            case SYMBOL -> {
+                if (value.length() > 16) {
+                    throw new IllegalArgumentException("longer than 16 characters");
+                }
+                yield value;
+            }
+            case TEXT -> value;
+            case PRICE -> {
+                double price = Double.parseDouble(value);
+                if (!Double.isFinite(price) || price < 0) {
+                    throw new IllegalArgumentException("not a price: " + value);
+                }
+                yield price;
+            }
+            case COUNT -> {
+                long count = Long.parseLong(value);
+                if (count < 0) {
+                    throw new IllegalArgumentException("negative: " + value);
+                }
+                yield count;
+            }
+            case QUANTITY -> {
+                int quantity = Integer.parseInt(value);
+                if (quantity <= 0) {
+                    throw new IllegalArgumentException("must be positive: " + value);
+                }
+                yield quantity;
+            }
+            case DATE -> Date.valueOf(LocalDate.parse(value));
+            case TIMESTAMP -> Timestamp.valueOf(LocalDateTime.parse(value));
+        };
+    }
+
+    // one column of the current row as CSV text, ISO dates and timestamps as import expects them
+    static String format(ResultSet rs, int index, Kind kind) throws SQLException {
+        return switch (kind) {
+            case DATE -> {
+                Date date = rs.getDate(index);
+                yield date == null ? "" : date.toLocalDate().toString();
+            }
+            case TIMESTAMP -> {
+                Timestamp timestamp = rs.getTimestamp(index);
+                yield timestamp == null ? "" : timestamp.toLocalDateTime().toString();
+            }
+            case PRICE -> Double.toString(rs.getDouble(index));
+            default -> {
+                String value = rs.getString(index);
+                yield value == null ? "" : value;
+            }
+        };
+    }
+}
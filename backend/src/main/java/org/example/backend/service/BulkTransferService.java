@@ -0,0 +1,459 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.backend.DTO.BulkImportResultDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CSV export and import of whole tables, for moving a book of positions or years of
+ * history without one REST call per row.
+ *
+ * Both directions stream: export writes each row as the cursor returns it, and import
+ * reads record by record, validates it and
+ * writes a JDBC batch of batch-size rows per transaction. Memory stays flat however
+ * large the file is; a failed import keeps the batches committed before the failure.
+ *
+ * On MySQL the export statement alone is a streaming result set (fetch size
+ * Integer.MIN_VALUE), since honouring a positive fetch size would take
+ * useCursorFetch on the URL, which turns every statement of the pool into a server
+ * prepared statement. Other databases get bulk.export.fetch-size rows per round trip.
+ *
+ * asset_history rows already stored under the same (symbol, date) are skipped,
+ * asset_catalogue rows replace the stored ones, and portfolio_asset rows open a
+ * position and a lot for a symbol that is in the catalogue but not yet held.
+ * Imported positions do not touch the cash balance, so their lots record a
+ * settled amount of 0 and snapshot replays take no cash for them.
+ *
+ * An imported catalogue row also replaces any quote still waiting in the
+ * CatalogueWriteBuffer, which would otherwise overwrite it on the next flush, and
+ * a changed price is published as a PriceUpdatedEvent so resting orders and
+ * alerts see it like any other quote.
+ */
+@Service
+public class BulkTransferService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkTransferService.class);
+
+    private static final int MAX_ERRORS = 100;
+    // a record is a few hundred characters; a stray quote would otherwise read the rest of the file into one field
+    private static final int MAX_RECORD_LENGTH = 1 << 16;
+    private static final long PROGRESS_EVERY = 1_000_000;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final String INSERT_LOT = "INSERT INTO portfolio_lot (symbol, quantity, remaining, price, "
+            + "acquired_at, settled_amount) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate exportJdbc;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+    private final LotAccountingService lotAccounting;
+    private final CatalogueWriteBuffer catalogueBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int fetchSize;
+    private final Meter.MeterProvider<Counter> rowCounter;
+
+    public BulkTransferService(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               LotAccountingService lotAccounting,
+                               CatalogueWriteBuffer catalogueBuffer,
+                               ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry,
+                               @Value("${bulk.import.batch-size:5000}") int batchSize,
+                               @Value("${bulk.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.exportJdbc = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // read-only, so exports go to the replica when one is configured
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.lotAccounting = lotAccounting;
+        this.catalogueBuffer = catalogueBuffer;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
+        this.rowCounter = Counter.builder("bulk.rows")
+                .description("Rows exported or imported through the bulk CSV endpoints")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Write the whole table to out as CSV, header first, and return the number of rows.
+     */
+    public long export(BulkTable table, OutputStream out) {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        List<BulkTable.Column> columns = table.getColumns();
+        long[] rows = {0};
+
+        readTransaction.executeWithoutResult(status -> {
+            try {
+                writer.write(table.header());
+                writer.write('\n');
+                exportJdbc.query(con -> exportStatement(con, table.select()), rs -> {
+                    try {
+                        for (int i = 0; i < columns.size(); i++) {
+                            if (i > 0) {
+                                writer.write(',');
+                            }
+                            writer.write(escape(BulkTable.format(rs, i + 1, columns.get(i).kind())));
+                        }
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++rows[0] % PROGRESS_EVERY == 0) {
+                        log.info("Exported {} {} rows so far", rows[0], table.getTable());
+                    }
+                });
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        rowCounter.withTags("table", table.getTable(), "direction", "export").increment(rows[0]);
+        log.info("Exported {} {} rows in {} s ({} rows/s)", rows[0], table.getTable(),
+                String.format("%.1f", seconds), Math.round(rows[0] / Math.max(seconds, 1e-9)));
+        return rows[0];
+    }
+
+    private PreparedStatement exportStatement(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        boolean mysql = "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+        return statement;
+    }
+
+    /**
+     * Read CSV from in, header first, and write the valid rows in batches.
+     * Invalid records are counted and the first MAX_ERRORS are reported by line number.
+     * A record the reader cannot delimit (an unterminated quote, more than
+     * MAX_RECORD_LENGTH characters) is rejected by its first line and reading goes on
+     * with the next one.
+     */
+    public BulkImportResultDTO importCsv(BulkTable table, InputStream in) throws IOException {
+        long start = System.nanoTime();
+        BulkImportResultDTO result = new BulkImportResultDTO();
+        result.setTable(table.getTable());
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        CsvReader csv = new CsvReader(reader, MAX_RECORD_LENGTH);
+        List<String> header = csv.next();
+        // a byte order mark, as spreadsheet tools write it, is not part of the first column name
+        if (header == null
+                || !String.join(",", header).replace("\uFEFF", "").trim().equalsIgnoreCase(table.header())) {
+            throw new IllegalArgumentException("Expected the header " + table.header());
+        }
+
+        // portfolio files hold at most one row per catalogue symbol, so these stay small
+        Set<String> catalogue = Set.of();
+        Set<String> held = new HashSet<>();
+        if (table == BulkTable.PORTFOLIO_ASSET) {
+            catalogue = new HashSet<>(jdbcTemplate.queryForList("SELECT symbol FROM asset_catalogue", String.class));
+            held.addAll(jdbcTemplate.queryForList("SELECT symbol FROM portfolio_asset", String.class));
+        }
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.next();
+            } catch (IllegalArgumentException e) {
+                result.setRowsRead(result.getRowsRead() + 1);
+                reject(result, csv.getLine(), e);
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            result.setRowsRead(result.getRowsRead() + 1);
+            try {
+                Object[] row = table.parse(record);
+                if (table == BulkTable.PORTFOLIO_ASSET) {
+                    checkPosition(row, catalogue, held);
+                }
+                batch.add(row);
+            } catch (IllegalArgumentException e) {
+                reject(result, csv.getLine(), e);
+            }
+            if (batch.size() == batchSize) {
+                result.setRowsWritten(result.getRowsWritten() + write(table, batch));
+                batch.clear();
+            }
+            if (result.getRowsRead() % PROGRESS_EVERY == 0) {
+                log.info("Imported {} of {} {} rows read so far", result.getRowsWritten(), result.getRowsRead(),
+                        table.getTable());
+            }
+        }
+        if (!batch.isEmpty()) {
+            result.setRowsWritten(result.getRowsWritten() + write(table, batch));
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        result.setSeconds(seconds);
+        result.setRowsPerSecond(result.getRowsRead() / Math.max(seconds, 1e-9));
+        rowCounter.withTags("table", table.getTable(), "direction", "import").increment(result.getRowsWritten());
+        log.info("Imported {} {} rows ({} read, {} rejected) in {} s ({} rows/s)", result.getRowsWritten(),
+                table.getTable(), result.getRowsRead(), result.getRowsRejected(), String.format("%.1f", seconds),
+                Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    private static void reject(BulkImportResultDTO result, long line, IllegalArgumentException e) {
+        result.setRowsRejected(result.getRowsRejected() + 1);
+        if (result.getErrors().size() < MAX_ERRORS) {
+            result.getErrors().add("line " + line + ": " + e.getMessage());
+        }
+    }
+
+    private static void checkPosition(Object[] row, Set<String> catalogue, Set<String> held) {
+        String symbol = (String) row[0];
+        if (!catalogue.contains(symbol)) {
+            throw new IllegalArgumentException("symbol: " + symbol + " is not in the catalogue");
+        }
+        if (!held.add(symbol)) {
+            throw new IllegalArgumentException("symbol: " + symbol + " is already held");
+        }
+        if (row[5] == null) {
+            row[5] = Timestamp.valueOf(LocalDateTime.now());
+        }
+    }
+
+    // one transaction per batch, returns the rows the database actually wrote
+    private int write(BulkTable table, List<Object[]> batch) {
+        // catalogue prices as readers saw them before the import: buffered quotes first, then the rows
+        Map<String, Double> before = table == BulkTable.ASSET_CATALOGUE
+                ? catalogueBuffer.discard(batch.stream().map(row -> (String) row[0]).toList())
+                : Map.of();
+        int written = writeTransaction.execute(status -> {
+            if (table == BulkTable.ASSET_CATALOGUE) {
+                readPrices(batch, before);
+            }
+            int[] counts = jdbcTemplate.batchUpdate(table.getInsert(), batch);
+            if (table == BulkTable.PORTFOLIO_ASSET) {
+                List<Object[]> lots = new ArrayList<>(batch.size());
+                for (Object[] row : batch) {
+                    lots.add(new Object[]{row[0], row[4], row[4], row[3], row[5], BigDecimal.ZERO});
+                }
+                jdbcTemplate.batchUpdate(INSERT_LOT, lots);
+            }
+            int n = 0;
+            for (int count : counts) {
+                // 0 is a row IGNORE skipped; rewritten batches report SUCCESS_NO_INFO (-2)
+                if (count != 0) {
+                    n++;
+                }
+            }
+            return n;
+        });
+        if (table == BulkTable.PORTFOLIO_ASSET) {
+            batch.forEach(row -> lotAccounting.evict((String) row[0]));
+        }
+        if (table == BulkTable.ASSET_CATALOGUE) {
+            publishChangedPrices(batch, before);
+        }
+        return written;
+    }
+
+    private void readPrices(List<Object[]> batch, Map<String, Double> prices) {
+        String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+        jdbcTemplate.query("SELECT symbol, price FROM asset_catalogue WHERE symbol IN (" + placeholders + ")",
+                (ResultSet rs) -> {
+                    prices.putIfAbsent(rs.getString(1), rs.getDouble(2));
+                },
+                batch.stream().map(row -> row[0]).toArray());
+    }
+
+    // after the commit, so listeners reading the catalogue find the imported row
+    private void publishChangedPrices(List<Object[]> batch, Map<String, Double> before) {
+        for (Object[] row : batch) {
+            String symbol = (String) row[0];
+            double price = (double) row[7];
+            Double previous = before.put(symbol, price);
+            if (previous == null || previous != price) {
+                eventPublisher.publishEvent(new PriceUpdatedEvent(symbol, price, (double) row[3]));
+            }
+        }
+    }
+
+    static String escape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * RFC 4180 records from a reader, one at a time: quoted fields may hold commas,
+     * doubled quotes and line breaks.
+     *
+     * Nothing longer than maxLength characters is held in memory. A record that is
+     * longer, or whose quote is never closed, throws IllegalArgumentException after
+     * giving back the lines it read past its first one, so the next call starts on
+     * the line after it.
+     */
+    static class CsvReader {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final Deque<String> pushedBack = new ArrayDeque<>();
+        private int position;
+        private int limit;
+        private long line;
+
+        CsvReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        // line number of the last line of the record returned by next(), or of the first line of a rejected one
+        long getLine() {
+            return line;
+        }
+
+        List<String> next() throws IOException {
+            String text = readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+            if (text.length() > maxLength) {
+                throw new IllegalArgumentException("record longer than " + maxLength + " characters");
+            }
+            long first = line;
+            // lines after the first one, given back if the record turns out to be malformed
+            List<String> continued = new ArrayList<>();
+            int length = text.length();
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    // the line break is part of a quoted field
+                    text = readLine();
+                    if (text == null || (length += text.length() + 1) > maxLength) {
+                        if (text != null) {
+                            continued.add(text);
+                        }
+                        for (int k = continued.size() - 1; k >= 0; k--) {
+                            pushedBack.addFirst(continued.get(k));
+                        }
+                        line = first;
+                        throw new IllegalArgumentException(text == null
+                                ? "unterminated quoted field"
+                                : "quoted field runs past " + maxLength + " characters");
+                    }
+                    continued.add(text);
+                    line++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c == '"' && i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        // one line without its terminator, null at the end of the input; a line over maxLength
+        // is cut short (still over the limit) and the rest of it skipped
+        private String readLine() throws IOException {
+            if (!pushedBack.isEmpty()) {
+                return pushedBack.pollFirst();
+            }
+            StringBuilder text = new StringBuilder();
+            boolean any = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(reader.read(buffer), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return any ? withoutCarriageReturn(text) : null;
+                    }
+                }
+                any = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                // two over, so a line cut short stays over the limit once a trailing \r is dropped
+                int room = Math.max(maxLength + 2 - text.length(), 0);
+                text.append(buffer, start, Math.min(position - start, room));
+                if (position < limit) {
+                    position++;
+                    return withoutCarriageReturn(text);
+                }
+            }
+        }
+
+        private static String withoutCarriageReturn(StringBuilder text) {
+            int end = text.length();
+            return end > 0 && text.charAt(end - 1) == '\r' ? text.substring(0, end - 1) : text.toString();
+        }
+    }
+}
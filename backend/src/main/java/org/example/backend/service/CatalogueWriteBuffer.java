@@ -0,0 +1,216 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Model.Asset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for catalogue quotes.
+ *
+ * A new quote is visible at once through live(), while the database copy is
+ * caught up by a periodic flush: quotes are coalesced per symbol, so a symbol
+ * that ticked a hundred times since the last flush costs one row, and the flush
+ * is a single JDBC batch that only sets the quote columns. Descriptive columns
+ * (name, type, currency, exchange) are written when an asset is added.
+ *
+ * The pending map never holds more than one entry per catalogue symbol. Quotes
+ * not yet flushed are lost if the process dies without running @PreDestroy,
+ * at most flush-interval-ms of ticks that the next quote replaces anyway.
+ *
+ * latest only holds quotes this JVM received. Another instance reading the same
+ * database sees a quote once it is flushed, so its prices trail by up to
+ * flush-interval-ms plus the time a flush takes, longer while flushes fail.
+ * With enabled=false put writes through before returning and there is no lag.
+ */
+@Component
+public class CatalogueWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogueWriteBuffer.class);
+
+    private static final String UPDATE_QUOTE =
+            "UPDATE asset_catalogue SET open = ?, high = ?, low = ?, close = ?, price = ?, volume = ?, "
+                    + "last_updated = ? WHERE symbol = ?";
+
+    public record Quote(String symbol, double open, double high, double low, double close,
+                        double price, long volume, LocalDateTime updatedAt) {
+
+        static Quote of(Asset asset) {
+            // the database keeps microseconds, so live() can tell a flushed row from a newer quote
+            return new Quote(asset.getSymbol(), asset.getOpen(), asset.getHigh(), asset.getLow(),
+                    asset.getClose(), asset.getPrice(), asset.getVolume(),
+                    LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    // newest quote per symbol, flushed or not
+    private final Map<String, Quote> latest = new ConcurrentHashMap<>();
+    // quotes the database has not seen yet
+    private final Map<String, Quote> pending = new ConcurrentHashMap<>();
+
+    private final Timer flushTimer;
+    private final Counter rowsWritten;
+    private final Counter coalesced;
+
+    public CatalogueWriteBuffer(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${catalogue.write-behind.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+
+        this.flushTimer = Timer.builder("catalogue.buffer.flush")
+                .description("Time to write one batch of buffered catalogue quotes")
+                .register(meterRegistry);
+        this.rowsWritten = Counter.builder("catalogue.buffer.rows.written")
+                .description("Catalogue rows updated by buffer flushes")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("catalogue.buffer.coalesced")
+                .description("Quotes replaced by a newer one before they were flushed")
+                .register(meterRegistry);
+        Gauge.builder("catalogue.buffer.pending", pending, Map::size)
+                .description("Symbols with a quote waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    public Quote put(Asset asset) {
+        Quote quote = Quote.of(asset);
+        latest.put(quote.symbol(), quote);
+        if (pending.put(quote.symbol(), quote) != null) {
+            coalesced.increment();
+        }
+        if (!enabled) {
+            flush();
+        }
+        return quote;
+    }
+
+    /**
+     * The row with the newest buffered quote applied, as a detached copy, or the
+     * row itself when the database already has that quote. Only quotes put into
+     * this instance are applied; on any other instance the row is up to one flush
+     * interval behind.
+     */
+    public AssetCatalogueEntity live(AssetCatalogueEntity row) {
+        Quote quote = latest.get(row.getSymbol());
+        if (quote == null || (row.getLastUpdated() != null && !quote.updatedAt().isAfter(row.getLastUpdated()))) {
+            return row;
+        }
+        AssetCatalogueEntity copy = new AssetCatalogueEntity();
+        copy.setSymbol(row.getSymbol());
+        copy.setName(row.getName());
+        copy.setType(row.getType());
+        copy.setCurrency(row.getCurrency());
+        copy.setExchange(row.getExchange());
+        copy.setOpen(quote.open());
+        copy.setHigh(quote.high());
+        copy.setLow(quote.low());
+        copy.setClose(quote.close());
+        copy.setPrice(quote.price());
+        copy.setVolume(quote.volume());
+        copy.setLastUpdated(quote.updatedAt());
+        return copy;
+    }
+
+    public List<AssetCatalogueEntity> live(List<AssetCatalogueEntity> rows) {
+        return rows.stream().map(this::live).toList();
+    }
+
+    /**
+     * Forget the buffered quotes of symbols whose rows are being replaced around the
+     * buffer, as a catalogue bulk import does, and return the prices live() showed for
+     * them. Runs under the flush lock, so a flush already holding one of these quotes
+     * lands before the replacement rather than after it; a quote put afterwards is
+     * newer than the replacement and wins as usual.
+     */
+    public synchronized Map<String, Double> discard(Collection<String> symbols) {
+        Map<String, Double> prices = new HashMap<>();
+        for (String symbol : symbols) {
+            pending.remove(symbol);
+            Quote quote = latest.remove(symbol);
+            if (quote != null) {
+                prices.put(symbol, quote.price());
+            }
+        }
+        return prices;
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    /**
+     * Write every pending quote in one batch and return the number of rows written.
+     * On failure the quotes go back to the buffer unless a newer one arrived meanwhile.
+     * Until a quote is written here, other instances and anything reading the table
+     * directly see the previous one: that is the staleness bound of write-behind.
+     */
+    @Scheduled(fixedDelayString = "${catalogue.write-behind.flush-interval-ms:1000}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Quote> batch = new ArrayList<>(pending.size());
+        for (String symbol : pending.keySet()) {
+            Quote quote = pending.remove(symbol);
+            if (quote != null) {
+                batch.add(quote);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Quote q : batch) {
+            rows.add(new Object[]{q.open(), q.high(), q.low(), q.close(), q.price(), q.volume(),
+                    Timestamp.valueOf(q.updatedAt()), q.symbol()});
+        }
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_QUOTE, rows));
+        } catch (RuntimeException e) {
+            batch.forEach(q -> pending.putIfAbsent(q.symbol(), q));
+            log.warn("Catalogue flush of {} quotes failed, will retry: {}", batch.size(), e.getMessage());
+            return 0;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        rowsWritten.increment(batch.size());
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        int written = flush();
+        if (!pending.isEmpty()) {
+            log.warn("{} catalogue quotes were not written on shutdown", pending.size());
+        } else if (written > 0) {
+            log.info("Flushed {} buffered catalogue quotes on shutdown", written);
+        }
+    }
+}
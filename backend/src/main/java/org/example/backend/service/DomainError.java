@@ -0,0 +1,14 @@
+package org.example.backend.service;
+
+// Why a request was turned down; ApiExceptionHandler maps each one to a 4xx status
+public enum DomainError {
+    INVALID_REQUEST,
+    ASSET_NOT_FOUND,
+    NOT_IN_PORTFOLIO,
+    ORDER_NOT_FOUND,
+    ALERT_NOT_FOUND,
+    ASSET_EXISTS,
+    INSUFFICIENT_BALANCE,
+    INSUFFICIENT_QUANTITY,
+    ORDER_NOT_OPEN
+}
@@ -0,0 +1,22 @@
+package org.example.backend.service;
+
+/**
+ * A request the domain rules turn down: unknown symbol, not enough cash or quantity,
+ * an order that is no longer open. These are expected outcomes, not bugs, so the
+ * exception carries no stack trace; filling one in walks the whole servlet and
+ * transaction stack, which under a flood of rejected trades costs more than the
+ * rejection itself.
+ */
+public class DomainException extends RuntimeException {
+
+    private final DomainError error;
+
+    public DomainException(DomainError error, String message) {
+        super(message, null, false, false);
+        this.error = error;
+    }
+
+    public DomainError getError() {
+        return error;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+import org.example.backend.Model.FxRates;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+// The python market service in script.py
+@Service
+@ConditionalOnProperty(name = "market.source", havingValue = "flask", matchIfMissing = true)
+public class FlaskMarketDataClient implements MarketDataClient {
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+
+    public FlaskMarketDataClient(RestTemplate restTemplate,
+                                 @Value("${flask.api.base-url}") String baseUrl) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+    }
+
+    @Override
+    public Asset getQuote(String symbol) {
+        return restTemplate.getForObject(baseUrl + "/api/market/quote/{symbol}", Asset.class, symbol);
+    }
+
+    @Override
+    public List<AssetHistory> getHistory(String symbol) {
+        return restTemplate.exchange(
+                baseUrl + "/api/market/history/{symbol}",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<List<AssetHistory>>() {},
+                symbol).getBody();
+    }
+
+    @Override
+    public FxRates getFxRates(String base, Collection<String> currencies) {
+        return restTemplate.getForObject(baseUrl + "/api/market/fx?base={base}&currencies={currencies}",
+                FxRates.class, base, String.join(",", currencies));
+    }
+}
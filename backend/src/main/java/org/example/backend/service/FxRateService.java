@@ -0,0 +1,190 @@
+package org.example.backend.service;
+
+import org.example.backend.Entity.FxRateEntity;
+import org.example.backend.Model.FxRates;
+import org.example.backend.Repository.FxRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rates to convert an asset's currency into the portfolio base currency.
+ *
+ * Missing or expired rates are fetched from the market service in one bulk call
+ * per request, whatever the number of currencies. When the market service is
+ * down, expired rates are still used rather than failing the valuation. Every
+ * fetched rate is also written to fx_rate, so an instance that starts while the
+ * market service is down values with the last rates any instance fetched; only a
+ * currency never fetched at all still fails.
+ * Minor units quoted by some exchanges (GBp, ZAc, ILA) map to their major
+ * currency with a factor of 1/100.
+ */
+@Service
+public class FxRateService {
+
+    private static final Logger log = LoggerFactory.getLogger(FxRateService.class);
+
+    private static final BigDecimal HUNDREDTH = new BigDecimal("0.01");
+    private static final Map<String, String> MINOR_UNITS = Map.of(
+            "GBp", "GBP", "GBX", "GBP", "ZAc", "ZAR", "ILA", "ILS");
+
+    private final MarketApiService marketApiService;
+    private final FxRateRepository fxRateRepo;
+    // its own transaction on the primary: callers may be inside a read-only one
+    private final TransactionTemplate primaryTransaction;
+    private final String baseCurrency;
+    private final long ttlMs;
+
+    private final Map<String, CachedRate> cache = new ConcurrentHashMap<>();
+
+    public FxRateService(MarketApiService marketApiService,
+                         FxRateRepository fxRateRepo,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${portfolio.base-currency:USD}") String baseCurrency,
+                         @Value("${market.cache.fx-ttl-ms:60000}") long ttlMs) {
+        this.marketApiService = marketApiService;
+        this.fxRateRepo = fxRateRepo;
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.baseCurrency = baseCurrency.toUpperCase(Locale.ROOT);
+        this.ttlMs = ttlMs;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public BigDecimal getRate(String currency) {
+        return getRates(Set.of(currency == null ? baseCurrency : currency)).get(key(currency));
+    }
+
+    /**
+     * Rate for each currency as it appears on the catalogue (null means base),
+     * keyed by the same string; look results up with key(currency).
+     */
+    public Map<String, BigDecimal> getRates(Collection<String> currencies) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        long now = System.currentTimeMillis();
+
+        for (String currency : currencies) {
+            String major = major(currency);
+            if (major.equals(baseCurrency)) {
+                continue;
+            }
+            CachedRate cached = cache.get(major);
+            if (cached == null || now - cached.fetchedAt() >= ttlMs) {
+                missing.add(major);
+            }
+        }
+        if (!missing.isEmpty()) {
+            fetch(missing, now);
+        }
+
+        for (String currency : currencies) {
+            String major = major(currency);
+            BigDecimal rate;
+            if (major.equals(baseCurrency)) {
+                rate = BigDecimal.ONE;
+            } else {
+                CachedRate cached = cache.get(major);
+                if (cached == null) {
+                    throw new MarketUnavailableException("No FX rate from " + major + " to " + baseCurrency);
+                }
+                rate = cached.rate();
+            }
+            if (isMinorUnit(currency)) {
+                rate = rate.multiply(HUNDREDTH);
+            }
+            result.put(key(currency), rate);
+        }
+        return result;
+    }
+
+    // null currency is treated as the base currency
+    public String key(String currency) {
+        return currency == null || currency.isBlank() ? baseCurrency : currency.trim();
+    }
+
+    private void fetch(Set<String> currencies, long now) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        try {
+            FxRates fetched = marketApiService.getFxRates(baseCurrency, currencies);
+            if (fetched != null && fetched.getRates() != null) {
+                fetched.getRates().forEach((currency, rate) -> {
+                    if (rate != null && rate > 0) {
+                        rates.put(currency.toUpperCase(Locale.ROOT), BigDecimal.valueOf(rate));
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            // expired rates stay in the cache and are used as they are, stored ones fill a cold cache
+            log.warn("FX rates for {} unavailable, using cached rates: {}", currencies, e.getMessage());
+            loadStored(currencies);
+            return;
+        }
+        rates.forEach((currency, rate) -> cache.put(currency, new CachedRate(rate, now)));
+        store(rates);
+    }
+
+    private void store(Map<String, BigDecimal> rates) {
+        if (rates.isEmpty()) {
+            return;
+        }
+        LocalDateTime fetchedAt = LocalDateTime.now();
+        List<FxRateEntity> rows = new ArrayList<>(rates.size());
+        rates.forEach((currency, rate) -> rows.add(new FxRateEntity(currency, baseCurrency, rate, fetchedAt)));
+        try {
+            primaryTransaction.executeWithoutResult(status -> fxRateRepo.saveAll(rows));
+        } catch (RuntimeException e) {
+            log.warn("Could not store FX rates for {}: {}", rates.keySet(), e.getMessage());
+        }
+    }
+
+    // only for currencies not cached at all, and marked expired so the next call fetches again
+    private void loadStored(Set<String> currencies) {
+        List<String> cold = currencies.stream().filter(c -> !cache.containsKey(c)).toList();
+        if (cold.isEmpty()) {
+            return;
+        }
+        try {
+            List<FxRateEntity> stored = primaryTransaction.execute(status -> fxRateRepo.findAllById(cold));
+            for (FxRateEntity row : stored) {
+                if (baseCurrency.equals(row.getBaseCurrency())) {
+                    cache.putIfAbsent(row.getCurrency(), new CachedRate(row.getRate(), 0));
+                    log.info("Using the FX rate for {} stored at {}", row.getCurrency(), row.getFetchedAt());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not load stored FX rates for {}: {}", cold, e.getMessage());
+        }
+    }
+
+    private String major(String currency) {
+        String key = key(currency);
+        return MINOR_UNITS.getOrDefault(key, key).toUpperCase(Locale.ROOT);
+    }
+
+    private boolean isMinorUnit(String currency) {
+        return MINOR_UNITS.containsKey(key(currency));
+    }
+
+    private record CachedRate(BigDecimal rate, long fetchedAt) {
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * What the ingestion fetchers hand to the writer for one symbol.
+ * quote is null and error is set when the symbol could not be fetched.
+ */
+record IngestionItem(String symbol, Asset quote, List<AssetHistory> newBars, LocalDate lastDate, String error) {
+
+    static IngestionItem failed(String symbol, String error) {
+        return new IngestionItem(symbol, null, List.of(), null, error);
+    }
+
+    boolean succeeded() {
+        return error == null;
+    }
+}
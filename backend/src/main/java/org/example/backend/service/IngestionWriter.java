@@ -0,0 +1,90 @@
+package org.example.backend.service;
+
+import org.example.backend.Entity.IngestionCheckpointEntity;
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+import org.example.backend.Repository.IngestionCheckpointRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Writes one batch of ingested symbols: history rows, catalogue quotes and checkpoints together
+@Component
+public class IngestionWriter {
+
+    // IGNORE: a bar already stored under the same (symbol, date) key is kept
+    private static final String INSERT_HISTORY =
+            "INSERT IGNORE INTO asset_history (symbol, type, date, open, high, low, close, volume) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AssetCatalogueService assetCatalogueService;
+    private final IngestionCheckpointRepository checkpointRepo;
+
+    public IngestionWriter(JdbcTemplate jdbcTemplate,
+                           AssetCatalogueService assetCatalogueService,
+                           IngestionCheckpointRepository checkpointRepo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.assetCatalogueService = assetCatalogueService;
+        this.checkpointRepo = checkpointRepo;
+    }
+
+    /**
+     * Persist a batch and return the number of history rows inserted; bars IGNORE
+     * skipped because they were already stored are not counted.
+     * Checkpoints are written in the same transaction, so a crash never
+     * leaves history rows behind without their checkpoint.
+     */
+    @Transactional
+    public int writeBatch(List<IngestionItem> batch) {
+        List<IngestionItem> succeeded = batch.stream().filter(IngestionItem::succeeded).toList();
+
+        List<Object[]> rows = new ArrayList<>();
+        for (IngestionItem item : succeeded) {
+            for (AssetHistory bar : item.newBars()) {
+                rows.add(new Object[]{item.symbol(), bar.getType(), Date.valueOf(bar.getDate()),
+                        bar.getOpen(), bar.getHigh(), bar.getLow(), bar.getClose(), bar.getVolume()});
+            }
+        }
+        int inserted = 0;
+        if (!rows.isEmpty()) {
+            for (int count : jdbcTemplate.batchUpdate(INSERT_HISTORY, rows)) {
+                // 0 is a row IGNORE skipped; rewritten batches report SUCCESS_NO_INFO (-2)
+                if (count != 0) {
+                    inserted++;
+                }
+            }
+        }
+
+        List<Asset> quotes = succeeded.stream().map(IngestionItem::quote).filter(Objects::nonNull).toList();
+        if (!quotes.isEmpty()) {
+            assetCatalogueService.applyQuotes(quotes);
+        }
+
+        Map<String, IngestionCheckpointEntity> checkpoints = checkpointRepo
+                .findAllById(succeeded.stream().map(IngestionItem::symbol).toList())
+                .stream()
+                .collect(Collectors.toMap(IngestionCheckpointEntity::getSymbol, Function.identity()));
+        LocalDateTime now = LocalDateTime.now();
+        for (IngestionItem item : succeeded) {
+            IngestionCheckpointEntity checkpoint =
+                    checkpoints.computeIfAbsent(item.symbol(), IngestionCheckpointEntity::new);
+            if (item.lastDate() != null) {
+                checkpoint.setLastHistoryDate(item.lastDate());
+            }
+            checkpoint.setLastIngested(now);
+        }
+        checkpointRepo.saveAll(checkpoints.values());
+
+        return inserted;
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.backend.service;
+
+import org.example.backend.Entity.LotAverageCostEntity;
+import org.example.backend.Entity.PortfolioLotEntity;
+import org.example.backend.Entity.RealizedTradeEntity;
+import org.example.backend.Model.CostBasisMethod;
+import org.example.backend.Repository.LotAverageCostRepository;
+import org.example.backend.Repository.PortfolioLotRepository;
+import org.example.backend.Repository.RealizedTradeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lot-level cost basis. Every buy opens a lot, every sale is matched against
+ * open lots (FIFO, LIFO or average cost) and stored with its realized P&L.
+ *
+ * Open lots are cached per symbol in a LotBook, loaded from portfolio_lot on
+ * first use. Only the lots a sale consumes are written back, plus the symbol's
+ * lot_average_cost row after an average-cost sale. If the surrounding
+ * transaction rolls back, the symbol's book is dropped and reloaded next time.
+ * Books are always loaded from the primary: a read-only caller could otherwise
+ * cache a replica's stale lots for good.
+ *
+ * The cached books are this JVM's truth about open lots, nothing tells it about
+ * trades another instance makes. The app therefore runs as a single instance;
+ * see application-prod.properties.
+ */
+@Service
+public class LotAccountingService {
+
+    private final PortfolioLotRepository lotRepo;
+    private final LotAverageCostRepository averageRepo;
+    private final RealizedTradeRepository realizedRepo;
+    private final CostBasisMethod defaultMethod;
+    private final TransactionTemplate primaryRead;
+
+    private final Map<String, LotBook> books = new ConcurrentHashMap<>();
+
+    public LotAccountingService(PortfolioLotRepository lotRepo,
+                                LotAverageCostRepository averageRepo,
+                                RealizedTradeRepository realizedRepo,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${portfolio.cost-basis.method:FIFO}") CostBasisMethod defaultMethod) {
+        this.lotRepo = lotRepo;
+        this.averageRepo = averageRepo;
+        this.realizedRepo = realizedRepo;
+        this.defaultMethod = defaultMethod;
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.primaryRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public CostBasisMethod getDefaultMethod() {
+        return defaultMethod;
+    }
+
+    // for lots written around this service, e.g. by a bulk import; the book is reloaded next time
+    public void evict(String symbol) {
+        books.remove(symbol);
+    }
+
+    // settled is what the buy took off the balance, in the base currency
+    public void recordBuy(String symbol, int quantity, double price, BigDecimal settled, LocalDateTime time) {
+        LotBook book = book(symbol);
+        synchronized (book) {
+            PortfolioLotEntity entity = new PortfolioLotEntity(symbol, quantity, price, time);
+            entity.setSettledAmount(settled);
+            PortfolioLotEntity lot = lotRepo.save(entity);
+            book.addLot(lot.getId(), quantity, price);
+            evictOnRollback(symbol);
+        }
+    }
+
+    // settled is what the sale added to the balance, in the base currency
+    public RealizedTradeEntity recordSell(String symbol, int quantity, double price, BigDecimal settled,
+                                          CostBasisMethod method, LocalDateTime time) {
+        CostBasisMethod matching = method != null ? method : defaultMethod;
+        LotBook book = book(symbol);
+        synchronized (book) {
+            if (book.getQuantity() < quantity) {
+                throw new DomainException(DomainError.INSUFFICIENT_QUANTITY,
+                        "Not enough open lots to sell " + quantity + " " + symbol);
+            }
+            double costBasis = book.consume(quantity, matching, lotRepo::updateRemaining);
+            if (matching == CostBasisMethod.AVERAGE) {
+                averageRepo.save(new LotAverageCostEntity(symbol, book.getAveragedThrough(), book.getAverageCost()));
+            }
+            evictOnRollback(symbol);
+
+            RealizedTradeEntity trade = new RealizedTradeEntity();
+            trade.setSymbol(symbol);
+            trade.setQuantity(quantity);
+            trade.setSalePrice(price);
+            trade.setCostBasis(costBasis);
+            trade.setRealizedPnl(price * quantity - costBasis);
+            trade.setMethod(matching.name());
+            trade.setSettledAmount(settled);
+            trade.setSoldAt(time);
+            return realizedRepo.save(trade);
+        }
+    }
+
+    // shares still held according to the open lots
+    public long getQuantity(String symbol) {
+        LotBook book = book(symbol);
+        synchronized (book) {
+            return book.getQuantity();
+        }
+    }
+
+    // cost basis of the shares still held
+    public double getCostBasis(String symbol) {
+        LotBook book = book(symbol);
+        synchronized (book) {
+            return book.getCostBasis();
+        }
+    }
+
+    public double unrealizedPnl(String symbol, double price) {
+        LotBook book = book(symbol);
+        synchronized (book) {
+            return book.unrealizedPnl(price);
+        }
+    }
+
+    public Map<String, Double> realizedPnlBySymbol() {
+        Map<String, Double> result = new HashMap<>();
+        for (Object[] row : realizedRepo.sumRealizedBySymbol()) {
+            result.put((String) row[0], ((Number) row[1]).doubleValue());
+        }
+        return result;
+    }
+
+    private LotBook book(String symbol) {
+        return books.computeIfAbsent(symbol, this::loadBook);
+    }
+
+    private LotBook loadBook(String symbol) {
+        // a write transaction already reads the primary, and sees its own lots there; with no
+        // transaction each repository call would open its own read-only one, on the replica
+        boolean inWriteTransaction = TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return inWriteTransaction ? readBook(symbol) : primaryRead.execute(status -> readBook(symbol));
+    }
+
+    private LotBook readBook(String symbol) {
+        List<PortfolioLotEntity> open = lotRepo.findBySymbolAndRemainingGreaterThanOrderByIdAsc(symbol, 0);
+        LotBook book = new LotBook(open.size() + 16);
+        for (PortfolioLotEntity lot : open) {
+            book.addLot(lot.getId(), lot.getRemaining(), lot.getPrice());
+        }
+        averageRepo.findById(symbol)
+                .ifPresent(average -> book.applyAverage(average.getThroughLotId(), average.getCostPrice()));
+        return book;
+    }
+
+    private void evictOnRollback(String symbol) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    books.remove(symbol);
+                }
+            }
+        });
+    }
+}
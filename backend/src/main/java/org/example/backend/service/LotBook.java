@@ -0,0 +1,186 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.CostBasisMethod;
+
+/**
+ * Open purchase lots of one symbol, oldest first, kept in a ring buffer of
+ * parallel primitive arrays. Adding a lot and matching a sale only touch the
+ * ends of the deque, so a sale costs O(lots consumed) however many lots are open.
+ *
+ * An average-cost sale does not re-price the lots it leaves open. The book keeps
+ * one running average instead, with the id of the newest lot it applies to:
+ * every lot up to that id is carried at the average, later ones at their own price.
+ * Not thread safe, callers lock the book.
+ */
+public class LotBook {
+
+    // called for every lot a sale consumes, with what is left of it
+    public interface LotListener {
+        void lotChanged(long lotId, int remaining);
+    }
+
+    private long[] ids;
+    private int[] remaining;
+    private double[] prices;
+    private int head;
+    private int size;
+
+    private long totalQuantity;
+    private double totalCost;
+
+    // lots with an id up to averagedThrough are carried at averageCost, -1 while no average sale happened
+    private long averagedThrough = -1;
+    private double averageCost;
+
+    public LotBook() {
+        this(16);
+    }
+
+    public LotBook(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        ids = new long[capacity];
+        remaining = new int[capacity];
+        prices = new double[capacity];
+    }
+
+    // lots are added in id order, oldest first
+    public void addLot(long id, int quantity, double price) {
+        if (quantity <= 0) {
+            return;
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        int tail = index(size);
+        ids[tail] = id;
+        remaining[tail] = quantity;
+        prices[tail] = price;
+        size++;
+        totalQuantity += quantity;
+        totalCost += quantity * costAt(tail);
+    }
+
+    /**
+     * Carry the lots up to lotId at averageCost, as a stored average-cost sale left
+     * them. Called once after loading the lots, before the book is used.
+     */
+    public void applyAverage(long lotId, double averageCost) {
+        this.averagedThrough = lotId;
+        this.averageCost = averageCost;
+        totalCost = 0;
+        for (int n = 0; n < size; n++) {
+            int i = index(n);
+            totalCost += remaining[i] * costAt(i);
+        }
+    }
+
+    /**
+     * Match a sale of quantity shares and return its cost basis.
+     * AVERAGE uses the book's average cost and draws lots down oldest first; the lots
+     * left open are carried at that average from then on, see getAveragedThrough.
+     */
+    public double consume(int quantity, CostBasisMethod method, LotListener listener) {
+        if (quantity > totalQuantity) {
+            throw new IllegalStateException("Not enough open lots to sell " + quantity);
+        }
+        if (method == CostBasisMethod.AVERAGE) {
+            averageCost = totalCost / totalQuantity;
+            averagedThrough = ids[index(size - 1)];
+        }
+        double costBasis = method == CostBasisMethod.LIFO
+                ? consumeFromTail(quantity, listener)
+                : consumeFromHead(quantity, listener);
+
+        totalQuantity -= quantity;
+        if (totalQuantity == 0) {
+            totalCost = 0;
+        } else {
+            // every lot still open is at the average after an average sale
+            totalCost = method == CostBasisMethod.AVERAGE ? totalQuantity * averageCost : totalCost - costBasis;
+        }
+        return costBasis;
+    }
+
+    private double consumeFromHead(int quantity, LotListener listener) {
+        double cost = 0;
+        while (quantity > 0) {
+            int i = head;
+            int take = Math.min(remaining[i], quantity);
+            cost += take * costAt(i);
+            remaining[i] -= take;
+            quantity -= take;
+            listener.lotChanged(ids[i], remaining[i]);
+            if (remaining[i] == 0) {
+                head = index(1);
+                size--;
+            }
+        }
+        return cost;
+    }
+
+    private double consumeFromTail(int quantity, LotListener listener) {
+        double cost = 0;
+        while (quantity > 0) {
+            int i = index(size - 1);
+            int take = Math.min(remaining[i], quantity);
+            cost += take * costAt(i);
+            remaining[i] -= take;
+            quantity -= take;
+            listener.lotChanged(ids[i], remaining[i]);
+            if (remaining[i] == 0) {
+                size--;
+            }
+        }
+        return cost;
+    }
+
+    public long getQuantity() {
+        return totalQuantity;
+    }
+
+    public double getCostBasis() {
+        return totalCost;
+    }
+
+    public int getOpenLots() {
+        return size;
+    }
+
+    public double unrealizedPnl(double price) {
+        return totalQuantity * price - totalCost;
+    }
+
+    // id of the newest lot carried at getAverageCost, -1 if no average sale happened
+    public long getAveragedThrough() {
+        return averagedThrough;
+    }
+
+    public double getAverageCost() {
+        return averageCost;
+    }
+
+    private double costAt(int i) {
+        return ids[i] <= averagedThrough ? averageCost : prices[i];
+    }
+
+    private int index(int offset) {
+        return (head + offset) % ids.length;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        long[] newIds = new long[capacity];
+        int[] newRemaining = new int[capacity];
+        double[] newPrices = new double[capacity];
+        for (int n = 0; n < size; n++) {
+            int i = index(n);
+            newIds[n] = ids[i];
+            newRemaining[n] = remaining[i];
+            newPrices[n] = prices[i];
+        }
+        ids = newIds;
+        remaining = newRemaining;
+        prices = newPrices;
+        head = 0;
+    }
+}
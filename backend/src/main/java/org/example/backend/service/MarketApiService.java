@@ -1,45 +1,248 @@
 package org.example.backend.service;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.backend.DTO.MarketResultDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
 import org.example.backend.Model.Asset;
 import org.example.backend.Model.AssetHistory;
+import org.example.backend.Model.FxRates;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.core.retry.RetryTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+/**
+ * Gateway to the market service: bulkhead, circuit breaker, retries and caches
+ * around the MarketDataClient.
+ *
+ * The async variants offload the blocking client call to the market executor so
+ * the servlet thread is released. That is thread offloading, not non-blocking I/O:
+ * every call in flight still holds one executor thread (a virtual one on Java 21+
+ * with the java21 profile) for its whole duration, and the bulkhead still caps how
+ * many of them reach the upstream at once.
+ */
 @Service
 public class MarketApiService {
 
-    private final RestTemplate restTemplate;
+    private static final Logger log = LoggerFactory.getLogger(MarketApiService.class);
 
-    @Value("${flask.api.base-url}")
-    private String flaskBaseUrl;
+    private final MarketDataClient client;
+    private final AssetCatalogueRepository assetCatalogueRepo;
+    private final CatalogueWriteBuffer catalogueBuffer;
+    private final MarketCircuitBreaker circuitBreaker;
+    private final MarketBulkhead bulkhead;
+    private final RetryTemplate retryTemplate;
+    private final Executor marketExecutor;
+    private final ObservationRegistry observationRegistry;
 
-    public MarketApiService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    // short-lived caches so bulk requests only go upstream for missing symbols
+    private final MarketCache<Asset> quoteCache;
+    private final MarketCache<List<AssetHistory>> historyCache;
+
+    @Value("${market.cache.quote-ttl-ms:5000}")
+    private long quoteTtlMs;
+
+    @Value("${market.cache.history-ttl-ms:300000}")
+    private long historyTtlMs;
+
+    // upstream fetches one bulk request keeps in flight; below the bulkhead size, so a cold
+    // cache and a slow upstream do not make a request's own symbols crowd each other out
+    @Value("${market.bulk.max-in-flight:8}")
+    private int bulkMaxInFlight = 8;
+
+    public MarketApiService(MarketDataClient client,
+                            AssetCatalogueRepository assetCatalogueRepo,
+                            CatalogueWriteBuffer catalogueBuffer,
+                            MarketCircuitBreaker circuitBreaker,
+                            MarketBulkhead bulkhead,
+                            RetryTemplate retryTemplate,
+                            @Qualifier("marketTaskExecutor") Executor marketExecutor,
+                            ObservationRegistry observationRegistry,
+                            @Value("${market.cache.max-symbols:1000}") int cacheMaxSymbols) {
+        this.client = client;
+        this.assetCatalogueRepo = assetCatalogueRepo;
+        this.catalogueBuffer = catalogueBuffer;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retryTemplate = retryTemplate;
+        this.marketExecutor = marketExecutor;
+        this.observationRegistry = observationRegistry;
+        this.quoteCache = new MarketCache<>(cacheMaxSymbols);
+        this.historyCache = new MarketCache<>(cacheMaxSymbols);
     }
 
+    // Live quote, or the last catalogue price flagged as stale when the market service is down
     public Asset getQuote(String symbol) {
-        String url = flaskBaseUrl + "/api/market/quote/" + symbol;
-        return restTemplate.getForObject(url, Asset.class);
+        try {
+            Asset asset = callUpstream("quote", () -> client.getQuote(symbol));
+            quoteCache.put(symbol, asset, quoteTtlMs);
+            return asset;
+        } catch (HttpClientErrorException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            Optional<Asset> fallback = staleQuote(symbol);
+            if (fallback.isPresent()) {
+                log.warn("Market service unavailable, serving stale catalogue price for {}: {}", symbol, e.getMessage());
+                return fallback.get();
+            }
+            throw e;
+        }
     }
 
     public List<AssetHistory> getHistory(String symbol) {
-        String url = flaskBaseUrl + "/api/market/history/" + symbol;
+        List<AssetHistory> history = callUpstream("history", () -> client.getHistory(symbol));
+        historyCache.put(symbol, history, historyTtlMs);
+        return history;
+    }
 
-        ResponseEntity<List<AssetHistory>> response =
-                restTemplate.exchange(
-                        url,
-                        HttpMethod.GET,
-                        null,
-                        new ParameterizedTypeReference<List<AssetHistory>>() {}
-                );
+    // All rates in one upstream call: value of one unit of each currency in base
+    public FxRates getFxRates(String base, Collection<String> currencies) {
+        return callUpstream("fx", () -> client.getFxRates(base, currencies));
+    }
 
-        return response.getBody();
+    // Async variants run on the market executor so the calling request thread is not held
+    public CompletableFuture<Asset> getQuoteAsync(String symbol) {
+        return offload(() -> getQuote(symbol));
+    }
+
+    public CompletableFuture<List<AssetHistory>> getHistoryAsync(String symbol) {
+        return offload(() -> getHistory(symbol));
+    }
+
+    // a full executor queue fails the future like a full bulkhead, answered with a 503
+    private <T> CompletableFuture<T> offload(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, marketExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new MarketUnavailableException("Market executor is saturated", e));
+        }
+    }
+
+    /**
+     * One future per symbol. Fresh cached entries complete immediately, the rest
+     * are fetched from the market service, at most market.bulk.max-in-flight at a
+     * time: each fetch that completes starts the next. Futures never complete
+     * exceptionally, a failed symbol is reported through MarketResultDTO.error instead.
+     */
+    public List<CompletableFuture<MarketResultDTO<Asset>>> getQuotes(Collection<String> symbols) {
+        return resolveAll(symbols, quoteCache, quoteTtlMs, this::getQuoteAsync);
+    }
+
+    public List<CompletableFuture<MarketResultDTO<List<AssetHistory>>>> getHistories(Collection<String> symbols) {
+        return resolveAll(symbols, historyCache, historyTtlMs, this::getHistoryAsync);
     }
-}
 
+    public MarketCircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    // bulkhead -> circuit breaker -> retries with jittered backoff, timed as market.upstream{endpoint, outcome};
+    // errors are tagged by the observation
+    private <T> T callUpstream(String endpoint, Supplier<T> call) {
+        Observation observation = Observation.createNotStarted("market.upstream", observationRegistry)
+                .lowCardinalityKeyValue("endpoint", endpoint)
+                .lowCardinalityKeyValue("outcome", "error");
+        return observation.observe(() -> {
+            try {
+                T result = bulkhead.execute(() -> {
+                    if (!circuitBreaker.tryAcquire()) {
+                        throw new MarketUnavailableException("Market service circuit is open");
+                    }
+                    try {
+                        T value = retryTemplate.invoke(call);
+                        circuitBreaker.onSuccess();
+                        return value;
+                    } catch (HttpClientErrorException e) {
+                        // the service answered, the request was just bad
+                        circuitBreaker.onSuccess();
+                        throw e;
+                    } catch (RuntimeException e) {
+                        circuitBreaker.onFailure();
+                        throw e;
+                    }
+                });
+                observation.lowCardinalityKeyValue("outcome", "success");
+                return result;
+            } catch (HttpClientErrorException e) {
+                observation.lowCardinalityKeyValue("outcome", "client_error");
+                throw e;
+            } catch (MarketUnavailableException e) {
+                observation.lowCardinalityKeyValue("outcome", "rejected");
+                throw e;
+            }
+        });
+    }
+
+    private <T> List<CompletableFuture<MarketResultDTO<T>>> resolveAll(
+            Collection<String> symbols,
+            MarketCache<T> cache,
+            long ttlMs,
+            Function<String, CompletableFuture<T>> fetch) {
+        List<CompletableFuture<MarketResultDTO<T>>> results = new ArrayList<>(symbols.size());
+        Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        for (String symbol : symbols) {
+            T cached = cache.fresh(symbol, ttlMs);
+            if (cached != null) {
+                results.add(CompletableFuture.completedFuture(MarketResultDTO.ok(symbol, cached, true)));
+                continue;
+            }
+            CompletableFuture<MarketResultDTO<T>> result = new CompletableFuture<>();
+            results.add(result);
+            pending.add(() -> fetch.apply(symbol).whenComplete((value, error) -> {
+                result.complete(error == null
+                        ? MarketResultDTO.ok(symbol, value, false)
+                        : MarketResultDTO.failed(symbol, rootMessage(error)));
+                startNext(pending);
+            }));
+        }
+        for (int i = 0; i < bulkMaxInFlight; i++) {
+            startNext(pending);
+        }
+        return results;
+    }
+
+    private static void startNext(Queue<Runnable> pending) {
+        Runnable next = pending.poll();
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private Optional<Asset> staleQuote(String symbol) {
+        return assetCatalogueRepo.findBySymbol(symbol).map(catalogueBuffer::live).map(this::toStaleAsset);
+    }
+
+    private Asset toStaleAsset(AssetCatalogueEntity entity) {
+        Asset asset = new Asset(entity.getSymbol(), entity.getName(), entity.getType(),
+                entity.getOpen(), entity.getHigh(), entity.getLow(), entity.getClose(),
+                entity.getPrice(), entity.getVolume(), entity.getCurrency(), entity.getExchange(),
+                entity.getLastUpdated());
+        asset.setStale(true);
+        return asset;
+    }
+}
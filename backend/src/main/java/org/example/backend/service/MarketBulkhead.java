@@ -0,0 +1,43 @@
+package org.example.backend.service;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps the number of concurrent calls to the Flask market service so a slow
+ * upstream cannot tie up every request thread.
+ */
+public class MarketBulkhead {
+
+    private final Semaphore permits;
+    private final long maxWaitMs;
+
+    public MarketBulkhead(int maxConcurrent, Duration maxWait) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaitMs = maxWait.toMillis();
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarketUnavailableException("Interrupted waiting for market service", e);
+        }
+        if (!acquired) {
+            throw new MarketUnavailableException("Too many concurrent market calls");
+        }
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
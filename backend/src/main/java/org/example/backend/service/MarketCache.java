@@ -0,0 +1,59 @@
+package org.example.backend.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-symbol cache of market responses, bounded in both size and age.
+ *
+ * Entries are kept in fetch order, so the head is always the oldest one: every put
+ * drops expired entries from the head and, past maxEntries, the oldest fresh ones
+ * too. Symbols come straight from request paths, so without the bound any string
+ * a client sends would stay in memory for good.
+ */
+class MarketCache<T> {
+
+    private record Entry<T>(T value, long fetchedAt) {
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>();
+
+    MarketCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    // the cached value if it was fetched less than ttlMs ago, otherwise null
+    synchronized T fresh(String symbol, long ttlMs) {
+        Entry<T> entry = entries.get(symbol);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.fetchedAt() >= ttlMs) {
+            entries.remove(symbol);
+            return null;
+        }
+        return entry.value();
+    }
+
+    synchronized void put(String symbol, T value, long ttlMs) {
+        long now = System.currentTimeMillis();
+        // re-inserted rather than replaced, so the entry moves to the tail with its new fetch time
+        entries.remove(symbol);
+        entries.put(symbol, new Entry<>(value, now));
+
+        Iterator<Map.Entry<String, Entry<T>>> oldest = entries.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Entry<T> entry = oldest.next().getValue();
+            if (entries.size() <= maxEntries && now - entry.fetchedAt() < ttlMs) {
+                break;
+            }
+            oldest.remove();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+import org.example.backend.Model.FxRates;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Raw source of market data behind MarketApiService, which adds caching and the
+ * resilience around it. The Flask service by default, the in-process simulator
+ * with market.source=simulator (the local profile).
+ */
+public interface MarketDataClient {
+
+    Asset getQuote(String symbol);
+
+    List<AssetHistory> getHistory(String symbol);
+
+    // value of one unit of each currency in base
+    FxRates getFxRates(String base, Collection<String> currencies);
+}
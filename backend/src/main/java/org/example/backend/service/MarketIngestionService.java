@@ -0,0 +1,291 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.IngestionCheckpointEntity;
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.AssetHistoryRepository;
+import org.example.backend.Repository.IngestionCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Scheduled pipeline that walks every catalogue symbol and pulls quotes and new
+ * history bars from the market service.
+ *
+ * Fetch workers put results on a bounded queue and block when it is full, so a
+ * slow database writer throttles fetching instead of piling data up in memory.
+ * The writer drains the queue in batches. Symbols are processed least recently
+ * ingested first and checkpoints are committed with each batch, so a restarted
+ * run picks up the symbols the previous one did not reach.
+ *
+ * The schedule only runs with ingestion.enabled=true, which the prod and local
+ * profiles set; runOnce works either way.
+ */
+@Service
+public class MarketIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketIngestionService.class);
+
+    private final AssetCatalogueRepository assetCatalogueRepo;
+    private final AssetHistoryRepository historyRepo;
+    private final IngestionCheckpointRepository checkpointRepo;
+    private final MarketApiService marketApiService;
+    private final IngestionWriter writer;
+
+    private final int workers;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final ExecutorService fetchPool;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<BlockingQueue<IngestionItem>> currentQueue = new AtomicReference<>();
+    private final AtomicReference<LocalDateTime> oldestCheckpoint = new AtomicReference<>();
+    private volatile double lastRowsPerSecond;
+
+    private final Counter rowsWritten;
+    private final Counter symbolsFailed;
+
+    @Value("${ingestion.enabled:false}")
+    private boolean enabled;
+
+    public MarketIngestionService(AssetCatalogueRepository assetCatalogueRepo,
+                                  AssetHistoryRepository historyRepo,
+                                  IngestionCheckpointRepository checkpointRepo,
+                                  MarketApiService marketApiService,
+                                  IngestionWriter writer,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${ingestion.workers:4}") int workers,
+                                  @Value("${ingestion.queue-capacity:64}") int queueCapacity,
+                                  @Value("${ingestion.batch-size:500}") int batchSize) {
+        this.assetCatalogueRepo = assetCatalogueRepo;
+        this.historyRepo = historyRepo;
+        this.checkpointRepo = checkpointRepo;
+        this.marketApiService = marketApiService;
+        this.writer = writer;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fetchPool = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "ingestion-fetch-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.rowsWritten = Counter.builder("ingestion.rows.written")
+                .description("History rows written by the ingestion pipeline")
+                .register(meterRegistry);
+        this.symbolsFailed = Counter.builder("ingestion.symbols.failed")
+                .description("Symbols that could not be fetched during ingestion")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.queue.depth", currentQueue, q -> q.get() == null ? 0 : q.get().size())
+                .description("Fetched symbols waiting for the database writer")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.rows.per.second", this, s -> s.lastRowsPerSecond)
+                .description("History rows written per second in the last run")
+                .register(meterRegistry);
+        Gauge.builder("ingestion.lag.seconds", oldestCheckpoint, MarketIngestionService::lagSeconds)
+                .description("Age of the least recently ingested catalogue symbol")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${ingestion.initial-delay-ms:30000}",
+            fixedDelayString = "${ingestion.interval-ms:900000}")
+    public void scheduledRun() {
+        if (enabled) {
+            runOnce();
+        }
+    }
+
+    /**
+     * Ingest every catalogue symbol once. Returns the number of history rows written,
+     * or -1 if a run is already in progress.
+     */
+    public int runOnce() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            return ingest();
+        } finally {
+            currentQueue.set(null);
+            running.set(false);
+        }
+    }
+
+    private int ingest() {
+        Map<String, IngestionCheckpointEntity> checkpoints = checkpointRepo.findAll().stream()
+                .collect(Collectors.toMap(IngestionCheckpointEntity::getSymbol, Function.identity()));
+
+        // never ingested first, then oldest checkpoint first
+        List<String> symbols = assetCatalogueRepo.findAll().stream()
+                .map(AssetCatalogueEntity::getSymbol)
+                .sorted(Comparator.comparing(
+                        (String s) -> checkpoints.containsKey(s) ? checkpoints.get(s).getLastIngested() : null,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+        if (symbols.isEmpty()) {
+            return 0;
+        }
+
+        Queue<String> pending = new ConcurrentLinkedQueue<>(symbols);
+        BlockingQueue<IngestionItem> queue = new ArrayBlockingQueue<>(queueCapacity);
+        currentQueue.set(queue);
+
+        int workerCount = Math.min(workers, symbols.size());
+        CountDownLatch fetchersDone = new CountDownLatch(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            fetchPool.execute(() -> {
+                try {
+                    fetchLoop(pending, queue, checkpoints);
+                } finally {
+                    fetchersDone.countDown();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        int written = 0;
+        List<IngestionItem> batch = new ArrayList<>();
+        int batchRows = 0;
+        try {
+            // every symbol yields exactly one item, failed or not
+            for (int received = 0; received < symbols.size(); received++) {
+                IngestionItem item = queue.take();
+                if (!item.succeeded()) {
+                    symbolsFailed.increment();
+                    log.warn("Ingestion failed for {}: {}", item.symbol(), item.error());
+                    continue;
+                }
+                batch.add(item);
+                batchRows += item.newBars().size();
+                if (batchRows >= batchSize || queue.isEmpty()) {
+                    written += flush(batch);
+                    batch = new ArrayList<>();
+                    batchRows = 0;
+                }
+            }
+            written += flush(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // on failure, stop the fetchers and keep unblocking those waiting on a full queue
+            // until all have left, so none stays parked on this run's queue
+            pending.clear();
+            awaitFetchers(fetchersDone, queue);
+        }
+
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 1e-3);
+        lastRowsPerSecond = written / seconds;
+        refreshLag();
+        log.info("Ingestion run finished: {} symbols, {} rows, {} rows/s",
+                symbols.size(), written, Math.round(lastRowsPerSecond));
+        return written;
+    }
+
+    private static void awaitFetchers(CountDownLatch fetchersDone, BlockingQueue<IngestionItem> queue) {
+        try {
+            do {
+                queue.clear();
+            } while (!fetchersDone.await(10, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fetchLoop(Queue<String> pending,
+                           BlockingQueue<IngestionItem> queue,
+                           Map<String, IngestionCheckpointEntity> checkpoints) {
+        String symbol;
+        while ((symbol = pending.poll()) != null) {
+            IngestionItem item = fetch(symbol, checkpoints.get(symbol));
+            try {
+                // blocks while the writer is behind: this is the back-pressure
+                queue.put(item);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private IngestionItem fetch(String symbol, IngestionCheckpointEntity checkpoint) {
+        try {
+            LocalDate since = checkpoint != null && checkpoint.getLastHistoryDate() != null
+                    ? checkpoint.getLastHistoryDate()
+                    : historyRepo.findLatestDate(symbol);
+
+            Asset quote = marketApiService.getQuote(symbol);
+            List<AssetHistory> newBars = marketApiService.getHistory(symbol).stream()
+                    .filter(bar -> bar.getDate() != null && (since == null || bar.getDate().isAfter(since)))
+                    .toList();
+            LocalDate lastDate = newBars.stream()
+                    .map(AssetHistory::getDate)
+                    .max(Comparator.naturalOrder())
+                    .orElse(since);
+
+            return new IngestionItem(symbol, quote.isStale() ? null : quote, newBars, lastDate, null);
+        } catch (RuntimeException e) {
+            return IngestionItem.failed(symbol, e.getMessage());
+        }
+    }
+
+    private int flush(List<IngestionItem> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int rows = writer.writeBatch(batch);
+        rowsWritten.increment(rows);
+        return rows;
+    }
+
+    private void refreshLag() {
+        oldestCheckpoint.set(checkpointRepo.findAll().stream()
+                .map(IngestionCheckpointEntity::getLastIngested)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null));
+    }
+
+    private static double lagSeconds(AtomicReference<LocalDateTime> oldest) {
+        LocalDateTime value = oldest.get();
+        return value == null ? 0 : Duration.between(value, LocalDateTime.now()).toSeconds();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        fetchPool.shutdownNow();
+        fetchPool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.backend.service;
+
+// Thrown when the Flask market service cannot be reached and there is nothing to fall back to.
+// Stackless: while the circuit is open every quote request ends here.
+public class MarketUnavailableException extends RuntimeException {
+
+    public MarketUnavailableException(String message) {
+        super(message, null, false, false);
+    }
+
+    public MarketUnavailableException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.backend.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money amounts in the base currency: BigDecimal at a fixed scale, so balances
+ * and valuations add up without drifting like summed doubles. Prices are
+ * stored as doubles; convert() takes the decimal a price was stored as
+ * (BigDecimal.valueOf) and multiplies quantity and rate in BigDecimal, rounding
+ * once at the end.
+ */
+public final class Money {
+
+    public static final int SCALE = 4;
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+    public static final BigDecimal ZERO = BigDecimal.ZERO.setScale(SCALE, ROUNDING);
+
+    private Money() {
+    }
+
+    public static BigDecimal of(double amount) {
+        return BigDecimal.valueOf(amount).setScale(SCALE, ROUNDING);
+    }
+
+    // price * quantity in the asset's currency, converted with rate into the base currency
+    public static BigDecimal convert(double price, long quantity, BigDecimal rate) {
+        return convert(BigDecimal.valueOf(price), quantity, rate);
+    }
+
+    public static BigDecimal convert(BigDecimal price, long quantity, BigDecimal rate) {
+        return price.multiply(BigDecimal.valueOf(quantity)).multiply(rate).setScale(SCALE, ROUNDING);
+    }
+}
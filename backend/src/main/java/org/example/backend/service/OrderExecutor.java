@@ -0,0 +1,112 @@
+package org.example.backend.service;
+
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.TradeOrderEntity;
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Model.OrderStatus;
+import org.example.backend.Model.OrderType;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.TradeOrderRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Fills a triggered order through the normal PortfolioService trade, in the same
+ * transaction as the status change, so an order is never filled twice or marked
+ * filled without its trade.
+ *
+ * The price is read again when the order is filled, since it can move between the
+ * trigger and the fill. A limit order only fills while that price still satisfies
+ * its limit, and then at that price; otherwise it is handed back to be rested. A
+ * stop order becomes a market order once triggered and fills at the current price.
+ * The FX rate the fill settles at is resolved before the transaction opens.
+ */
+@Service
+public class OrderExecutor {
+
+    private final TradeOrderRepository orderRepo;
+    private final AssetCatalogueRepository assetCatalogueRepo;
+    private final CatalogueWriteBuffer catalogueBuffer;
+    private final PortfolioService portfolioService;
+    private final TransactionTemplate transaction;
+
+    public OrderExecutor(TradeOrderRepository orderRepo,
+                         AssetCatalogueRepository assetCatalogueRepo,
+                         CatalogueWriteBuffer catalogueBuffer,
+                         PortfolioService portfolioService,
+                         PlatformTransactionManager transactionManager) {
+        this.orderRepo = orderRepo;
+        this.assetCatalogueRepo = assetCatalogueRepo;
+        this.catalogueBuffer = catalogueBuffer;
+        this.portfolioService = portfolioService;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public enum Outcome {
+        FILLED,
+        // cancelled, rejected or filled meanwhile
+        NOT_OPEN,
+        // a limit order whose price moved back past the limit after the trigger; still open
+        PRICE_MOVED
+    }
+
+    // order is null when it was not found; price is the one read at fill time
+    public record Execution(Outcome outcome, TradeOrderEntity order, double price) {
+    }
+
+    public Execution execute(long orderId, String symbol, double triggerPrice) {
+        Map<String, BigDecimal> rates = portfolioService.ratesFor(symbol);
+        return transaction.execute(status -> fill(orderId, triggerPrice, rates));
+    }
+
+    private Execution fill(long orderId, double triggerPrice, Map<String, BigDecimal> rates) {
+        TradeOrderEntity order = orderRepo.findById(orderId).orElse(null);
+        if (order == null || order.getStatus() != OrderStatus.OPEN) {
+            return new Execution(Outcome.NOT_OPEN, order, Double.NaN);
+        }
+        double price = assetCatalogueRepo.findBySymbol(order.getSymbol())
+                .map(catalogueBuffer::live)
+                .map(AssetCatalogueEntity::getPrice)
+                .orElseThrow(() -> new DomainException(DomainError.ASSET_NOT_FOUND,
+                        "Asset not found in catalogue: " + order.getSymbol()));
+        if (order.getType() == OrderType.LIMIT && !withinLimit(order, price)) {
+            return new Execution(Outcome.PRICE_MOVED, order, price);
+        }
+
+        if (order.getSide() == OrderSide.BUY) {
+            portfolioService.buyAssetAt(order.getSymbol(), order.getQuantity(), price, rates);
+        } else {
+            portfolioService.sellAssetAt(order.getSymbol(), order.getQuantity(), price, rates);
+        }
+
+        order.setStatus(OrderStatus.FILLED);
+        order.setExecutedAt(LocalDateTime.now());
+        order.setExecutedPrice(price);
+        order.setMessage("Triggered at " + triggerPrice);
+        orderRepo.save(order);
+        return new Execution(Outcome.FILLED, order, price);
+    }
+
+    // buy at or below the limit, sell at or above it
+    static boolean withinLimit(TradeOrderEntity order, double price) {
+        return order.getSide() == OrderSide.BUY ? price <= order.getOrderPrice() : price >= order.getOrderPrice();
+    }
+
+    @Transactional
+    public void reject(long orderId, String message) {
+        orderRepo.findById(orderId).ifPresent(order -> {
+            if (order.getStatus() == OrderStatus.OPEN) {
+                order.setStatus(OrderStatus.REJECTED);
+                order.setExecutedAt(LocalDateTime.now());
+                order.setMessage(message);
+                orderRepo.save(order);
+            }
+        });
+    }
+}
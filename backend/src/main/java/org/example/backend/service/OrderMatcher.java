@@ -0,0 +1,194 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Model.OrderType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-symbol books of resting orders, matched against price updates.
+ *
+ * Symbols are hashed onto a fixed set of lanes, each a single thread that owns
+ * the books of its symbols outright. Every change to a book (add, cancel, a price
+ * update) is a task on the symbol's lane, so there are no locks and updates for
+ * symbols on different lanes run in parallel while one symbol's orders are
+ * always matched in order.
+ *
+ * Each symbol has two ThresholdBooks: orders triggered by a rising price (sell
+ * limits, buy stops) and, with negated keys, by a falling one (buy limits, sell
+ * stops). A price update walks only the orders it triggers.
+ *
+ * A triggered order that could not be filled is rested again by a later task on
+ * the lane, so for a moment it is open but in no book. Cancels that look at the
+ * stored order run on the lane too and restAgain checks the order is still open,
+ * which keeps a cancel from slipping in between.
+ */
+public class OrderMatcher {
+
+    // called on the symbol's lane for every order a price update triggers
+    public interface TriggerListener {
+        void triggered(long orderId, String symbol, double price);
+    }
+
+    private final Lane[] lanes;
+    private final TriggerListener listener;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public OrderMatcher(int laneCount, TriggerListener listener) {
+        this.listener = listener;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            int n = i;
+            lanes[i] = new Lane(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "order-lane-" + n);
+                t.setDaemon(true);
+                return t;
+            }));
+        }
+    }
+
+    /**
+     * Rest an order. If the last price seen for the symbol, or currentPrice when
+     * none has been seen yet, already crosses it, it triggers straight away.
+     */
+    public CompletableFuture<Void> add(long id, String symbol, OrderSide side, OrderType type,
+                                       double orderPrice, double currentPrice) {
+        return add(id, symbol, side, type, orderPrice, currentPrice, null);
+    }
+
+    /**
+     * Rest a triggered order again because the price had moved back by the time it
+     * was to be filled. currentPrice, read after the trigger, replaces the last price
+     * the book saw, which would otherwise trigger the order straight back.
+     * stillOpen is asked on the lane first: an order cancelled since it triggered
+     * is left out.
+     */
+    public CompletableFuture<Void> restAgain(long id, String symbol, OrderSide side, OrderType type,
+                                             double orderPrice, double currentPrice, BooleanSupplier stillOpen) {
+        return add(id, symbol, side, type, orderPrice, currentPrice, stillOpen);
+    }
+
+    private CompletableFuture<Void> add(long id, String symbol, OrderSide side, OrderType type,
+                                        double orderPrice, double currentPrice, BooleanSupplier stillOpen) {
+        Lane lane = lane(symbol);
+        boolean replaceLastPrice = stillOpen != null;
+        return CompletableFuture.runAsync(() -> {
+            if (stillOpen != null && !stillOpen.getAsBoolean()) {
+                return;
+            }
+            SymbolBook book = lane.books.computeIfAbsent(symbol, s -> new SymbolBook());
+            book.book(rising(side, type)).add(key(side, type, orderPrice), id);
+            size.incrementAndGet();
+            if (Double.isNaN(book.lastPrice) || replaceLastPrice) {
+                book.lastPrice = currentPrice;
+            }
+            match(symbol, book, book.lastPrice);
+        }, lane.executor);
+    }
+
+    // true if the order was still resting; false if it already triggered or is unknown
+    public CompletableFuture<Boolean> cancel(long id, String symbol, OrderSide side, OrderType type, double orderPrice) {
+        Lane lane = lane(symbol);
+        return CompletableFuture.supplyAsync(() -> remove(lane, id, symbol, side, type, orderPrice), lane.executor);
+    }
+
+    /**
+     * Cancel an order against its stored state. check runs on the lane and throws if
+     * the order may not go; otherwise the order is taken out of its book, if it rests
+     * there, before anything else for the symbol runs. An open order in no book is
+     * waiting to be rested again, and restAgain leaves it out once check has run.
+     */
+    public <T> CompletableFuture<T> cancel(long id, String symbol, OrderSide side, OrderType type,
+                                           double orderPrice, Supplier<T> check) {
+        Lane lane = lane(symbol);
+        return CompletableFuture.supplyAsync(() -> {
+            T result = check.get();
+            remove(lane, id, symbol, side, type, orderPrice);
+            return result;
+        }, lane.executor);
+    }
+
+    // on the lane's thread only
+    private boolean remove(Lane lane, long id, String symbol, OrderSide side, OrderType type, double orderPrice) {
+        SymbolBook book = lane.books.get(symbol);
+        boolean removed = book != null && book.book(rising(side, type)).remove(key(side, type, orderPrice), id);
+        if (removed) {
+            size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    public void onPrice(String symbol, double price) {
+        Lane lane = lane(symbol);
+        lane.executor.execute(() -> {
+            SymbolBook book = lane.books.get(symbol);
+            if (book != null) {
+                book.lastPrice = price;
+                match(symbol, book, price);
+            }
+        });
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void match(String symbol, SymbolBook book, double price) {
+        if (Double.isNaN(price)) {
+            return;
+        }
+        int fired = book.rising.fire(price, (id, key) -> listener.triggered(id, symbol, price))
+                + book.falling.fire(-price, (id, key) -> listener.triggered(id, symbol, price));
+        size.addAndGet(-fired);
+    }
+
+    private Lane lane(String symbol) {
+        return lanes[(symbol.hashCode() & 0x7fffffff) % lanes.length];
+    }
+
+    // sell limits and buy stops wait for the price to rise to them
+    private static boolean rising(OrderSide side, OrderType type) {
+        return (side == OrderSide.SELL) == (type == OrderType.LIMIT);
+    }
+
+    private static double key(OrderSide side, OrderType type, double orderPrice) {
+        return rising(side, type) ? orderPrice : -orderPrice;
+    }
+
+    public void shutdown() throws InterruptedException {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        for (Lane lane : lanes) {
+            lane.executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // books are only ever touched from the lane's own thread
+    private static final class Lane {
+        private final ExecutorService executor;
+        private final Map<String, SymbolBook> books = new HashMap<>();
+
+        Lane(ExecutorService executor) {
+            this.executor = executor;
+        }
+    }
+
+    private static final class SymbolBook {
+        private final ThresholdBook rising = new ThresholdBook();
+        private final ThresholdBook falling = new ThresholdBook();
+        private double lastPrice = Double.NaN;
+
+        ThresholdBook book(boolean isRising) {
+            return isRising ? rising : falling;
+        }
+    }
+}
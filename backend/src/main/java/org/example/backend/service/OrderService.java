@@ -0,0 +1,194 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.backend.DTO.OrderRequestDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.TradeOrderEntity;
+import org.example.backend.Model.OrderStatus;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.TradeOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Limit and stop orders. Orders are stored first, then rested in the
+ * OrderMatcher; catalogue price updates are fed to the matcher once committed,
+ * and triggered orders are filled by the OrderExecutor on the symbol's lane.
+ */
+@Service
+public class OrderService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    private final TradeOrderRepository orderRepo;
+    private final AssetCatalogueRepository assetCatalogueRepo;
+    private final CatalogueWriteBuffer catalogueBuffer;
+    private final OrderExecutor orderExecutor;
+    private final OrderMatcher matcher;
+    private final TransactionTemplate transaction;
+
+    private final Counter filled;
+    private final Counter rejected;
+    private final Counter restedAgain;
+
+    public OrderService(TradeOrderRepository orderRepo,
+                        AssetCatalogueRepository assetCatalogueRepo,
+                        CatalogueWriteBuffer catalogueBuffer,
+                        OrderExecutor orderExecutor,
+                        MeterRegistry meterRegistry,
+                        @Value("${orders.matching-lanes:4}") int lanes,
+                        PlatformTransactionManager transactionManager) {
+        this.orderRepo = orderRepo;
+        this.assetCatalogueRepo = assetCatalogueRepo;
+        this.catalogueBuffer = catalogueBuffer;
+        this.orderExecutor = orderExecutor;
+        this.matcher = new OrderMatcher(lanes, this::onTriggered);
+        this.transaction = new TransactionTemplate(transactionManager);
+
+        this.filled = Counter.builder("orders.filled")
+                .description("Limit and stop orders filled")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("orders.rejected")
+                .description("Triggered orders whose trade failed")
+                .register(meterRegistry);
+        this.restedAgain = Counter.builder("orders.rested.again")
+                .description("Triggered limit orders put back because the price moved past the limit before the fill")
+                .register(meterRegistry);
+        Gauge.builder("orders.open", matcher, OrderMatcher::size)
+                .description("Orders resting in the order books")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenOrders() {
+        Map<String, Double> prices = catalogueBuffer.live(assetCatalogueRepo.findAll()).stream()
+                .collect(Collectors.toMap(AssetCatalogueEntity::getSymbol, AssetCatalogueEntity::getPrice));
+        List<TradeOrderEntity> open = orderRepo.findByStatusOrderByIdAsc(OrderStatus.OPEN);
+        open.forEach(order -> rest(order, prices.getOrDefault(order.getSymbol(), Double.NaN)));
+        log.info("Loaded {} open orders", open.size());
+    }
+
+    public TradeOrderEntity place(OrderRequestDTO request) {
+        if (request.getSymbol() == null || request.getSide() == null || request.getType() == null) {
+            throw new IllegalArgumentException("symbol, side and type are required");
+        }
+        if (request.getQuantity() <= 0 || request.getPrice() <= 0) {
+            throw new IllegalArgumentException("quantity and price must be positive");
+        }
+        // the newest quote, which may not be flushed yet: a stale price could trigger the order on the spot
+        AssetCatalogueEntity catalogue = assetCatalogueRepo.findBySymbol(request.getSymbol())
+                .map(catalogueBuffer::live)
+                .orElseThrow(() -> new DomainException(DomainError.ASSET_NOT_FOUND,
+                        "Asset not found in catalogue: " + request.getSymbol()));
+
+        TradeOrderEntity order = new TradeOrderEntity();
+        order.setSymbol(request.getSymbol());
+        order.setSide(request.getSide());
+        order.setType(request.getType());
+        order.setQuantity(request.getQuantity());
+        order.setOrderPrice(request.getPrice());
+        order.setStatus(OrderStatus.OPEN);
+        order.setCreatedAt(LocalDateTime.now());
+        order = orderRepo.save(order);
+
+        // committed before it is rested, so the lane always finds it
+        rest(order, catalogue.getPrice());
+        return order;
+    }
+
+    public TradeOrderEntity cancel(long id) {
+        TradeOrderEntity order = orderRepo.findById(id)
+                .orElseThrow(() -> new DomainException(DomainError.ORDER_NOT_FOUND, "Order not found: " + id));
+        // the status is read again on the lane: fills and re-rests of this symbol run there too
+        try {
+            return matcher.cancel(order.getId(), order.getSymbol(), order.getSide(), order.getType(),
+                    order.getOrderPrice(), () -> {
+                        // read and written in one write transaction, so on the primary: a replica
+                        // could still show an order filled a moment ago as open
+                        return transaction.execute(status -> {
+                            TradeOrderEntity current = orderRepo.findById(id).orElse(order);
+                            if (current.getStatus() != OrderStatus.OPEN) {
+                                throw new DomainException(DomainError.ORDER_NOT_OPEN,
+                                        "Order " + id + " is already " + current.getStatus());
+                            }
+                            current.setStatus(OrderStatus.CANCELLED);
+                            return orderRepo.save(current);
+                        });
+                    }).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<TradeOrderEntity> getOrders(OrderStatus status) {
+        return status != null
+                ? orderRepo.findByStatusOrderByIdAsc(status)
+                : orderRepo.findAllByOrderByIdDesc();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPriceUpdated(PriceUpdatedEvent event) {
+        matcher.onPrice(event.symbol(), event.price());
+    }
+
+    private void rest(TradeOrderEntity order, double currentPrice) {
+        matcher.add(order.getId(), order.getSymbol(), order.getSide(), order.getType(),
+                order.getOrderPrice(), currentPrice);
+    }
+
+    // runs on the symbol's lane, so fills of one symbol happen in trigger order
+    private void onTriggered(long orderId, String symbol, double price) {
+        try {
+            OrderExecutor.Execution execution = orderExecutor.execute(orderId, symbol, price);
+            switch (execution.outcome()) {
+                case FILLED -> filled.increment();
+                case PRICE_MOVED -> {
+                    restedAgain.increment();
+                    TradeOrderEntity order = execution.order();
+                    log.debug("Order {} on {} triggered at {} but the price is back at {}, resting it again",
+                            orderId, symbol, price, execution.price());
+                    matcher.restAgain(order.getId(), symbol, order.getSide(), order.getType(),
+                            order.getOrderPrice(), execution.price(), () -> isOpen(orderId));
+                }
+                case NOT_OPEN -> {
+                }
+            }
+        } catch (RuntimeException e) {
+            rejected.increment();
+            log.warn("Order {} on {} triggered at {} but could not be filled: {}", orderId, symbol, price, e.getMessage());
+            orderExecutor.reject(orderId, e.getMessage());
+        }
+    }
+
+    // a write transaction, so the status comes from the primary and not a lagging replica
+    private boolean isOpen(long orderId) {
+        return Boolean.TRUE.equals(transaction.execute(status ->
+                orderRepo.findById(orderId).map(o -> o.getStatus() == OrderStatus.OPEN).orElse(false)));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        matcher.shutdown();
+    }
+}
@@ -1,38 +1,111 @@
 package org.example.backend.service;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.backend.DTO.PnlDTO;
 import org.example.backend.DTO.PortfolioAssetDTO;
 import org.example.backend.Entity.PortfolioAssetEntity;
 import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Model.CostBasisMethod;
 import org.example.backend.Repository.PortfolioAssetRepository;
 import org.example.backend.Repository.AssetCatalogueRepository;
 import org.example.backend.service.BalanceService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
+/**
+ * Trades and valuation of the portfolio.
+ *
+ * An FX rate missing from FxRateService's cache is an HTTP call to the market
+ * service, with retries. Rates are therefore resolved before a transaction opens
+ * and passed into it, so no pooled connection, and for a trade no lock on the
+ * balance row, is held while that call waits on the network.
+ */
 @Service
 public class PortfolioService {
 
     private final PortfolioAssetRepository portfolioRepo;
     private final AssetCatalogueRepository assetCatalogueRepo;
     private final BalanceService balanceService;
+    private final LotAccountingService lotAccounting;
+    private final FxRateService fxRateService;
+    private final CatalogueWriteBuffer catalogueBuffer;
+    private final ObservationRegistry observationRegistry;
+    private final Meter.MeterProvider<Counter> rejectedTrades;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnly;
 
     public PortfolioService(PortfolioAssetRepository portfolioRepo,
                             AssetCatalogueRepository assetCatalogueRepo,
-                            BalanceService balanceService) {
+                            BalanceService balanceService,
+                            LotAccountingService lotAccounting,
+                            FxRateService fxRateService,
+                            CatalogueWriteBuffer catalogueBuffer,
+                            ObservationRegistry observationRegistry,
+                            MeterRegistry meterRegistry,
+                            PlatformTransactionManager transactionManager) {
         this.portfolioRepo = portfolioRepo;
         this.assetCatalogueRepo = assetCatalogueRepo;
         this.balanceService = balanceService;
+        this.lotAccounting = lotAccounting;
+        this.fxRateService = fxRateService;
+        this.catalogueBuffer = catalogueBuffer;
+        this.observationRegistry = observationRegistry;
+        this.rejectedTrades = Counter.builder("portfolio.trades.rejected")
+                .description("Trades turned down by the domain rules, by side and reason")
+                .withRegistry(meterRegistry);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
     }
 
     public List<PortfolioAssetDTO> getPortfolio() {
+        return Observation.createNotStarted("portfolio.valuation", observationRegistry)
+                .observe(this::valuePortfolio);
+    }
+
+    // one catalogue query and one FX lookup for the whole portfolio, not one per position;
+    // the rates are looked up once the read transaction is over
+    private List<PortfolioAssetDTO> valuePortfolio() {
+        List<PortfolioAssetEntity> assets = new ArrayList<>();
+        Map<String, AssetCatalogueEntity> catalogue = new HashMap<>();
+        readOnly.executeWithoutResult(status -> {
+            assets.addAll(portfolioRepo.findAll());
+            assetCatalogueRepo.findAllById(assets.stream().map(PortfolioAssetEntity::getSymbol).toList())
+                    .forEach(entry -> catalogue.put(entry.getSymbol(), catalogueBuffer.live(entry)));
+        });
+        Set<String> currencies = catalogue.values().stream()
+                .map(c -> fxRateService.key(c.getCurrency()))
+                .collect(Collectors.toSet());
+        Map<String, BigDecimal> rates = fxRateService.getRates(currencies);
+
+        return valuePositions(assets, catalogue, rates, fxRateService);
+    }
 
-        List<PortfolioAssetEntity> assets = portfolioRepo.findAll();
+    // the valuation pass itself, no I/O
+    static List<PortfolioAssetDTO> valuePositions(List<PortfolioAssetEntity> assets,
+                                                  Map<String, AssetCatalogueEntity> catalogue,
+                                                  Map<String, BigDecimal> rates,
+                                                  FxRateService fx) {
+        List<PortfolioAssetDTO> result = new ArrayList<>(assets.size());
 
-        return assets.stream().map(asset -> {
+        for (PortfolioAssetEntity asset : assets) {
 
             PortfolioAssetDTO dto = new PortfolioAssetDTO();
 
@@ -43,58 +116,185 @@ public class PortfolioService {
             dto.setQuantity(asset.getQuantity());
             dto.setBuyTimestamp(asset.getBuyTimestamp());
 
-            // fetch live data from catalogue
-//            AssetCatalogueEntity catalogue =
-//                    assetCatalogueRepo.findBySymbol(asset.getSymbol());
+            // live data from catalogue
+            AssetCatalogueEntity entry = catalogue.get(asset.getSymbol());
+            if (entry == null) {
+                throw new RuntimeException("Asset not found in catalogue: " + asset.getSymbol());
+            }
 
-            AssetCatalogueEntity catalogue = assetCatalogueRepo
-                    .findBySymbol(asset.getSymbol())
-                    .orElseThrow(() ->
-                            new RuntimeException("Asset not found in catalogue: " + asset.getSymbol())
-                    );
+            dto.setCurrentPrice(entry.getPrice());
+            dto.setHigh(entry.getHigh());
+            dto.setLow(entry.getLow());
+            dto.setVolume(entry.getVolume());
+
+            double profitLoss = (entry.getPrice() - asset.getBuyPrice()) * asset.getQuantity();
+            dto.setProfitLoss(profitLoss);
+
+            String currency = fx.key(entry.getCurrency());
+            BigDecimal fxRate = rates.get(currency);
+            BigDecimal price = BigDecimal.valueOf(entry.getPrice());
+            dto.setCurrency(currency);
+            dto.setBaseCurrency(fx.getBaseCurrency());
+            dto.setFxRate(fxRate);
+            dto.setMarketValue(Money.convert(price, asset.getQuantity(), fxRate));
+            dto.setProfitLossBase(Money.convert(price.subtract(BigDecimal.valueOf(asset.getBuyPrice())),
+                    asset.getQuantity(), fxRate));
+
+            result.add(dto);
+        }
+        return result;
+    }
+
+    // Realized and unrealized P&L per held or previously sold symbol, from the lot books
+    @Transactional(readOnly = true)
+    public List<PnlDTO> getPnl() {
+        Map<String, Double> realized = lotAccounting.realizedPnlBySymbol();
+        Map<String, PnlDTO> bySymbol = new TreeMap<>();
+
+        for (PortfolioAssetEntity asset : portfolioRepo.findAll()) {
+            double price = assetCatalogueRepo.findBySymbol(asset.getSymbol())
+                    .map(catalogueBuffer::live)
+                    .map(AssetCatalogueEntity::getPrice)
+                    .orElse(0.0);
+            PnlDTO dto = new PnlDTO();
+            dto.setSymbol(asset.getSymbol());
+            dto.setQuantity(asset.getQuantity());
+            dto.setCurrentPrice(price);
+            dto.setCostBasis(lotAccounting.getCostBasis(asset.getSymbol()));
+            dto.setUnrealizedPnl(lotAccounting.unrealizedPnl(asset.getSymbol(), price));
+            bySymbol.put(asset.getSymbol(), dto);
+        }
+        realized.forEach((symbol, pnl) -> bySymbol.computeIfAbsent(symbol, s -> {
+            PnlDTO dto = new PnlDTO();
+            dto.setSymbol(s);
+            return dto;
+        }).setRealizedPnl(pnl));
 
+        return new ArrayList<>(bySymbol.values());
+    }
 
-            if (catalogue != null) {
-                dto.setCurrentPrice(catalogue.getPrice());
-                dto.setHigh(catalogue.getHigh());
-                dto.setLow(catalogue.getLow());
-                dto.setVolume(catalogue.getVolume());
+    public void buyAsset(String symbol, int quantity) {
+        trade("buy", () -> {
+            requirePositive(quantity);
+            Map<String, BigDecimal> rates = ratesFor(symbol);
+            transaction.executeWithoutResult(status -> doBuyAsset(symbol, quantity, null, rates));
+        });
+    }
 
-                double profitLoss =
-                        (catalogue.getPrice() - asset.getBuyPrice())
-                                * asset.getQuantity();
+    public void sellAsset(String symbol, int quantity) {
+        sellAsset(symbol, quantity, (CostBasisMethod) null);
+    }
 
-                dto.setProfitLoss(profitLoss);
-            }
+    // method null -> the configured portfolio.cost-basis.method
+    public void sellAsset(String symbol, int quantity, CostBasisMethod method) {
+        trade("sell", () -> {
+            requirePositive(quantity);
+            Map<String, BigDecimal> rates = ratesFor(symbol);
+            transaction.executeWithoutResult(status -> doSellAsset(symbol, quantity, method, null, rates));
+        });
+    }
 
-            return dto;
+    // for a caller running several trades in its own transaction, with rates it resolved before opening it
+    void buyAsset(String symbol, int quantity, Map<String, BigDecimal> rates) {
+        trade("buy", () -> transaction.executeWithoutResult(status -> doBuyAsset(symbol, quantity, null, rates)));
+    }
 
-        }).collect(Collectors.toList());
+    void sellAsset(String symbol, int quantity, Map<String, BigDecimal> rates) {
+        trade("sell", () -> transaction.executeWithoutResult(
+                status -> doSellAsset(symbol, quantity, null, null, rates)));
     }
 
-    @Transactional
-    public void buyAsset(String symbol, int quantity) {
+    /**
+     * A triggered order: fills at the price the order was checked against, not whatever
+     * the catalogue says next. Runs in the caller's transaction, with rates from ratesFor.
+     */
+    public void buyAssetAt(String symbol, int quantity, double price, Map<String, BigDecimal> rates) {
+        trade("buy", () -> transaction.executeWithoutResult(status -> doBuyAsset(symbol, quantity, price, rates)));
+    }
+
+    public void sellAssetAt(String symbol, int quantity, double price, Map<String, BigDecimal> rates) {
+        trade("sell", () -> transaction.executeWithoutResult(
+                status -> doSellAsset(symbol, quantity, null, price, rates)));
+    }
+
+    public void sellAllAsset(String symbol) {
+        sellAllAsset(symbol, null);
+    }
+
+    public void sellAllAsset(String symbol, CostBasisMethod method) {
+        trade("sell_all", () -> {
+            Map<String, BigDecimal> rates = ratesFor(symbol);
+            transaction.executeWithoutResult(status -> doSellAllAsset(symbol, method, rates));
+        });
+    }
+
+    /**
+     * The rate a trade of symbol settles at, keyed like FxRateService.getRates; empty
+     * for a symbol not in the catalogue, which the trade then turns down. Call it
+     * outside any transaction.
+     */
+    public Map<String, BigDecimal> ratesFor(String symbol) {
+        return assetCatalogueRepo.findBySymbol(symbol)
+                .map(AssetCatalogueEntity::getCurrency)
+                .map(currency -> Collections.singletonMap(fxRateService.key(currency),
+                        fxRateService.getRate(currency)))
+                .orElse(Map.of());
+    }
+
+    // only misses if the symbol's currency changed since the rates were resolved
+    private BigDecimal rate(Map<String, BigDecimal> rates, AssetCatalogueEntity catalogue) {
+        BigDecimal rate = rates.get(fxRateService.key(catalogue.getCurrency()));
+        return rate != null ? rate : fxRateService.getRate(catalogue.getCurrency());
+    }
+
+    // timed as portfolio.trade{side}, errors are tagged by the observation;
+    // rejections are also counted by reason, they are the ones a client can fix
+    private void trade(String side, Runnable action) {
+        try {
+            Observation.createNotStarted("portfolio.trade", observationRegistry)
+                    .lowCardinalityKeyValue("side", side)
+                    .observe(action);
+        } catch (DomainException e) {
+            rejectedTrades.withTags("side", side, "reason", e.getError().name()).increment();
+            throw e;
+        }
+    }
+
+    // checked before any query, so a malformed order costs nothing
+    private static void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new DomainException(DomainError.INVALID_REQUEST, "Quantity must be positive");
+        }
+    }
+
+    // price null -> the catalogue's live price
+    private void doBuyAsset(String symbol, int quantity, Double price, Map<String, BigDecimal> rates) {
+        requirePositive(quantity);
 
         // 1. Get asset from catalogue
         AssetCatalogueEntity catalogue = assetCatalogueRepo
                 .findBySymbol(symbol)
+                .map(catalogueBuffer::live)
                 .orElseThrow(() ->
-                        new RuntimeException("Asset not found in catalogue: " + symbol)
+                        new DomainException(DomainError.ASSET_NOT_FOUND, "Asset not found in catalogue: " + symbol)
                 );
 
-        double buyPrice = catalogue.getPrice();
-        double totalCost = buyPrice * quantity;
+        double buyPrice = price != null ? price : catalogue.getPrice();
+        BigDecimal totalCost = Money.convert(buyPrice, quantity, rate(rates, catalogue));
 
-        // 2. Subtract balance (will auto-check insufficient funds)
+        // 2. Subtract balance in the base currency (will auto-check insufficient funds)
         balanceService.subtract(totalCost);
 
-        // 3. Check if asset already exists in portfolio
+        // 3. Open a lot for this purchase
+        lotAccounting.recordBuy(symbol, quantity, buyPrice, totalCost, LocalDateTime.now());
+
+        // 4. Check if asset already exists in portfolio
         PortfolioAssetEntity asset = portfolioRepo
                 .findBySymbol(symbol)
                 .orElse(null);
 
         if (asset == null) {
-            // 4A. New asset
+            // 5A. New asset
             PortfolioAssetEntity newAsset = new PortfolioAssetEntity();
             newAsset.setSymbol(symbol);
             newAsset.setName(catalogue.getName());
@@ -106,7 +306,7 @@ public class PortfolioService {
             portfolioRepo.save(newAsset);
 
         } else {
-            // 4B. Existing asset → update avg buy price
+            // 5B. Existing asset → update avg buy price
             int oldQty = asset.getQuantity();
             double oldBuyPrice = asset.getBuyPrice();
 
@@ -123,20 +323,26 @@ public class PortfolioService {
         }
     }
 
-    @Transactional
-    public void sellAsset(String symbol, int quantity) {
+    private void doSellAsset(String symbol, int quantity, CostBasisMethod method, Double price,
+                             Map<String, BigDecimal> rates) {
+        requirePositive(quantity);
         PortfolioAssetEntity asset = portfolioRepo.findBySymbol(symbol)
-                .orElseThrow(() -> new RuntimeException("Asset not in portfolio: " + symbol));
+                .orElseThrow(() -> new DomainException(DomainError.NOT_IN_PORTFOLIO,
+                        "Asset not in portfolio: " + symbol));
 
         if (asset.getQuantity() < quantity) {
-            throw new RuntimeException("Not enough quantity to sell");
+            throw new DomainException(DomainError.INSUFFICIENT_QUANTITY, "Not enough quantity to sell");
         }
 
         AssetCatalogueEntity catalogue = assetCatalogueRepo.findBySymbol(symbol)
-                .orElseThrow(() -> new RuntimeException("Asset not found in catalogue: " + symbol));
+                .map(catalogueBuffer::live)
+                .orElseThrow(() -> new DomainException(DomainError.ASSET_NOT_FOUND,
+                        "Asset not found in catalogue: " + symbol));
 
-        double proceeds = catalogue.getPrice() * quantity;
+        double salePrice = price != null ? price : catalogue.getPrice();
+        BigDecimal proceeds = Money.convert(salePrice, quantity, rate(rates, catalogue));
         balanceService.add(proceeds);
+        lotAccounting.recordSell(symbol, quantity, salePrice, proceeds, method, LocalDateTime.now());
 
         int remainingQty = asset.getQuantity() - quantity;
 
@@ -148,16 +354,20 @@ public class PortfolioService {
         }
     }
 
-    @Transactional
-    public void sellAllAsset(String symbol) {
+    private void doSellAllAsset(String symbol, CostBasisMethod method, Map<String, BigDecimal> rates) {
         PortfolioAssetEntity asset = portfolioRepo.findBySymbol(symbol)
-                .orElseThrow(() -> new RuntimeException("Asset not in portfolio: " + symbol));
+                .orElseThrow(() -> new DomainException(DomainError.NOT_IN_PORTFOLIO,
+                        "Asset not in portfolio: " + symbol));
 
         AssetCatalogueEntity catalogue = assetCatalogueRepo.findBySymbol(symbol)
-                .orElseThrow(() -> new RuntimeException("Asset not found in catalogue: " + symbol));
+                .map(catalogueBuffer::live)
+                .orElseThrow(() -> new DomainException(DomainError.ASSET_NOT_FOUND,
+                        "Asset not found in catalogue: " + symbol));
 
-        double proceeds = catalogue.getPrice() * asset.getQuantity();
+        BigDecimal proceeds = Money.convert(catalogue.getPrice(), asset.getQuantity(), rate(rates, catalogue));
         balanceService.add(proceeds);
+        lotAccounting.recordSell(symbol, asset.getQuantity(), catalogue.getPrice(), proceeds, method,
+                LocalDateTime.now());
 
         portfolioRepo.delete(asset);
     }
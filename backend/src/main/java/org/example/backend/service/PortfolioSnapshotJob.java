@@ -0,0 +1,28 @@
+package org.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+// Nightly run that snapshots every day up to yesterday's close
+@Component
+public class PortfolioSnapshotJob {
+
+    private final PortfolioSnapshotService snapshotService;
+
+    @Value("${portfolio.snapshot.enabled:true}")
+    private boolean enabled;
+
+    public PortfolioSnapshotJob(PortfolioSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    @Scheduled(cron = "${portfolio.snapshot.cron:0 30 0 * * *}")
+    public void nightly() {
+        if (enabled) {
+            snapshotService.refresh(LocalDate.now().minusDays(1));
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.PerformanceDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.AssetHistoryEntity;
+import org.example.backend.Entity.CashFlowEntity;
+import org.example.backend.Entity.PortfolioLotEntity;
+import org.example.backend.Entity.PortfolioSnapshotEntity;
+import org.example.backend.Entity.RealizedTradeEntity;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.AssetHistoryRepository;
+import org.example.backend.Repository.CashFlowRepository;
+import org.example.backend.Repository.PortfolioLotRepository;
+import org.example.backend.Repository.PortfolioSnapshotRepository;
+import org.example.backend.Repository.RealizedTradeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Materializes one portfolio_snapshot row per calendar day: holdings valued at
+ * the day's close, cash balance, external cash flows and the chained
+ * time-weighted return index.
+ *
+ * Runs are incremental. Positions and cash at the first missing day are derived
+ * once (lot and sale totals before it, current balance minus everything since),
+ * then the trades and flows after it are replayed day by day against the
+ * asset_history closes. Reading a range is then a primary key scan.
+ *
+ * Everything is in the base currency, like the cash balance. Trades replay the
+ * amount they settled on the balance; rows from before that was recorded, and
+ * holdings valued at quote-currency closes, convert with the current FX rate of
+ * the symbol's catalogue currency, since no rate history is kept.
+ *
+ * Refresh and rebuild are serialized on this instance, and each commits before the
+ * lock is released, so a second run always sees the first one's rows. Across
+ * instances the snapshot_date primary key rejects a day written twice. The rates
+ * of every catalogue currency are resolved before the write transaction opens, so
+ * a rate fetched over HTTP does not hold its connection.
+ */
+@Service
+public class PortfolioSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(PortfolioSnapshotService.class);
+
+    private final PortfolioSnapshotRepository snapshotRepo;
+    private final PortfolioLotRepository lotRepo;
+    private final RealizedTradeRepository realizedRepo;
+    private final CashFlowRepository cashFlowRepo;
+    private final AssetHistoryRepository historyRepo;
+    private final AssetCatalogueRepository assetCatalogueRepo;
+    private final CatalogueWriteBuffer catalogueBuffer;
+    private final BalanceService balanceService;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate writeTransaction;
+
+    // how far back the first run goes when there are no snapshots yet
+    @Value("${portfolio.snapshot.backfill-days:365}")
+    private int backfillDays;
+
+    // a close this many days old still prices a holding over weekends and holidays
+    @Value("${portfolio.snapshot.price-lookback-days:14}")
+    private int priceLookbackDays;
+
+    public PortfolioSnapshotService(PortfolioSnapshotRepository snapshotRepo,
+                                    PortfolioLotRepository lotRepo,
+                                    RealizedTradeRepository realizedRepo,
+                                    CashFlowRepository cashFlowRepo,
+                                    AssetHistoryRepository historyRepo,
+                                    AssetCatalogueRepository assetCatalogueRepo,
+                                    CatalogueWriteBuffer catalogueBuffer,
+                                    BalanceService balanceService,
+                                    FxRateService fxRateService,
+                                    PlatformTransactionManager transactionManager) {
+        this.snapshotRepo = snapshotRepo;
+        this.lotRepo = lotRepo;
+        this.realizedRepo = realizedRepo;
+        this.cashFlowRepo = cashFlowRepo;
+        this.historyRepo = historyRepo;
+        this.assetCatalogueRepo = assetCatalogueRepo;
+        this.catalogueBuffer = catalogueBuffer;
+        this.balanceService = balanceService;
+        this.fxRateService = fxRateService;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Snapshot every day after the latest snapshot up to and including through.
+     * Returns the number of snapshots written.
+     */
+    public synchronized int refresh(LocalDate through) {
+        Map<String, BigDecimal> rates = catalogueRates();
+        // a transaction inside the lock, not a proxy around it: the commit has to happen before the next run reads
+        return writeTransaction.execute(status -> {
+            Optional<PortfolioSnapshotEntity> last = snapshotRepo.findTopByOrderBySnapshotDateDesc();
+            LocalDate start = last.map(s -> s.getSnapshotDate().plusDays(1)).orElseGet(() -> firstDay(through));
+            return snapshotRange(start, through, last.orElse(null), rates);
+        });
+    }
+
+    /**
+     * Drop the snapshots from a date on and compute them again, e.g. after
+     * history for past days was corrected.
+     */
+    public synchronized int rebuild(LocalDate from, LocalDate through) {
+        Map<String, BigDecimal> rates = catalogueRates();
+        return writeTransaction.execute(status -> {
+            snapshotRepo.deleteFrom(from);
+            PortfolioSnapshotEntity previous = snapshotRepo.findTopBySnapshotDateLessThanOrderBySnapshotDateDesc(from)
+                    .orElse(null);
+            LocalDate start = from;
+            if (previous == null && firstDay(through).isAfter(from)) {
+                start = firstDay(through);
+            }
+            return snapshotRange(start, through, previous, rates);
+        });
+    }
+
+    // Time- and money-weighted return series between two dates, both inclusive
+    @Transactional(readOnly = true)
+    public PerformanceDTO getPerformance(LocalDate from, LocalDate to) {
+        PortfolioSnapshotEntity base = snapshotRepo.findTopBySnapshotDateLessThanOrderBySnapshotDateDesc(from)
+                .orElse(null);
+        List<PortfolioSnapshotEntity> rows = snapshotRepo.findBySnapshotDateBetweenOrderBySnapshotDateAsc(from, to);
+        return ReturnSeries.build(base, rows);
+    }
+
+    private Map<String, BigDecimal> catalogueRates() {
+        return fxRateService.getRates(assetCatalogueRepo.findDistinctCurrencies());
+    }
+
+    private int snapshotRange(LocalDate start, LocalDate through, PortfolioSnapshotEntity previous,
+                              Map<String, BigDecimal> rates) {
+        if (start.isAfter(through)) {
+            return 0;
+        }
+        LocalDateTime startTime = start.atStartOfDay();
+
+        // everything that happened from the first missing day until now, in time order
+        List<Event> events = Stream.of(
+                        lotRepo.findByAcquiredAtGreaterThanEqualOrderByAcquiredAtAsc(startTime).stream()
+                                .map(Event::of),
+                        realizedRepo.findBySoldAtGreaterThanEqualOrderBySoldAtAsc(startTime).stream()
+                                .map(Event::of),
+                        cashFlowRepo.findByOccurredAtGreaterThanEqualOrderByOccurredAtAsc(startTime).stream()
+                                .map(Event::of))
+                .flatMap(s -> s)
+                .sorted(Comparator.comparing(Event::time))
+                .toList();
+
+        Map<String, Integer> positions = positionsBefore(startTime);
+        for (Event event : events) {
+            if (event.symbol() != null) {
+                positions.putIfAbsent(event.symbol(), 0);
+            }
+        }
+        Map<String, PriceTrack> prices = new HashMap<>();
+        for (String symbol : positions.keySet()) {
+            prices.put(symbol, new PriceTrack(historyRepo.findBySymbolAndDateBetweenOrderByDateAsc(
+                    symbol, start.minusDays(priceLookbackDays), through),
+                    assetCatalogueRepo.findBySymbol(symbol).map(catalogueBuffer::live).orElse(null)));
+        }
+        for (PriceTrack track : prices.values()) {
+            BigDecimal rate = rates.get(fxRateService.key(track.currency()));
+            // only misses for a currency listed since the rates were resolved, or the base currency
+            track.rate = (rate != null ? rate : fxRateService.getRate(track.currency())).doubleValue();
+        }
+
+        double cash = balanceService.getBalance().getAmount().doubleValue();
+        for (Event event : events) {
+            cash -= cashDelta(event, prices);
+        }
+
+        double previousValue = previous != null ? previous.getTotalValue() : 0;
+        double index = previous != null ? previous.getTwrIndex() : 1.0;
+        LocalDateTime now = LocalDateTime.now();
+        List<PortfolioSnapshotEntity> snapshots = new ArrayList<>();
+        int next = 0;
+
+        for (LocalDate day = start; !day.isAfter(through); day = day.plusDays(1)) {
+            LocalDateTime endOfDay = day.plusDays(1).atStartOfDay();
+            double flow = 0;
+            for (; next < events.size() && events.get(next).time().isBefore(endOfDay); next++) {
+                Event event = events.get(next);
+                cash += cashDelta(event, prices);
+                flow += event.flow();
+                if (event.symbol() != null) {
+                    positions.merge(event.symbol(), event.quantityDelta(), Integer::sum);
+                    prices.get(event.symbol()).traded(event.price());
+                }
+            }
+
+            double holdings = 0;
+            for (Map.Entry<String, Integer> position : positions.entrySet()) {
+                if (position.getValue() != 0) {
+                    PriceTrack track = prices.get(position.getKey());
+                    holdings += position.getValue() * priceOn(track, day) * track.rate;
+                }
+            }
+            double total = holdings + cash;
+            // flows count from the start of the day, so they earn that day's return
+            double invested = previousValue + flow;
+            double dailyReturn = invested > 0 ? total / invested - 1 : 0;
+            index *= 1 + dailyReturn;
+
+            PortfolioSnapshotEntity snapshot = new PortfolioSnapshotEntity();
+            snapshot.setSnapshotDate(day);
+            snapshot.setHoldingsValue(holdings);
+            snapshot.setCashBalance(cash);
+            snapshot.setTotalValue(total);
+            snapshot.setNetFlow(flow);
+            snapshot.setDailyReturn(dailyReturn);
+            snapshot.setTwrIndex(index);
+            snapshot.setComputedAt(now);
+            snapshots.add(snapshot);
+            previousValue = total;
+        }
+
+        snapshotRepo.saveAll(snapshots);
+        log.info("Portfolio snapshots written for {} to {} ({} days)", start, through, snapshots.size());
+        return snapshots.size();
+    }
+
+    // the settled amount, or price * quantity at the symbol's current rate for rows without one
+    private static double cashDelta(Event event, Map<String, PriceTrack> prices) {
+        if (event.settled() != null) {
+            return event.settled().doubleValue();
+        }
+        return event.amount() * prices.get(event.symbol()).rate;
+    }
+
+    // latest close on or before the day, then the last trade price, then the catalogue price; quote currency
+    private static double priceOn(PriceTrack track, LocalDate day) {
+        track.advanceTo(day);
+        if (!Double.isNaN(track.close)) {
+            return track.close;
+        }
+        if (Double.isNaN(track.tradePrice)) {
+            track.tradePrice = track.catalogue != null ? track.catalogue.getPrice() : 0.0;
+        }
+        return track.tradePrice;
+    }
+
+    private Map<String, Integer> positionsBefore(LocalDateTime time) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (Object[] row : lotRepo.sumQuantityBySymbolBefore(time)) {
+            positions.merge((String) row[0], ((Number) row[1]).intValue(), Integer::sum);
+        }
+        for (Object[] row : realizedRepo.sumQuantityBySymbolBefore(time)) {
+            positions.merge((String) row[0], -((Number) row[1]).intValue(), Integer::sum);
+        }
+        return positions;
+    }
+
+    // first day with any activity, but no more than backfillDays back
+    private LocalDate firstDay(LocalDate through) {
+        LocalDate earliest = Stream.of(
+                        lotRepo.findFirstByOrderByAcquiredAtAsc().map(PortfolioLotEntity::getAcquiredAt),
+                        cashFlowRepo.findFirstByOrderByOccurredAtAsc().map(CashFlowEntity::getOccurredAt))
+                .flatMap(Optional::stream)
+                .map(LocalDateTime::toLocalDate)
+                .min(Comparator.naturalOrder())
+                .orElse(through);
+        LocalDate floor = through.minusDays(backfillDays);
+        return earliest.isBefore(floor) ? floor : earliest;
+    }
+
+    // A trade, sale or external flow and what it does to positions and cash:
+    // amount is in the quote currency, settled (when known) and flow in the base currency
+    private record Event(LocalDateTime time, String symbol, int quantityDelta, double price,
+                         double amount, BigDecimal settled, double flow) {
+
+        static Event of(PortfolioLotEntity lot) {
+            return new Event(lot.getAcquiredAt(), lot.getSymbol(), lot.getQuantity(), lot.getPrice(),
+                    -lot.getQuantity() * lot.getPrice(), negate(lot.getSettledAmount()), 0);
+        }
+
+        static Event of(RealizedTradeEntity sale) {
+            return new Event(sale.getSoldAt(), sale.getSymbol(), -sale.getQuantity(), sale.getSalePrice(),
+                    sale.getQuantity() * sale.getSalePrice(), sale.getSettledAmount(), 0);
+        }
+
+        static Event of(CashFlowEntity flow) {
+            return new Event(flow.getOccurredAt(), null, 0, 0, 0, flow.getAmount(),
+                    flow.getAmount().doubleValue());
+        }
+
+        private static BigDecimal negate(BigDecimal amount) {
+            return amount != null ? amount.negate() : null;
+        }
+    }
+
+    // Walks one symbol's closes forward in step with the replay
+    private static final class PriceTrack {
+        private final List<AssetHistoryEntity> bars;
+        private final AssetCatalogueEntity catalogue;
+        private int cursor;
+        private double close = Double.NaN;
+        private double tradePrice = Double.NaN;
+        // quote currency to base currency
+        private double rate = 1.0;
+
+        PriceTrack(List<AssetHistoryEntity> bars, AssetCatalogueEntity catalogue) {
+            this.bars = bars;
+            this.catalogue = catalogue;
+        }
+
+        // null, the base currency, when the symbol has left the catalogue
+        String currency() {
+            return catalogue != null ? catalogue.getCurrency() : null;
+        }
+
+        void advanceTo(LocalDate day) {
+            while (cursor < bars.size() && !bars.get(cursor).getDate().isAfter(day)) {
+                close = bars.get(cursor++).getClose();
+            }
+        }
+
+        void traded(double price) {
+            tradePrice = price;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package org.example.backend.service;
+
+// Published by AssetCatalogueService whenever a catalogue price changes
+public record PriceUpdatedEvent(String symbol, double price, double open) {
+}
@@ -0,0 +1,138 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.RebalancePlanDTO;
+import org.example.backend.DTO.RebalanceTradeDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.PortfolioAssetEntity;
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.PortfolioAssetRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Plans and executes rebalancing trades. FX rates of every catalogue currency are
+ * resolved before the transaction opens and passed into it, like PortfolioService
+ * does for a single trade.
+ */
+@Service
+public class RebalanceService {
+
+    private final PortfolioAssetRepository portfolioRepo;
+    private final AssetCatalogueRepository assetCatalogueRepo;
+    private final CatalogueWriteBuffer catalogueBuffer;
+    private final BalanceService balanceService;
+    private final PortfolioService portfolioService;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnly;
+
+    public RebalanceService(PortfolioAssetRepository portfolioRepo,
+                            AssetCatalogueRepository assetCatalogueRepo,
+                            CatalogueWriteBuffer catalogueBuffer,
+                            BalanceService balanceService,
+                            PortfolioService portfolioService,
+                            FxRateService fxRateService,
+                            PlatformTransactionManager transactionManager) {
+        this.portfolioRepo = portfolioRepo;
+        this.assetCatalogueRepo = assetCatalogueRepo;
+        this.catalogueBuffer = catalogueBuffer;
+        this.balanceService = balanceService;
+        this.portfolioService = portfolioService;
+        this.fxRateService = fxRateService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    // Trades that would bring the portfolio to the target weights, nothing is executed
+    public RebalancePlanDTO plan(Map<String, Double> targets) {
+        Map<String, Double> normalized = normalize(targets);
+        Map<String, BigDecimal> rates = catalogueRates();
+        return readOnly.execute(status -> solve(normalized, rates));
+    }
+
+    /**
+     * Compute the plan and execute it in one transaction, sells first so their
+     * proceeds fund the buys. If any trade fails none of them happen.
+     */
+    public RebalancePlanDTO execute(Map<String, Double> targets) {
+        Map<String, Double> normalized = normalize(targets);
+        Map<String, BigDecimal> rates = catalogueRates();
+        return transaction.execute(status -> {
+            RebalancePlanDTO plan = solve(normalized, rates);
+            for (RebalanceTradeDTO trade : plan.getTrades()) {
+                if (trade.getSide() == OrderSide.SELL) {
+                    portfolioService.sellAsset(trade.getSymbol(), trade.getQuantity(), rates);
+                } else {
+                    portfolioService.buyAsset(trade.getSymbol(), trade.getQuantity(), rates);
+                }
+            }
+            plan.setExecuted(true);
+            return plan;
+        });
+    }
+
+    private static Map<String, Double> normalize(Map<String, Double> targets) {
+        Map<String, Double> normalized = new HashMap<>();
+        targets.forEach((type, weight) -> {
+            if (weight == null) {
+                throw new DomainException(DomainError.INVALID_REQUEST, "Target weight for " + type + " is missing");
+            }
+            normalized.merge(normalizeType(type), weight, Double::sum);
+        });
+        return normalized;
+    }
+
+    private Map<String, BigDecimal> catalogueRates() {
+        return fxRateService.getRates(assetCatalogueRepo.findDistinctCurrencies());
+    }
+
+    private RebalancePlanDTO solve(Map<String, Double> normalized, Map<String, BigDecimal> rates) {
+        // one catalogue read for every price instead of a lookup per position
+        Map<String, AssetCatalogueEntity> catalogue = assetCatalogueRepo.findAll().stream()
+                .map(catalogueBuffer::live)
+                .collect(Collectors.toMap(AssetCatalogueEntity::getSymbol, Function.identity()));
+
+        // weights only make sense with every price in the base currency, like the cash
+        List<RebalanceSolver.Holding> holdings = portfolioRepo.findAll().stream()
+                .map(asset -> toHolding(asset, catalogue.get(asset.getSymbol()), rates))
+                .toList();
+        // what an under-weight type with nothing held yet can buy
+        List<RebalanceSolver.Holding> listings = catalogue.values().stream()
+                .map(listing -> new RebalanceSolver.Holding(listing.getSymbol(), normalizeType(listing.getType()), 0,
+                        listing.getPrice() * rate(rates, listing)))
+                .toList();
+
+        return RebalanceSolver.solve(holdings, listings, balanceService.getBalance().getAmount().doubleValue(),
+                normalized);
+    }
+
+    private RebalanceSolver.Holding toHolding(PortfolioAssetEntity asset, AssetCatalogueEntity catalogue,
+                                              Map<String, BigDecimal> rates) {
+        if (catalogue == null) {
+            throw new DomainException(DomainError.ASSET_NOT_FOUND, "Asset not found in catalogue: " + asset.getSymbol());
+        }
+        return new RebalanceSolver.Holding(asset.getSymbol(), normalizeType(asset.getType()),
+                asset.getQuantity(), catalogue.getPrice() * rate(rates, catalogue));
+    }
+
+    // only misses for a currency listed since the rates were resolved
+    private double rate(Map<String, BigDecimal> rates, AssetCatalogueEntity catalogue) {
+        BigDecimal rate = rates.get(fxRateService.key(catalogue.getCurrency()));
+        return (rate != null ? rate : fxRateService.getRate(catalogue.getCurrency())).doubleValue();
+    }
+
+    private static String normalizeType(String type) {
+        return type == null ? "UNKNOWN" : type.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.RebalancePlanDTO;
+import org.example.backend.DTO.RebalanceTradeDTO;
+import org.example.backend.Model.OrderSide;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Whole-share trades that move the portfolio towards target weights by asset type.
+ *
+ * Greedy, aiming for few orders rather than an exact fit: an over-weight type
+ * sells from its largest positions first until the excess is within half a share,
+ * an under-weight type buys into its largest position, most under-weight type
+ * first, as far as the cash after the sells allows. A type with nothing held
+ * buys the lowest-priced listing of that type, which fits the deficit closest.
+ * Types without a target are
+ * left alone and cash takes whatever weight the targets leave over.
+ * O(n log n) in the number of positions.
+ */
+final class RebalanceSolver {
+
+    static final String CASH = "CASH";
+
+    record Holding(String symbol, String type, int quantity, double price) {
+        double value() {
+            return quantity * price;
+        }
+    }
+
+    private RebalanceSolver() {
+    }
+
+    // listings are catalogue symbols that can be bought, with a quantity of 0
+    static RebalancePlanDTO solve(List<Holding> holdings, List<Holding> listings, double cash,
+                                  Map<String, Double> targets) {
+        Map<String, List<Holding>> byType = new HashMap<>();
+        Map<String, Double> valueByType = new TreeMap<>();
+        double total = cash;
+        for (Holding holding : holdings) {
+            if (holding.quantity() > 0 && holding.price() > 0) {
+                byType.computeIfAbsent(holding.type(), t -> new ArrayList<>()).add(holding);
+                valueByType.merge(holding.type(), holding.value(), Double::sum);
+                total += holding.value();
+            }
+        }
+
+        RebalancePlanDTO plan = new RebalancePlanDTO();
+        plan.setTotalValue(total);
+        plan.setCashBefore(cash);
+        plan.setTargetWeights(new TreeMap<>(targets));
+        plan.setCurrentWeights(weights(valueByType, cash, total));
+        validate(targets, valueByType, total);
+
+        List<RebalanceTradeDTO> sells = new ArrayList<>();
+        Map<String, Double> deficits = new HashMap<>();
+        Map<String, Double> projected = new TreeMap<>(valueByType);
+        double available = cash;
+
+        for (Map.Entry<String, Double> target : targets.entrySet()) {
+            String type = target.getKey();
+            double delta = target.getValue() * total - valueByType.getOrDefault(type, 0.0);
+            List<Holding> positions = byType.getOrDefault(type, List.of());
+            if (delta > 0) {
+                deficits.put(type, delta);
+                continue;
+            }
+            double excess = -delta;
+            List<Holding> largestFirst = new ArrayList<>(positions);
+            largestFirst.sort(Comparator.comparingDouble(Holding::value).reversed());
+            for (Holding holding : largestFirst) {
+                if (excess < holding.price() / 2) {
+                    break;
+                }
+                int shares = (int) Math.min(holding.quantity(), Math.round(excess / holding.price()));
+                sells.add(new RebalanceTradeDTO(holding.symbol(), type, OrderSide.SELL, shares, holding.price()));
+                excess -= shares * holding.price();
+                available += shares * holding.price();
+                projected.merge(type, -shares * holding.price(), Double::sum);
+            }
+        }
+
+        List<RebalanceTradeDTO> trades = new ArrayList<>(sells);
+        List<Map.Entry<String, Double>> mostUnderweightFirst = new ArrayList<>(deficits.entrySet());
+        mostUnderweightFirst.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        for (Map.Entry<String, Double> deficit : mostUnderweightFirst) {
+            String type = deficit.getKey();
+            Holding largest = byType.getOrDefault(type, List.of()).stream()
+                    .max(Comparator.comparingDouble(Holding::value))
+                    .orElseGet(() -> cheapestListing(listings, type));
+            if (largest == null) {
+                continue;   // nothing of this type held or listed
+            }
+            long wanted = Math.round(deficit.getValue() / largest.price());
+            long affordable = (long) Math.floor(available / largest.price());
+            int shares = (int) Math.min(wanted, affordable);
+            if (shares > 0) {
+                trades.add(new RebalanceTradeDTO(largest.symbol(), type, OrderSide.BUY, shares, largest.price()));
+                available -= shares * largest.price();
+                projected.merge(type, shares * largest.price(), Double::sum);
+            }
+        }
+
+        plan.setTrades(trades);
+        plan.setCashAfter(available);
+        plan.setProjectedWeights(weights(projected, available, total));
+        return plan;
+    }
+
+    private static Holding cheapestListing(List<Holding> listings, String type) {
+        Holding cheapest = null;
+        for (Holding listing : listings) {
+            if (listing.type().equals(type) && listing.price() > 0
+                    && (cheapest == null || listing.price() < cheapest.price())) {
+                cheapest = listing;
+            }
+        }
+        return cheapest;
+    }
+
+    // targets plus the weight of the types they leave alone cannot exceed the whole portfolio
+    private static void validate(Map<String, Double> targets, Map<String, Double> valueByType, double total) {
+        double sum = 0;
+        for (Map.Entry<String, Double> target : targets.entrySet()) {
+            if (target.getValue() == null || target.getValue() < 0) {
+                throw new IllegalArgumentException("Target weight for " + target.getKey() + " must be positive");
+            }
+            sum += target.getValue();
+        }
+        for (Map.Entry<String, Double> current : valueByType.entrySet()) {
+            if (!targets.containsKey(current.getKey())) {
+                sum += total > 0 ? current.getValue() / total : 0;
+            }
+        }
+        if (sum > 1 + 1e-9) {
+            throw new IllegalArgumentException("Target weights add up to more than 1 with the untargeted types");
+        }
+    }
+
+    private static Map<String, Double> weights(Map<String, Double> valueByType, double cash, double total) {
+        Map<String, Double> weights = new TreeMap<>();
+        if (total <= 0) {
+            return weights;
+        }
+        valueByType.forEach((type, value) -> weights.put(type, value / total));
+        weights.put(CASH, cash / total);
+        return weights;
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.PerformanceDTO;
+import org.example.backend.DTO.PerformancePointDTO;
+import org.example.backend.Entity.PortfolioSnapshotEntity;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns a run of daily snapshots into cumulative return series.
+ *
+ * Time-weighted return is the ratio of the chained twr_index values, so it is
+ * O(1) per point. Money-weighted return is the internal rate of return of the
+ * opening value, the external flows and the value at each point, compounded
+ * over the days elapsed. Flows are taken at the start of the day they happen,
+ * matching how the snapshot job computes daily returns.
+ */
+final class ReturnSeries {
+
+    private static final int MAX_NEWTON_STEPS = 20;
+    private static final int BISECTION_STEPS = 100;
+    private static final double TOLERANCE = 1e-10;
+    // bracket for ln(1 + daily rate)
+    private static final double MIN_LOG_RATE = -1.0;
+    private static final double MAX_LOG_RATE = 1.0;
+
+    private ReturnSeries() {
+    }
+
+    /**
+     * base is the snapshot before the first row, or null when the range starts
+     * at the first snapshot ever taken; the first row is then the base itself.
+     */
+    static PerformanceDTO build(PortfolioSnapshotEntity base, List<PortfolioSnapshotEntity> rows) {
+        PerformanceDTO result = new PerformanceDTO();
+        List<PerformancePointDTO> points = new ArrayList<>(rows.size());
+        result.setPoints(points);
+        if (rows.isEmpty()) {
+            return result;
+        }
+        int first = 0;
+        if (base == null) {
+            base = rows.get(0);
+            first = 1;
+            points.add(point(base, 0, 0.0));
+        }
+
+        double baseIndex = base.getTwrIndex();
+        // cash flows from the investor's side: money in is negative, the closing value positive
+        double[] times = new double[rows.size() + 1];
+        double[] amounts = new double[rows.size() + 1];
+        int flows = 0;
+        if (base.getTotalValue() != 0) {
+            times[0] = 0;
+            amounts[0] = -base.getTotalValue();
+            flows = 1;
+        }
+
+        double netFlows = 0;
+        double logRate = 0;
+        for (int i = first; i < rows.size(); i++) {
+            PortfolioSnapshotEntity row = rows.get(i);
+            long days = ChronoUnit.DAYS.between(base.getSnapshotDate(), row.getSnapshotDate());
+            if (row.getNetFlow() != 0) {
+                times[flows] = days - 1;
+                amounts[flows] = -row.getNetFlow();
+                flows++;
+                netFlows += row.getNetFlow();
+            }
+            Double mwr = null;
+            Double solved = solveLogRate(times, amounts, flows, days, row.getTotalValue(), logRate);
+            if (solved != null) {
+                logRate = solved;
+                mwr = Math.expm1(logRate * days);
+            }
+            points.add(point(row, row.getTwrIndex() / baseIndex - 1, mwr));
+        }
+
+        PerformancePointDTO last = points.get(points.size() - 1);
+        result.setFrom(points.get(0).getDate());
+        result.setTo(last.getDate());
+        result.setStartValue(base.getTotalValue());
+        result.setEndValue(last.getTotalValue());
+        result.setNetFlows(netFlows);
+        result.setTimeWeightedReturn(last.getTimeWeightedReturn());
+        result.setMoneyWeightedReturn(last.getMoneyWeightedReturn());
+        return result;
+    }
+
+    /**
+     * ln(1 + daily IRR) for the given flows plus endValue received at endTime, or
+     * null if there is no sign change to solve for. Newton from the previous
+     * point's rate usually converges in a couple of steps; bisection is the fallback.
+     */
+    static Double solveLogRate(double[] times, double[] amounts, int count,
+                               double endTime, double endValue, double guess) {
+        if (count == 0 || endTime <= 0) {
+            return null;
+        }
+        double lo = npv(times, amounts, count, endTime, endValue, MIN_LOG_RATE);
+        double hi = npv(times, amounts, count, endTime, endValue, MAX_LOG_RATE);
+        if (Math.signum(lo) == Math.signum(hi)) {
+            return null;
+        }
+
+        double g = guess;
+        for (int step = 0; step < MAX_NEWTON_STEPS; step++) {
+            double value = 0;
+            double slope = 0;
+            for (int i = 0; i < count; i++) {
+                double term = amounts[i] * Math.exp(-g * times[i]);
+                value += term;
+                slope -= times[i] * term;
+            }
+            double end = endValue * Math.exp(-g * endTime);
+            value += end;
+            slope -= endTime * end;
+            if (slope == 0) {
+                break;
+            }
+            double next = g - value / slope;
+            if (next <= MIN_LOG_RATE || next >= MAX_LOG_RATE) {
+                break;
+            }
+            if (Math.abs(next - g) < TOLERANCE) {
+                return next;
+            }
+            g = next;
+        }
+
+        double low = MIN_LOG_RATE;
+        double high = MAX_LOG_RATE;
+        for (int step = 0; step < BISECTION_STEPS && high - low > TOLERANCE; step++) {
+            double mid = (low + high) / 2;
+            double value = npv(times, amounts, count, endTime, endValue, mid);
+            if (Math.signum(value) == Math.signum(lo)) {
+                low = mid;
+                lo = value;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    private static double npv(double[] times, double[] amounts, int count,
+                              double endTime, double endValue, double logRate) {
+        double value = endValue * Math.exp(-logRate * endTime);
+        for (int i = 0; i < count; i++) {
+            value += amounts[i] * Math.exp(-logRate * times[i]);
+        }
+        return value;
+    }
+
+    private static PerformancePointDTO point(PortfolioSnapshotEntity row, double twr, Double mwr) {
+        PerformancePointDTO dto = new PerformancePointDTO();
+        dto.setDate(row.getSnapshotDate());
+        dto.setHoldingsValue(row.getHoldingsValue());
+        dto.setCashBalance(row.getCashBalance());
+        dto.setTotalValue(row.getTotalValue());
+        dto.setNetFlow(row.getNetFlow());
+        dto.setDailyReturn(row.getDailyReturn());
+        dto.setTimeWeightedReturn(twr);
+        dto.setMoneyWeightedReturn(mwr);
+        return dto;
+    }
+}
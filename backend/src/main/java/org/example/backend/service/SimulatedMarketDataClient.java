@@ -0,0 +1,211 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+import org.example.backend.Model.FxRates;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * In-process stand-in for the Flask market service so the backend runs offline
+ * (market.source=simulator, set by the local profile).
+ *
+ * Every symbol is a seeded random walk: history-years of weekday bars ending on the
+ * last weekday before startup, then quotes that keep walking from the last close,
+ * one step per call. The same seed gives the same bars and the same quote sequence,
+ * so benchmarks see identical data from run to run.
+ *
+ * At most max-symbols walks are kept, least recently used first out. An evicted
+ * symbol gets the same history again when it comes back, its intraday quotes restart
+ * from the last close.
+ */
+@Service
+@ConditionalOnProperty(name = "market.source", havingValue = "simulator")
+public class SimulatedMarketDataClient implements MarketDataClient {
+
+    // value of one unit in USD
+    private static final Map<String, Double> USD_RATES = Map.of(
+            "USD", 1.0, "EUR", 1.08, "GBP", 1.27, "JPY", 0.0067, "INR", 0.012, "CAD", 0.73, "CHF", 1.12);
+
+    private final long seed;
+    private final int historyYears;
+    private final double dailyVolatility;
+    private final double tickVolatility;
+    private final long latencyMs;
+    private final LocalDate lastBarDate;
+
+    // access ordered, guarded by itself
+    private final LinkedHashMap<String, Walk> walks;
+
+    @Autowired
+    public SimulatedMarketDataClient(@Value("${market.simulator.seed:42}") long seed,
+                                     @Value("${market.simulator.history-years:5}") int historyYears,
+                                     @Value("${market.simulator.daily-volatility:0.02}") double dailyVolatility,
+                                     @Value("${market.simulator.tick-volatility:0.001}") double tickVolatility,
+                                     @Value("${market.simulator.latency-ms:0}") long latencyMs,
+                                     @Value("${market.simulator.max-symbols:1000}") int maxSymbols) {
+        this(seed, historyYears, dailyVolatility, tickVolatility, latencyMs, maxSymbols, LocalDate.now());
+    }
+
+    SimulatedMarketDataClient(long seed, int historyYears, double dailyVolatility,
+                              double tickVolatility, long latencyMs, int maxSymbols, LocalDate today) {
+        this.seed = seed;
+        this.historyYears = historyYears;
+        this.dailyVolatility = dailyVolatility;
+        this.tickVolatility = tickVolatility;
+        this.latencyMs = latencyMs;
+        this.lastBarDate = previousWeekday(today);
+        this.walks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Walk> eldest) {
+                return size() > maxSymbols;
+            }
+        };
+    }
+
+    @Override
+    public Asset getQuote(String symbol) {
+        simulateLatency();
+        return walk(symbol).nextQuote();
+    }
+
+    @Override
+    public List<AssetHistory> getHistory(String symbol) {
+        simulateLatency();
+        return walk(symbol).history;
+    }
+
+    @Override
+    public FxRates getFxRates(String base, Collection<String> currencies) {
+        simulateLatency();
+        Double baseInUsd = USD_RATES.get(base);
+        Map<String, Double> rates = new LinkedHashMap<>();
+        for (String currency : currencies) {
+            Double inUsd = USD_RATES.get(currency);
+            // unknown currencies are left out, like the Flask service does
+            if (inUsd != null && baseInUsd != null && !currency.equals(base)) {
+                rates.put(currency, inUsd / baseInUsd);
+            }
+        }
+        return new FxRates(base, rates);
+    }
+
+    private Walk walk(String symbol) {
+        synchronized (walks) {
+            return walks.computeIfAbsent(symbol.toUpperCase(), Walk::new);
+        }
+    }
+
+    int walkCount() {
+        synchronized (walks) {
+            return walks.size();
+        }
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LocalDate previousWeekday(LocalDate date) {
+        LocalDate day = date.minusDays(1);
+        while (isWeekend(day)) {
+            day = day.minusDays(1);
+        }
+        return day;
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    // same rules as detect_asset_type in script.py
+    private static String detectType(String symbol) {
+        if (symbol.contains("=X")) {
+            return "CURRENCY";
+        }
+        if (symbol.contains("-USD")) {
+            return "CRYPTO";
+        }
+        if (symbol.equals("TLT") || symbol.equals("IEF") || symbol.equals("SHY")) {
+            return "BOND";
+        }
+        return "STOCK";
+    }
+
+    private static double round2(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private class Walk {
+
+        private final String symbol;
+        private final String type;
+        private final Random random;
+        private final List<AssetHistory> history;
+
+        // today's session, guarded by this
+        private final double open;
+        private double price;
+        private double high;
+        private double low;
+        private long volume;
+
+        Walk(String symbol) {
+            this.symbol = symbol;
+            this.type = detectType(symbol);
+            this.random = new Random(seed * 31 + symbol.hashCode());
+            this.history = buildHistory(20 + random.nextDouble() * 480);
+            this.open = history.isEmpty() ? 100 : history.get(history.size() - 1).getClose();
+            this.price = open;
+            this.high = open;
+            this.low = open;
+        }
+
+        private List<AssetHistory> buildHistory(double startPrice) {
+            List<AssetHistory> bars = new ArrayList<>();
+            double close = startPrice;
+            for (LocalDate day = lastBarDate.minusYears(historyYears).plusDays(1);
+                 !day.isAfter(lastBarDate); day = day.plusDays(1)) {
+                if (isWeekend(day)) {
+                    continue;
+                }
+                double barOpen = close * Math.exp(dailyVolatility * 0.25 * random.nextGaussian());
+                close = barOpen * Math.exp(dailyVolatility * random.nextGaussian());
+                double barHigh = Math.max(barOpen, close) * (1 + Math.abs(random.nextGaussian()) * dailyVolatility / 2);
+                double barLow = Math.min(barOpen, close) * (1 - Math.abs(random.nextGaussian()) * dailyVolatility / 2);
+                long barVolume = 100_000 + random.nextInt(900_000);
+                bars.add(new AssetHistory(symbol, type, day, round2(barOpen), round2(barHigh),
+                        round2(barLow), round2(close), barVolume));
+            }
+            return List.copyOf(bars);
+        }
+
+        synchronized Asset nextQuote() {
+            price *= Math.exp(tickVolatility * random.nextGaussian());
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            volume += 100 + random.nextInt(10_000);
+            return new Asset(symbol, symbol + " (simulated)", type, round2(open), round2(high), round2(low),
+                    round2(price), round2(price), volume, "USD", "SIM", LocalDateTime.now());
+        }
+    }
+}
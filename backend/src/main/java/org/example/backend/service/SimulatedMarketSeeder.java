@@ -0,0 +1,55 @@
+package org.example.backend.service;
+
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Fills an empty local database when the market simulator is on: adds the
+ * market.simulator.symbols to the catalogue and runs one ingestion pass so their
+ * history is loaded before the first benchmark or load test starts.
+ */
+@Service
+@ConditionalOnProperty(name = "market.source", havingValue = "simulator")
+public class SimulatedMarketSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(SimulatedMarketSeeder.class);
+
+    private final AssetCatalogueRepository assetCatalogueRepo;
+    private final AssetCatalogueService assetCatalogueService;
+    private final MarketIngestionService ingestionService;
+    private final List<String> symbols;
+    private final boolean loadHistory;
+
+    public SimulatedMarketSeeder(AssetCatalogueRepository assetCatalogueRepo,
+                                 AssetCatalogueService assetCatalogueService,
+                                 MarketIngestionService ingestionService,
+                                 @Value("${market.simulator.symbols:}") List<String> symbols,
+                                 @Value("${market.simulator.load-history:true}") boolean loadHistory) {
+        this.assetCatalogueRepo = assetCatalogueRepo;
+        this.assetCatalogueService = assetCatalogueService;
+        this.ingestionService = ingestionService;
+        this.symbols = symbols;
+        this.loadHistory = loadHistory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        int added = 0;
+        for (String symbol : symbols) {
+            if (!symbol.isBlank() && assetCatalogueRepo.findBySymbol(symbol).isEmpty()) {
+                assetCatalogueService.addAsset(symbol);
+                added++;
+            }
+        }
+        int rows = loadHistory ? ingestionService.runOnce() : 0;
+        log.info("Seeded simulated market: {} catalogue symbols added, {} history rows", added, rows);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.backend.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Alert thresholds of one kind for one symbol, sorted ascending in parallel
+ * primitive arrays. An alert fires when the observed value reaches its key, so
+ * the alerts a value fires are always a prefix of the live range: evaluation is
+ * a compare against the head, O(1) when nothing fires and O(fired) otherwise.
+ * Fired alerts are dropped by moving the head. Callers negate keys and values
+ * for falling thresholds. Not thread safe.
+ */
+final class ThresholdBook {
+
+    interface FireListener {
+        void fired(long id, double key);
+    }
+
+    private double[] keys;
+    private long[] ids;
+    private int head;
+    private int tail;
+
+    ThresholdBook() {
+        this(8);
+    }
+
+    private ThresholdBook(int capacity) {
+        keys = new double[capacity];
+        ids = new long[capacity];
+    }
+
+    // bulk build for startup loads, one sort instead of an insertion per alert
+    static ThresholdBook of(double[] keys, long[] ids, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> keys[i]));
+        ThresholdBook book = new ThresholdBook(Math.max(8, count));
+        for (int i = 0; i < count; i++) {
+            book.keys[i] = keys[order[i]];
+            book.ids[i] = ids[order[i]];
+        }
+        book.tail = count;
+        return book;
+    }
+
+    void add(double key, long id) {
+        if (tail == keys.length) {
+            makeRoom();
+        }
+        int pos = upperBound(key);
+        System.arraycopy(keys, pos, keys, pos + 1, tail - pos);
+        System.arraycopy(ids, pos, ids, pos + 1, tail - pos);
+        keys[pos] = key;
+        ids[pos] = id;
+        tail++;
+    }
+
+    boolean remove(double key, long id) {
+        for (int pos = lowerBound(key); pos < tail && keys[pos] == key; pos++) {
+            if (ids[pos] == id) {
+                System.arraycopy(keys, pos + 1, keys, pos, tail - pos - 1);
+                System.arraycopy(ids, pos + 1, ids, pos, tail - pos - 1);
+                tail--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // fire and drop every alert with key <= value, returns how many fired
+    int fire(double value, FireListener listener) {
+        int start = head;
+        while (head < tail && keys[head] <= value) {
+            listener.fired(ids[head], keys[head]);
+            head++;
+        }
+        int fired = head - start;
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+        }
+        return fired;
+    }
+
+    int size() {
+        return tail - head;
+    }
+
+    private int lowerBound(double key) {
+        int lo = head;
+        int hi = tail;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int upperBound(double key) {
+        int lo = head;
+        int hi = tail;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // reclaim the fired prefix first, grow only when the book is really full
+    private void makeRoom() {
+        int size = tail - head;
+        if (head > 0 && size < keys.length / 2) {
+            System.arraycopy(keys, head, keys, 0, size);
+            System.arraycopy(ids, head, ids, 0, size);
+        } else {
+            double[] newKeys = new double[keys.length * 2];
+            long[] newIds = new long[keys.length * 2];
+            System.arraycopy(keys, head, newKeys, 0, size);
+            System.arraycopy(ids, head, newIds, 0, size);
+            keys = newKeys;
+            ids = newIds;
+        }
+        head = 0;
+        tail = size;
+    }
+}
@@ -0,0 +1,10 @@
+-- One running average cost per symbol: an average-cost sale writes this row and
+-- the lots it consumes, not every open lot. portfolio_lot.price stays the purchase price.
+-- Lots with an id up to through_lot_id are carried at cost_price.
+
+CREATE TABLE lot_average_cost (
+    symbol         VARCHAR(255) NOT NULL,
+    through_lot_id BIGINT NOT NULL,
+    cost_price     DOUBLE NOT NULL,
+    PRIMARY KEY (symbol)
+);
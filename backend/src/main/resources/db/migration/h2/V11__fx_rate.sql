@@ -0,0 +1,10 @@
+-- Last rate fetched per currency (FxRateService), so a restarted instance can still
+-- value foreign positions while the market service is down
+
+CREATE TABLE fx_rate (
+    currency      VARCHAR(255) NOT NULL,
+    base_currency VARCHAR(255) NOT NULL,
+    rate          DECIMAL(19, 8) NOT NULL,
+    fetched_at    TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (currency)
+);
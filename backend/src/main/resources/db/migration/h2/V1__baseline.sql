@@ -0,0 +1,48 @@
+-- H2 counterpart of mysql/V1 for the local profile, which always starts from an empty database
+
+CREATE TABLE balance (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    amount       DOUBLE NOT NULL,
+    last_updated TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE asset_catalogue (
+    symbol       VARCHAR(255) NOT NULL,
+    name         VARCHAR(255),
+    type         VARCHAR(255),
+    open         DOUBLE NOT NULL,
+    high         DOUBLE NOT NULL,
+    low          DOUBLE NOT NULL,
+    close        DOUBLE NOT NULL,
+    price        DOUBLE NOT NULL,
+    volume       BIGINT NOT NULL,
+    currency     VARCHAR(255),
+    exchange     VARCHAR(255),
+    last_updated TIMESTAMP(6),
+    PRIMARY KEY (symbol)
+);
+
+CREATE TABLE portfolio_asset (
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    symbol        VARCHAR(255),
+    name          VARCHAR(255),
+    type          VARCHAR(255),
+    buy_price     DOUBLE NOT NULL,
+    quantity      INT NOT NULL,
+    buy_timestamp TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE asset_history (
+    id     BIGINT NOT NULL AUTO_INCREMENT,
+    symbol VARCHAR(255),
+    type   VARCHAR(255),
+    date   DATE,
+    open   DOUBLE NOT NULL,
+    high   DOUBLE NOT NULL,
+    low    DOUBLE NOT NULL,
+    close  DOUBLE NOT NULL,
+    volume BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
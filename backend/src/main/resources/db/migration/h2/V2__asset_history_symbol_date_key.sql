@@ -0,0 +1,15 @@
+-- (symbol, date) primary key as in mysql/V2, without the yearly partitions
+
+DROP TABLE asset_history;
+
+CREATE TABLE asset_history (
+    symbol VARCHAR(16) NOT NULL,
+    date   DATE NOT NULL,
+    type   VARCHAR(255),
+    open   DOUBLE NOT NULL,
+    high   DOUBLE NOT NULL,
+    low    DOUBLE NOT NULL,
+    close  DOUBLE NOT NULL,
+    volume BIGINT NOT NULL,
+    PRIMARY KEY (symbol, date)
+);
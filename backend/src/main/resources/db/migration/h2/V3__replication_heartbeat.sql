@@ -0,0 +1,7 @@
+CREATE TABLE replication_heartbeat (
+    id   INT NOT NULL,
+    beat TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO replication_heartbeat (id, beat) VALUES (1, CURRENT_TIMESTAMP(6));
@@ -0,0 +1,25 @@
+CREATE TABLE portfolio_lot (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    symbol      VARCHAR(255),
+    quantity    INT NOT NULL,
+    remaining   INT NOT NULL,
+    price       DOUBLE NOT NULL,
+    acquired_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_portfolio_lot_open ON portfolio_lot (symbol, remaining, id);
+
+CREATE TABLE realized_trade (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    symbol       VARCHAR(255),
+    quantity     INT NOT NULL,
+    sale_price   DOUBLE NOT NULL,
+    cost_basis   DOUBLE NOT NULL,
+    realized_pnl DOUBLE NOT NULL,
+    method       VARCHAR(16),
+    sold_at      TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_realized_trade_symbol ON realized_trade (symbol, sold_at);
@@ -0,0 +1,21 @@
+CREATE TABLE cash_flow (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    amount      DOUBLE NOT NULL,
+    kind        VARCHAR(16),
+    occurred_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_cash_flow_time ON cash_flow (occurred_at);
+
+CREATE TABLE portfolio_snapshot (
+    snapshot_date  DATE NOT NULL,
+    holdings_value DOUBLE NOT NULL,
+    cash_balance   DOUBLE NOT NULL,
+    total_value    DOUBLE NOT NULL,
+    net_flow       DOUBLE NOT NULL,
+    daily_return   DOUBLE NOT NULL,
+    twr_index      DOUBLE NOT NULL,
+    computed_at    TIMESTAMP(6),
+    PRIMARY KEY (snapshot_date)
+);
@@ -0,0 +1,13 @@
+CREATE TABLE price_alert (
+    id              BIGINT NOT NULL AUTO_INCREMENT,
+    symbol          VARCHAR(255) NOT NULL,
+    type            VARCHAR(16) NOT NULL,
+    threshold       DOUBLE NOT NULL,
+    active          BOOLEAN NOT NULL,
+    created_at      TIMESTAMP(6),
+    triggered_at    TIMESTAMP(6),
+    triggered_value DOUBLE,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_price_alert_active ON price_alert (active, symbol);
@@ -0,0 +1,16 @@
+CREATE TABLE trade_order (
+    id             BIGINT NOT NULL AUTO_INCREMENT,
+    symbol         VARCHAR(255) NOT NULL,
+    side           VARCHAR(8) NOT NULL,
+    type           VARCHAR(8) NOT NULL,
+    quantity       INT NOT NULL,
+    order_price    DOUBLE NOT NULL,
+    status         VARCHAR(16) NOT NULL,
+    created_at     TIMESTAMP(6),
+    executed_at    TIMESTAMP(6),
+    executed_price DOUBLE,
+    message        VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_trade_order_status ON trade_order (status, symbol);
@@ -0,0 +1,2 @@
+ALTER TABLE balance ALTER COLUMN amount DECIMAL(19, 4) NOT NULL;
+ALTER TABLE cash_flow ALTER COLUMN amount DECIMAL(19, 4) NOT NULL;
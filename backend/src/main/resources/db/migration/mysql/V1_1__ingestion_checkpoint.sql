@@ -0,0 +1,8 @@
+-- Per symbol progress of the scheduled history ingestion (MarketIngestionService)
+
+CREATE TABLE IF NOT EXISTS ingestion_checkpoint (
+    symbol            VARCHAR(255) NOT NULL,
+    last_history_date DATE,
+    last_ingested     DATETIME(6),
+    PRIMARY KEY (symbol)
+) ENGINE = InnoDB;
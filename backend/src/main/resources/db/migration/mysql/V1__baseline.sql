@@ -0,0 +1,49 @@
+-- Schema as it was created by hibernate ddl-auto=update.
+-- IF NOT EXISTS so existing databases can be brought under flyway as-is.
+
+CREATE TABLE IF NOT EXISTS balance (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    amount       DOUBLE NOT NULL,
+    last_updated DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS asset_catalogue (
+    symbol       VARCHAR(255) NOT NULL,
+    name         VARCHAR(255),
+    type         VARCHAR(255),
+    open         DOUBLE NOT NULL,
+    high         DOUBLE NOT NULL,
+    low          DOUBLE NOT NULL,
+    close        DOUBLE NOT NULL,
+    price        DOUBLE NOT NULL,
+    volume       BIGINT NOT NULL,
+    currency     VARCHAR(255),
+    exchange     VARCHAR(255),
+    last_updated DATETIME(6),
+    PRIMARY KEY (symbol)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS portfolio_asset (
+    id            BIGINT NOT NULL AUTO_INCREMENT,
+    symbol        VARCHAR(255),
+    name          VARCHAR(255),
+    type          VARCHAR(255),
+    buy_price     DOUBLE NOT NULL,
+    quantity      INT NOT NULL,
+    buy_timestamp DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS asset_history (
+    id     BIGINT NOT NULL AUTO_INCREMENT,
+    symbol VARCHAR(255),
+    type   VARCHAR(255),
+    date   DATE,
+    open   DOUBLE NOT NULL,
+    high   DOUBLE NOT NULL,
+    low    DOUBLE NOT NULL,
+    close  DOUBLE NOT NULL,
+    volume BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
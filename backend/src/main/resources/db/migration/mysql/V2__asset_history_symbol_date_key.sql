@@ -0,0 +1,67 @@
+-- Rebuild asset_history around its access pattern: every query is by symbol,
+-- usually over a date range. The (symbol, date) primary key makes those index
+-- range scans that come back already sorted, and yearly range partitions let
+-- date-bounded queries skip old years entirely.
+-- MySQL requires the partitioning column in every unique key, hence no surrogate id.
+--
+-- symbol is narrowed to 16 ASCII characters to keep the key short; type keeps its
+-- original width. The copy runs in strict mode, so a stored symbol that does not fit
+-- stops the migration before the old table is touched instead of being truncated.
+
+DROP TABLE IF EXISTS asset_history_new;
+
+CREATE TABLE asset_history_new (
+    symbol VARCHAR(16) CHARACTER SET ascii NOT NULL,
+    date   DATE NOT NULL,
+    type   VARCHAR(255),
+    open   DOUBLE NOT NULL,
+    high   DOUBLE NOT NULL,
+    low    DOUBLE NOT NULL,
+    close  DOUBLE NOT NULL,
+    volume BIGINT NOT NULL,
+    PRIMARY KEY (symbol, date)
+) ENGINE = InnoDB
+PARTITION BY RANGE (YEAR(date)) (
+    PARTITION p_before_2010 VALUES LESS THAN (2010),
+    PARTITION p2010 VALUES LESS THAN (2011),
+    PARTITION p2011 VALUES LESS THAN (2012),
+    PARTITION p2012 VALUES LESS THAN (2013),
+    PARTITION p2013 VALUES LESS THAN (2014),
+    PARTITION p2014 VALUES LESS THAN (2015),
+    PARTITION p2015 VALUES LESS THAN (2016),
+    PARTITION p2016 VALUES LESS THAN (2017),
+    PARTITION p2017 VALUES LESS THAN (2018),
+    PARTITION p2018 VALUES LESS THAN (2019),
+    PARTITION p2019 VALUES LESS THAN (2020),
+    PARTITION p2020 VALUES LESS THAN (2021),
+    PARTITION p2021 VALUES LESS THAN (2022),
+    PARTITION p2022 VALUES LESS THAN (2023),
+    PARTITION p2023 VALUES LESS THAN (2024),
+    PARTITION p2024 VALUES LESS THAN (2025),
+    PARTITION p2025 VALUES LESS THAN (2026),
+    PARTITION p2026 VALUES LESS THAN (2027),
+    PARTITION p2027 VALUES LESS THAN (2028),
+    PARTITION p2028 VALUES LESS THAN (2029),
+    PARTITION p2029 VALUES LESS THAN (2030),
+    PARTITION p2030 VALUES LESS THAN (2031),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+SET @saved_sql_mode = @@SESSION.sql_mode;
+SET SESSION sql_mode = CONCAT(@@SESSION.sql_mode, ',STRICT_ALL_TABLES');
+
+-- keeps the first row when the old table has duplicate (symbol, date) bars; no IGNORE,
+-- which would also turn an over-long or non-ASCII symbol into a silently truncated one
+INSERT INTO asset_history_new (symbol, date, type, open, high, low, close, volume)
+SELECT h.symbol, h.date, h.type, h.open, h.high, h.low, h.close, h.volume
+FROM asset_history h
+JOIN (SELECT MIN(id) AS id
+      FROM asset_history
+      WHERE symbol IS NOT NULL AND date IS NOT NULL
+      GROUP BY symbol, date) first_bar ON first_bar.id = h.id;
+
+SET SESSION sql_mode = @saved_sql_mode;
+
+RENAME TABLE asset_history TO asset_history_legacy, asset_history_new TO asset_history;
+
+DROP TABLE asset_history_legacy;
@@ -0,0 +1,9 @@
+-- Single row stamped by the primary and read back from the replica to measure replication lag
+
+CREATE TABLE replication_heartbeat (
+    id   INT NOT NULL,
+    beat DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+INSERT INTO replication_heartbeat (id, beat) VALUES (1, NOW(6));
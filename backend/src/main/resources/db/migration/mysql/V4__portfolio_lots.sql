@@ -0,0 +1,31 @@
+-- Purchase lots and realized sales for cost-basis accounting
+
+CREATE TABLE portfolio_lot (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    symbol      VARCHAR(255),
+    quantity    INT NOT NULL,
+    remaining   INT NOT NULL,
+    price       DOUBLE NOT NULL,
+    acquired_at DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_portfolio_lot_open (symbol, remaining, id)
+) ENGINE = InnoDB;
+
+CREATE TABLE realized_trade (
+    id           BIGINT NOT NULL AUTO_INCREMENT,
+    symbol       VARCHAR(255),
+    quantity     INT NOT NULL,
+    sale_price   DOUBLE NOT NULL,
+    cost_basis   DOUBLE NOT NULL,
+    realized_pnl DOUBLE NOT NULL,
+    method       VARCHAR(16),
+    sold_at      DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_realized_trade_symbol (symbol, sold_at)
+) ENGINE = InnoDB;
+
+-- positions bought before lots existed become one lot at their average price
+INSERT INTO portfolio_lot (symbol, quantity, remaining, price, acquired_at)
+SELECT symbol, quantity, quantity, buy_price, buy_timestamp
+FROM portfolio_asset
+WHERE quantity > 0;
@@ -0,0 +1,22 @@
+-- External cash flows (deposits and withdrawals) and the daily portfolio snapshots built from them
+
+CREATE TABLE cash_flow (
+    id          BIGINT NOT NULL AUTO_INCREMENT,
+    amount      DOUBLE NOT NULL,
+    kind        VARCHAR(16),
+    occurred_at DATETIME(6),
+    PRIMARY KEY (id),
+    KEY idx_cash_flow_time (occurred_at)
+) ENGINE = InnoDB;
+
+CREATE TABLE portfolio_snapshot (
+    snapshot_date  DATE NOT NULL,
+    holdings_value DOUBLE NOT NULL,
+    cash_balance   DOUBLE NOT NULL,
+    total_value    DOUBLE NOT NULL,
+    net_flow       DOUBLE NOT NULL,
+    daily_return   DOUBLE NOT NULL,
+    twr_index      DOUBLE NOT NULL,
+    computed_at    DATETIME(6),
+    PRIMARY KEY (snapshot_date)
+) ENGINE = InnoDB;
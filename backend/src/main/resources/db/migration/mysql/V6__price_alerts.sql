@@ -0,0 +1,14 @@
+-- Price, daily move and P&L alerts; the active ones are loaded into the in-memory alert index at startup
+
+CREATE TABLE price_alert (
+    id              BIGINT NOT NULL AUTO_INCREMENT,
+    symbol          VARCHAR(255) NOT NULL,
+    type            VARCHAR(16) NOT NULL,
+    threshold       DOUBLE NOT NULL,
+    active          BIT NOT NULL,
+    created_at      DATETIME(6),
+    triggered_at    DATETIME(6),
+    triggered_value DOUBLE,
+    PRIMARY KEY (id),
+    KEY idx_price_alert_active (active, symbol)
+) ENGINE = InnoDB;
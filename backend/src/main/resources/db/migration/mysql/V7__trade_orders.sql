@@ -0,0 +1,17 @@
+-- Resting limit and stop orders; the open ones are loaded into the in-memory order books at startup
+
+CREATE TABLE trade_order (
+    id             BIGINT NOT NULL AUTO_INCREMENT,
+    symbol         VARCHAR(255) NOT NULL,
+    side           VARCHAR(8) NOT NULL,
+    type           VARCHAR(8) NOT NULL,
+    quantity       INT NOT NULL,
+    order_price    DOUBLE NOT NULL,
+    status         VARCHAR(16) NOT NULL,
+    created_at     DATETIME(6),
+    executed_at    DATETIME(6),
+    executed_price DOUBLE,
+    message        VARCHAR(255),
+    PRIMARY KEY (id),
+    KEY idx_trade_order_status (status, symbol)
+) ENGINE = InnoDB;
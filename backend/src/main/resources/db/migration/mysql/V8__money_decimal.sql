@@ -0,0 +1,4 @@
+-- Balances and cash flows are exact decimal money in the base currency
+
+ALTER TABLE balance MODIFY amount DECIMAL(19, 4) NOT NULL;
+ALTER TABLE cash_flow MODIFY amount DECIMAL(19, 4) NOT NULL;
@@ -0,0 +1,6 @@
+-- What a trade moved on the cash balance, in the base currency at the rate it
+-- settled at. Snapshot replays take cash from here rather than converting
+-- price * quantity again; null on rows written before it was recorded.
+
+ALTER TABLE portfolio_lot ADD COLUMN settled_amount DECIMAL(19, 4);
+ALTER TABLE realized_trade ADD COLUMN settled_amount DECIMAL(19, 4);
@@ -0,0 +1,108 @@
+package org.example.backend.Config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class QueryCountInterceptorTest {
+
+    private final QueryCountInspector inspector = new QueryCountInspector();
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private MockMvc mvc;
+
+    // one query on the servlet thread, the rest on the executor, like the market endpoints
+    @RestController
+    class QueryingController {
+
+        @GetMapping("/sync/{queries}")
+        String sync(@PathVariable int queries) {
+            query(queries);
+            return "ok";
+        }
+
+        @GetMapping("/async/{queries}")
+        CompletableFuture<String> async(@PathVariable int queries) {
+            query(1);
+            return CompletableFuture.supplyAsync(() -> {
+                query(queries - 1);
+                return "ok";
+            }, executor);
+        }
+
+        private void query(int times) {
+            for (int i = 0; i < times; i++) {
+                inspector.inspect("select 1");
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setTaskDecorator(QueryCountInspector::propagate);
+        executor.initialize();
+        mvc = MockMvcBuilders.standaloneSetup(new QueryingController())
+                .addInterceptors(new QueryCountInterceptor(meterRegistry))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private DistributionSummary queries(String uri) {
+        return meterRegistry.get("http.server.requests.queries").tag("uri", uri).summary();
+    }
+
+    @Test
+    void countsSyncRequests() throws Exception {
+        mvc.perform(get("/sync/3")).andExpect(status().isOk());
+        mvc.perform(get("/sync/1")).andExpect(status().isOk());
+
+        assertThat(queries("/sync/{queries}").count()).isEqualTo(2);
+        assertThat(queries("/sync/{queries}").max()).isEqualTo(3);
+        assertThat(queries("/sync/{queries}").totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void asyncRequestsCountExecutorQueriesAndRecordOnce() throws Exception {
+        MvcResult started = mvc.perform(get("/async/4")).andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        assertThat(queries("/async/{queries}").count()).isEqualTo(1);
+        assertThat(queries("/async/{queries}").totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void executorThreadsForgetTheRequestAfterwards() throws Exception {
+        MvcResult started = mvc.perform(get("/async/2")).andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // a scheduled job on the same thread is not counted against the finished request
+        executor.submit(() -> inspector.inspect("select 1")).get();
+        assertThat(executor.submit(QueryCountInspector::current).get()).isZero();
+        assertThat(queries("/async/{queries}").totalAmount()).isEqualTo(2);
+        assertThat(QueryCountInspector.current()).isZero();
+    }
+}
@@ -0,0 +1,150 @@
+package org.example.backend.Config;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two in-memory databases standing in for the primary and the replica.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    // wide enough that a cold first request through the filter still lands inside it
+    private static final long MAX_STALENESS_MS = 1000;
+
+    private ReplicaRoutingPolicy policy;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+
+        policy = new ReplicaRoutingPolicy(MAX_STALENESS_MS);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(policy);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Target.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Target.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTx = new TransactionTemplate(txManager);
+        readOnlyTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(txManager);
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaWhenItIsFresh() {
+        policy.recordReplicaLag(10);
+
+        assertThat(readOnly()).isEqualTo("replica");
+        assertThat(readWrite()).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaIsBypassed() {
+        policy.recordReplicaLag(MAX_STALENESS_MS + 1);
+
+        assertThat(readOnly()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFollowingAWriteStayOnPrimaryForTheStalenessWindow() throws Exception {
+        policy.recordReplicaLag(0);
+        policy.bindClient(0, writtenAt -> { });
+        try {
+            writeTx.executeWithoutResult(status -> whereAmI());
+
+            assertThat(readOnly()).isEqualTo("primary");
+
+            Thread.sleep(MAX_STALENESS_MS + 20);
+            assertThat(readOnly()).isEqualTo("replica");
+        } finally {
+            policy.unbindClient();
+        }
+    }
+
+    @Test
+    void backgroundWritesDoNotPinOtherReaders() throws Exception {
+        policy.recordReplicaLag(0);
+        // a scheduled job writing on its own thread, with no client bound
+        Thread job = new Thread(() -> writeTx.executeWithoutResult(status -> whereAmI()));
+        job.start();
+        job.join();
+        assertThat(readOnly()).isEqualTo("replica");
+
+        policy.bindClient(0, writtenAt -> { });
+        try {
+            assertThat(readOnly()).isEqualTo("replica");
+        } finally {
+            policy.unbindClient();
+        }
+    }
+
+    @Test
+    void theCookieCarriesTheWriterPinToItsNextRequestOnly() throws Exception {
+        policy.recordReplicaLag(0);
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(policy);
+
+        MockHttpServletResponse trade = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), trade,
+                (req, res) -> writeTx.executeWithoutResult(status -> whereAmI()));
+        Cookie lastWrite = trade.getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(lastWrite).isNotNull();
+        assertThat(lastWrite.getMaxAge()).isPositive();
+
+        MockHttpServletRequest sameClient = new MockHttpServletRequest();
+        sameClient.setCookies(lastWrite);
+        assertThat(readThrough(filter, sameClient)).isEqualTo("primary");
+        assertThat(readThrough(filter, new MockHttpServletRequest())).isEqualTo("replica");
+
+        Thread.sleep(MAX_STALENESS_MS + 20);
+        assertThat(readThrough(filter, sameClient)).isEqualTo("replica");
+    }
+
+    private String readThrough(ReadYourWritesFilter filter, MockHttpServletRequest request) throws Exception {
+        String[] target = new String[1];
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> target[0] = readOnly());
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE)).isNull();
+        return target[0];
+    }
+
+    private String readOnly() {
+        return readOnlyTx.execute(status -> whereAmI());
+    }
+
+    private String readWrite() {
+        return writeTx.execute(status -> whereAmI());
+    }
+
+    private String whereAmI() {
+        return jdbc.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE marker (name VARCHAR(16))");
+        setup.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+}
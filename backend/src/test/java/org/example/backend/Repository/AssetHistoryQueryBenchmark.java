@@ -0,0 +1,155 @@
+package org.example.backend.Repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Times the queries behind findBySymbolOrderByDateAsc and findBySymbolAndDateBetweenOrderByDateAsc
+ * on the old asset_history shape (surrogate id, no index) and on the migrated one
+ * ((symbol, date) key, yearly partitions). The last year query is the one partition
+ * pruning can help; the full history query reads every partition either way.
+ *
+ * The numbers that matter come from a disposable MySQL database that flyway has
+ * already migrated, e.g.
+ * mvn test -Pbenchmark -Dtest=AssetHistoryQueryBenchmark \
+ *     -Dbenchmark.jdbc.url=jdbc:mysql://localhost:3306/bench?rewriteBatchedStatements=true \
+ *     -Dbenchmark.jdbc.user=root -Dbenchmark.jdbc.password=... -Dbenchmark.rows=50000000
+ *
+ * Without benchmark.jdbc.url it runs against an in-memory H2 database with the
+ * h2/V2 shape (same key, no partitions) and 1,000,000 rows by default, which
+ * shows the scan against the key lookup but not what partitions add. At 1,000,000
+ * rows every symbol has 200 days, all inside 2000, so even on MySQL a small run
+ * touches one partition.
+ *
+ * Recorded so far (H2 2.x in memory, 1,000,000 rows, avg of 50 queries):
+ *   full history  legacy 74.8 ms   keyed  3.6 ms
+ *   last year     legacy 80.4 ms   keyed  1.8 ms
+ * The 50,000,000 row MySQL before/after run, the one that measures partitioning,
+ * has not been recorded yet.
+ */
+class AssetHistoryQueryBenchmark {
+
+    private static final int SYMBOLS = 5000;
+    private static final int QUERIES = 50;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2000, 1, 1);
+
+    // asset_history as h2/V2 creates it
+    private static final String KEYED_H2 = "CREATE TABLE bench_history_keyed (symbol VARCHAR(16) NOT NULL, "
+            + "date DATE NOT NULL, type VARCHAR(255), open DOUBLE NOT NULL, high DOUBLE NOT NULL, "
+            + "low DOUBLE NOT NULL, close DOUBLE NOT NULL, volume BIGINT NOT NULL, PRIMARY KEY (symbol, date))";
+
+    @Test
+    void findBySymbolOrderByDateAsc() throws SQLException {
+        String url = System.getProperty("benchmark.jdbc.url");
+        boolean h2 = url == null;
+        if (h2) {
+            url = "jdbc:h2:mem:history-bench-" + System.nanoTime()
+                    + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        }
+        long rows = Long.getLong("benchmark.rows", h2 ? 1_000_000L : 50_000_000L);
+
+        try (Connection connection = DriverManager.getConnection(url,
+                System.getProperty("benchmark.jdbc.user", "root"),
+                System.getProperty("benchmark.jdbc.password", ""))) {
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute("DROP TABLE IF EXISTS bench_history_legacy");
+                ddl.execute("DROP TABLE IF EXISTS bench_history_keyed");
+                ddl.execute("CREATE TABLE bench_history_legacy (id BIGINT NOT NULL AUTO_INCREMENT, "
+                        + "symbol VARCHAR(255), type VARCHAR(255), date DATE, open DOUBLE NOT NULL, "
+                        + "high DOUBLE NOT NULL, low DOUBLE NOT NULL, close DOUBLE NOT NULL, "
+                        + "volume BIGINT NOT NULL, PRIMARY KEY (id)) ENGINE = InnoDB");
+                ddl.execute(h2 ? KEYED_H2 : "CREATE TABLE bench_history_keyed LIKE asset_history");
+            }
+
+            long loadStart = System.nanoTime();
+            load(connection, rows);
+            try (Statement copy = connection.createStatement()) {
+                copy.execute("INSERT INTO bench_history_keyed (symbol, date, type, open, high, low, close, volume) "
+                        + "SELECT symbol, date, type, open, high, low, close, volume FROM bench_history_legacy");
+            }
+            System.out.printf("loaded %,d rows in %d s%n", rows, (System.nanoTime() - loadStart) / 1_000_000_000);
+
+            // the last year of the loaded range, what partition pruning can cut down to
+            LocalDate lastDay = FIRST_DAY.plusDays(Math.max(1, rows / SYMBOLS) - 1);
+            LocalDate yearBefore = lastDay.minusDays(364);
+            String keyed = h2 ? "keyed  (symbol, date)       " : "keyed  (symbol, date) + part";
+            System.out.printf("full history  legacy (id, no index)        avg %8.1f ms%n",
+                    time(connection, "bench_history_legacy", null, null));
+            System.out.printf("full history  %s avg %8.1f ms%n", keyed,
+                    time(connection, "bench_history_keyed", null, null));
+            System.out.printf("last year     legacy (id, no index)        avg %8.1f ms%n",
+                    time(connection, "bench_history_legacy", yearBefore, lastDay));
+            System.out.printf("last year     %s avg %8.1f ms%n", keyed,
+                    time(connection, "bench_history_keyed", yearBefore, lastDay));
+        }
+    }
+
+    private static void load(Connection connection, long rows) throws SQLException {
+        connection.setAutoCommit(false);
+        long daysPerSymbol = Math.max(1, rows / SYMBOLS);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_history_legacy (symbol, type, date, open, high, low, close, volume) "
+                        + "VALUES (?, 'STOCK', ?, ?, ?, ?, ?, ?)")) {
+            long written = 0;
+            // day-major order, the way ingestion appends data
+            for (long day = 0; day < daysPerSymbol && written < rows; day++) {
+                Date date = Date.valueOf(FIRST_DAY.plusDays(day));
+                for (int s = 0; s < SYMBOLS && written < rows; s++, written++) {
+                    insert.setString(1, "SYM" + s);
+                    insert.setDate(2, date);
+                    insert.setDouble(3, 100);
+                    insert.setDouble(4, 101);
+                    insert.setDouble(5, 99);
+                    insert.setDouble(6, 100.5);
+                    insert.setLong(7, 1_000_000);
+                    insert.addBatch();
+                    if (written % 10_000 == 9_999) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // from and to null: the whole history, as findBySymbolOrderByDateAsc reads it;
+    // otherwise a range, as findBySymbolAndDateBetweenOrderByDateAsc does
+    private static double time(Connection connection, String table, LocalDate from, LocalDate to)
+            throws SQLException {
+        Random random = new Random(42);
+        long total = 0;
+        try (PreparedStatement query = connection.prepareStatement(
+                "SELECT symbol, date, type, open, high, low, close, volume FROM " + table
+                        + " WHERE symbol = ?" + (from != null ? " AND date BETWEEN ? AND ?" : "")
+                        + " ORDER BY date ASC")) {
+            for (int i = 0; i < QUERIES; i++) {
+                query.setString(1, "SYM" + random.nextInt(SYMBOLS));
+                if (from != null) {
+                    query.setDate(2, Date.valueOf(from));
+                    query.setDate(3, Date.valueOf(to));
+                }
+                long start = System.nanoTime();
+                try (ResultSet rs = query.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getDouble(7);
+                    }
+                }
+                total += System.nanoTime() - start;
+            }
+        }
+        return total / 1e6 / QUERIES;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.backend.RestController;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.backend.Entity.PortfolioAssetEntity;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.BalanceRepository;
+import org.example.backend.Repository.CashFlowRepository;
+import org.example.backend.Repository.PortfolioAssetRepository;
+import org.example.backend.service.BalanceService;
+import org.example.backend.service.CatalogueWriteBuffer;
+import org.example.backend.service.DomainError;
+import org.example.backend.service.DomainException;
+import org.example.backend.service.FxRateService;
+import org.example.backend.service.LotAccountingService;
+import org.example.backend.service.PortfolioService;
+import org.example.backend.service.RebalanceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ApiExceptionHandlerTest {
+
+    private PortfolioAssetRepository portfolioRepo;
+    private AssetCatalogueRepository catalogueRepo;
+    private SimpleMeterRegistry meterRegistry;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        portfolioRepo = mock(PortfolioAssetRepository.class);
+        catalogueRepo = mock(AssetCatalogueRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        PortfolioService portfolioService = new PortfolioService(portfolioRepo, catalogueRepo,
+                mock(BalanceService.class), mock(LotAccountingService.class), mock(FxRateService.class),
+                mock(CatalogueWriteBuffer.class), ObservationRegistry.NOOP, meterRegistry,
+                mock(PlatformTransactionManager.class));
+        mvc = MockMvcBuilders.standaloneSetup(new PortfolioController(portfolioService, mock(RebalanceService.class)))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+    }
+
+    private double rejected(String side, DomainError reason) {
+        return meterRegistry.get("portfolio.trades.rejected")
+                .tag("side", side).tag("reason", reason.name()).counter().count();
+    }
+
+    @Test
+    void unknownSymbolIsNotFoundAndCounted() throws Exception {
+        when(catalogueRepo.findBySymbol("XYZ")).thenReturn(Optional.empty());
+
+        mvc.perform(put("/portfolio/XYZ/buy/1"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("ASSET_NOT_FOUND"))
+                .andExpect(jsonPath("$.detail").value("Asset not found in catalogue: XYZ"));
+
+        assertThat(rejected("buy", DomainError.ASSET_NOT_FOUND)).isEqualTo(1);
+    }
+
+    @Test
+    void sellingMoreThanHeldIsUnprocessable() throws Exception {
+        PortfolioAssetEntity held = new PortfolioAssetEntity();
+        held.setSymbol("AAPL");
+        held.setQuantity(1);
+        when(portfolioRepo.findBySymbol("AAPL")).thenReturn(Optional.of(held));
+
+        mvc.perform(put("/portfolio/AAPL/sell/5"))
+                .andExpect(status().isUnprocessableContent())
+                .andExpect(jsonPath("$.error").value("INSUFFICIENT_QUANTITY"));
+
+        assertThat(rejected("sell", DomainError.INSUFFICIENT_QUANTITY)).isEqualTo(1);
+    }
+
+    @Test
+    void nonPositiveQuantityIsRejectedBeforeAnyQuery() throws Exception {
+        mvc.perform(put("/portfolio/AAPL/buy/0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+
+        verifyNoInteractions(catalogueRepo, portfolioRepo);
+    }
+
+    @Test
+    void nonPositiveDepositsAndWithdrawalsAreRejectedBeforeAnyQuery() throws Exception {
+        BalanceRepository balanceRepo = mock(BalanceRepository.class);
+        CashFlowRepository cashFlowRepo = mock(CashFlowRepository.class);
+        MockMvc balanceMvc = MockMvcBuilders.standaloneSetup(new BalanceController(
+                        new BalanceService(balanceRepo, cashFlowRepo, ObservationRegistry.NOOP)))
+                .setControllerAdvice(new ApiExceptionHandler())
+                .build();
+
+        for (String path : List.of("/balance/add/-100", "/balance/add/0", "/balance/subtract/-100",
+                "/balance/subtract/0")) {
+            balanceMvc.perform(post(path))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("INVALID_REQUEST"))
+                    .andExpect(jsonPath("$.detail").value("Amount must be positive"));
+        }
+        balanceMvc.perform(put("/balance/update/-1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+
+        verifyNoInteractions(balanceRepo, cashFlowRepo);
+    }
+
+    @Test
+    void domainExceptionsCarryNoStackTrace() {
+        assertThat(new DomainException(DomainError.INSUFFICIENT_BALANCE, "Insufficient balance").getStackTrace())
+                .isEmpty();
+    }
+}
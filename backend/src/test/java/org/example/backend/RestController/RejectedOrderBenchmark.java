@@ -0,0 +1,88 @@
+package org.example.backend.RestController;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.PortfolioAssetRepository;
+import org.example.backend.service.BalanceService;
+import org.example.backend.service.CatalogueWriteBuffer;
+import org.example.backend.service.FxRateService;
+import org.example.backend.service.LotAccountingService;
+import org.example.backend.service.PortfolioService;
+import org.example.backend.service.RebalanceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Buys of a symbol that is not in the catalogue, through the controller and service,
+ * rejected the old way against the new one:
+ *  - before: a RuntimeException with a stack trace escapes the controller as a 500 and
+ *    the container logs it, stack trace included (rendered to a buffer here)
+ *  - after: a stackless DomainException answered as a 404 problem detail by ApiExceptionHandler
+ *
+ * MockMvc has no network or servlet container, so the numbers isolate the cost of the
+ * rejection itself.
+ * Run with: mvn test -Pbenchmark -Dtest=RejectedOrderBenchmark
+ */
+class RejectedOrderBenchmark {
+
+    private static final int REQUESTS = 20_000;
+
+    @Test
+    void rejectedBuys() throws Exception {
+        MockMvc before = mvc(true);
+        MockMvc after = mvc(false);
+
+        for (int round = 0; round < 2; round++) {   // first round is warm-up
+            long stackful = run(before);
+            long stackless = run(after);
+            System.out.printf("before (500, stack trace logged): %,8d rejected orders/s%n",
+                    REQUESTS * 1_000_000_000L / stackful);
+            System.out.printf("after  (404, stackless):          %,8d rejected orders/s%n",
+                    REQUESTS * 1_000_000_000L / stackless);
+        }
+    }
+
+    private static long run(MockMvc mvc) throws Exception {
+        StringWriter log = new StringWriter();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            try {
+                mvc.perform(put("/portfolio/XYZ/buy/1"));
+            } catch (Exception e) {
+                e.printStackTrace(new PrintWriter(log));
+                log.getBuffer().setLength(0);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static MockMvc mvc(boolean stackful) {
+        AssetCatalogueRepository catalogueRepo = mock(AssetCatalogueRepository.class);
+        if (stackful) {
+            when(catalogueRepo.findBySymbol("XYZ")).thenAnswer(invocation -> {
+                throw new RuntimeException("Asset not found in catalogue: XYZ");
+            });
+        } else {
+            when(catalogueRepo.findBySymbol("XYZ")).thenReturn(Optional.empty());
+        }
+        PortfolioService portfolioService = new PortfolioService(mock(PortfolioAssetRepository.class), catalogueRepo,
+                mock(BalanceService.class), mock(LotAccountingService.class), mock(FxRateService.class),
+                mock(CatalogueWriteBuffer.class), ObservationRegistry.NOOP, new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class));
+        PortfolioController controller = new PortfolioController(portfolioService, mock(RebalanceService.class));
+        return stackful
+                ? MockMvcBuilders.standaloneSetup(controller).build()
+                : MockMvcBuilders.standaloneSetup(controller).setControllerAdvice(new ApiExceptionHandler()).build();
+    }
+}
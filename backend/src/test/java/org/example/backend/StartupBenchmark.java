@@ -0,0 +1,122 @@
+package org.example.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Time to first request of a freshly started backend, default profile against prod.
+ * Each run is a new JVM: the clock starts when the process is launched and stops when
+ * GET /balance (a controller, a service and a query) first answers 200.
+ *
+ * Runs offline on the local profile (in-memory h2, simulated market) by default:
+ * mvn test -Pbenchmark -Dtest=StartupBenchmark
+ * or against a MySQL database the migrations have already been applied to with
+ *     -Dbenchmark.jdbc.url=jdbc:mysql://localhost:3306/capstone -Dbenchmark.jdbc.user=root -Dbenchmark.jdbc.password=...
+ *
+ * The packaged application can be timed instead of the test classpath, e.g. the CDS
+ * build from mvn package -Pcds:
+ *     -Dbenchmark.startup.jar=target/cds/backend-0.0.1-SNAPSHOT.jar
+ *     -Dbenchmark.startup.jvm-args=-XX:SharedArchiveFile=target/cds/application.jsa
+ */
+class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        String url = System.getProperty("benchmark.jdbc.url");
+        int runs = Integer.getInteger("benchmark.startup.runs", 3);
+
+        for (String profile : new String[] {"default", "prod"}) {
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = startOnce(profile, url);
+            }
+            Arrays.sort(millis);
+            System.out.printf("%-8s time to first request: median %,6d ms  min %,6d ms  max %,6d ms%n",
+                    profile, millis[runs / 2], millis[0], millis[runs - 1]);
+        }
+    }
+
+    private long startOnce(String profile, String url) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        String jvmArgs = System.getProperty("benchmark.startup.jvm-args", "");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        String jar = System.getProperty("benchmark.startup.jar");
+        if (jar != null) {
+            command.add("-jar");
+            command.add(jar);
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(BackendApplication.class.getName());
+        }
+        command.add("--server.port=" + port);
+        if (url == null) {
+            command.add("--spring.profiles.active=local," + profile);
+            command.add("--market.simulator.load-history=false");
+            // the in-memory database starts empty, so even prod has to migrate it
+            command.add("--app.flyway.validate-only=false");
+        } else {
+            command.add("--spring.profiles.active=" + profile);
+            command.add("--spring.datasource.url=" + url);
+            command.add("--spring.datasource.username=" + System.getProperty("benchmark.jdbc.user", "root"));
+            command.add("--spring.datasource.password=" + System.getProperty("benchmark.jdbc.password", ""));
+        }
+        // keep background jobs from competing with startup
+        command.add("--ingestion.enabled=false");
+        command.add("--portfolio.snapshot.enabled=false");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/balance")).build();
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(profile + " backend exited with " + process.exitValue());
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException(profile + " backend did not answer within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package org.example.backend.loadtest;
+
+import org.example.backend.BackendApplication;
+import org.example.backend.loadtest.TradingMix.Operation;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * End-to-end load test of the REST API with a trading mix: dashboard reads
+ * (portfolio, P&L, balance, catalogue), market quotes, history queries and trades.
+ *
+ * By default the backend is started in this JVM on the local profile (in-memory h2,
+ * simulated market, seeded so every run sees the same prices), a large deposit is made
+ * and a fixed number of users send requests back to back for the measured duration.
+ * Each user has its own seeded random, so the request sequence is reproducible; sells
+ * only touch what that user bought, and a sell with nothing to sell is sent as a buy.
+ *
+ * Back to back is a closed loop: a slow response holds back the requests behind it,
+ * so the stall never shows up in the latencies (coordinated omission). With
+ * loadtest.rate set, the users instead share a fixed arrival schedule of that many
+ * requests per second, and each latency is measured from when its request was due,
+ * so time spent behind schedule is counted. A user still has one request in flight,
+ * so use enough users to cover rate times the expected latency.
+ *
+ * Prints requests, errors, throughput and p50/p99/p999 latency per endpoint and writes
+ * the same numbers to target/loadtest/. Passing an earlier report as the baseline adds
+ * the change in throughput and p99 to the output.
+ *
+ * Run with: mvn test -Pbenchmark -Dtest=LoadTestBenchmark
+ *     -Dloadtest.users=8 -Dloadtest.warmup-seconds=15 -Dloadtest.duration-seconds=60 -Dloadtest.seed=42
+ *     -Dloadtest.rate=400 for the open loop at 400 requests per second, 0 (default) for the closed loop
+ *     -Dloadtest.mix=portfolio:20,pnl:10,balance:10,catalogue:10,quote:10,history:15,buy:15,sell:10
+ *     -Dloadtest.baseline=target/loadtest/loadtest-20260301-120000.csv
+ *     -Dloadtest.base-url=http://localhost:8080 to drive a backend that is already running
+ *
+ * In-process, the server and the load generator share the CPUs; on a small machine point
+ * base-url at a separate process for numbers that only measure the backend.
+ */
+class LoadTestBenchmark {
+
+    private static final Pattern SYMBOL = Pattern.compile("\"symbol\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String HEADER = "endpoint,requests,errors,throughput,p50_ms,p99_ms,p999_ms,max_ms";
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void tradingMix() throws Exception {
+        int users = Integer.getInteger("loadtest.users", 8);
+        int warmup = Integer.getInteger("loadtest.warmup-seconds", 15);
+        int duration = Integer.getInteger("loadtest.duration-seconds", 60);
+        long seed = Long.getLong("loadtest.seed", 42);
+        TradingMix mix = TradingMix.parse(System.getProperty("loadtest.mix", TradingMix.DEFAULT));
+        String baseUrl = System.getProperty("loadtest.base-url");
+        int rate = Integer.getInteger("loadtest.rate", 0);
+
+        ConfigurableApplicationContext context = null;
+        if (baseUrl == null) {
+            context = new SpringApplicationBuilder(BackendApplication.class)
+                    .profiles("local")
+                    .run("--server.port=0");
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            List<String> symbols = symbols(baseUrl);
+            send(baseUrl, "POST", "/balance/add/1000000000");
+            System.out.printf("%d users, %d s warm-up, %d s measured, mix %s, %d symbols, %s%n",
+                    users, warmup, duration, mix, symbols.size(),
+                    rate > 0 ? "open loop at " + rate + " req/s" : "closed loop");
+
+            long start = System.nanoTime();
+            long measureFrom = start + Duration.ofSeconds(warmup).toNanos();
+            long end = measureFrom + Duration.ofSeconds(duration).toNanos();
+            // open loop: each user sends every users/rate seconds, the users staggered by 1/rate
+            long gap = rate > 0 ? Duration.ofSeconds(1).toNanos() / rate : 0;
+            List<User> running = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                User user = new User(baseUrl, mix, symbols, new Random(seed * 31 + i), measureFrom, end,
+                        start + i * gap, gap * users);
+                user.thread.start();
+                running.add(user);
+            }
+            Map<Operation, EndpointStats> total = new EnumMap<>(Operation.class);
+            for (User user : running) {
+                user.thread.join();
+                user.stats.forEach((operation, stats) ->
+                        total.computeIfAbsent(operation, o -> new EndpointStats()).merge(stats));
+            }
+            report(total, duration);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private final class User {
+
+        final String baseUrl;
+        final TradingMix mix;
+        final List<String> symbols;
+        final Random random;
+        final long measureFrom;
+        final long end;
+        // 0 for the closed loop
+        final long interval;
+        final long firstSend;
+        final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        final Map<String, Integer> holdings = new HashMap<>();
+        final Thread thread;
+
+        User(String baseUrl, TradingMix mix, List<String> symbols, Random random, long measureFrom, long end,
+             long firstSend, long interval) {
+            this.baseUrl = baseUrl;
+            this.mix = mix;
+            this.symbols = symbols;
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            this.firstSend = firstSend;
+            this.interval = interval;
+            this.thread = new Thread(this::run, "loadtest-user");
+        }
+
+        void run() {
+            long due = firstSend;
+            while (true) {
+                long start;
+                if (interval > 0) {
+                    if (due >= end) {
+                        return;
+                    }
+                    // a late request is sent at once and still timed from when it was due
+                    while (System.nanoTime() < due) {
+                        LockSupport.parkNanos(due - System.nanoTime());
+                    }
+                    start = due;
+                    due += interval;
+                } else {
+                    start = System.nanoTime();
+                    if (start >= end) {
+                        return;
+                    }
+                }
+
+                Operation operation = mix.next(random);
+                String symbol = symbols.get(random.nextInt(symbols.size()));
+                int quantity = 1 + random.nextInt(5);
+                if (operation == Operation.SELL) {
+                    if (holdings.isEmpty()) {
+                        operation = Operation.BUY;
+                    } else {
+                        List<String> held = new ArrayList<>(holdings.keySet());
+                        symbol = held.get(random.nextInt(held.size()));
+                        quantity = Math.min(quantity, holdings.get(symbol));
+                    }
+                }
+                String method = switch (operation) {
+                    case BUY, SELL -> "PUT";
+                    default -> "GET";
+                };
+                String path = switch (operation) {
+                    case PORTFOLIO -> "/portfolio/assets";
+                    case PNL -> "/portfolio/pnl";
+                    case BALANCE -> "/balance";
+                    case CATALOGUE -> "/api/catalogue";
+                    case QUOTE -> "/market/quote/" + symbol;
+                    case HISTORY -> "/asset_history/" + symbol;
+                    case BUY -> "/portfolio/" + symbol + "/buy/" + quantity;
+                    case SELL -> "/portfolio/" + symbol + "/sell/" + quantity;
+                };
+
+                boolean ok;
+                try {
+                    ok = send(baseUrl, method, path) < 400;
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long elapsed = System.nanoTime() - start;
+
+                if (ok && operation == Operation.BUY) {
+                    holdings.merge(symbol, quantity, Integer::sum);
+                } else if (ok && operation == Operation.SELL) {
+                    int left = holdings.get(symbol) - quantity;
+                    if (left == 0) {
+                        holdings.remove(symbol);
+                    } else {
+                        holdings.put(symbol, left);
+                    }
+                }
+                if (start >= measureFrom) {
+                    stats.computeIfAbsent(operation, o -> new EndpointStats()).record(elapsed, !ok);
+                }
+            }
+        }
+    }
+
+    private int send(String baseUrl, String method, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private List<String> symbols(String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/catalogue")).build();
+        String body = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Set<String> symbols = new LinkedHashSet<>();
+        Matcher matcher = SYMBOL.matcher(body);
+        while (matcher.find()) {
+            symbols.add(matcher.group(1));
+        }
+        if (symbols.isEmpty()) {
+            throw new IllegalStateException("The catalogue at " + baseUrl + " is empty, nothing to trade");
+        }
+        return new ArrayList<>(symbols);
+    }
+
+    private static void report(Map<Operation, EndpointStats> total, int duration) throws IOException {
+        Map<String, String[]> baseline = baseline();
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        EndpointStats all = new EndpointStats();
+
+        System.out.printf("%n%-40s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<Operation, EndpointStats> entry : total.entrySet()) {
+            all.merge(entry.getValue());
+            lines.add(print(entry.getKey().endpoint, entry.getValue().summarize(duration), baseline));
+        }
+        lines.add(print("all", all.summarize(duration), baseline));
+
+        Path dir = Path.of("target", "loadtest");
+        Files.createDirectories(dir);
+        Path file = dir.resolve("loadtest-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + ".csv");
+        Files.write(file, lines);
+        System.out.println("Report written to " + file.toAbsolutePath());
+    }
+
+    private static String print(String endpoint, EndpointStats.Summary s, Map<String, String[]> baseline) {
+        System.out.printf("%-40s %,9d %7d %,9.1f %9.2f %9.2f %9.2f %9.2f  %5.2f%% errors%n",
+                endpoint, s.requests(), s.errors(), s.throughput(), s.p50(), s.p99(), s.p999(), s.max(),
+                s.errorRate() * 100);
+        String[] before = baseline.get(endpoint);
+        if (before != null) {
+            System.out.printf("%-40s %+.1f%% req/s, %+.1f%% p99 against the baseline%n", "",
+                    change(Double.parseDouble(before[3]), s.throughput()),
+                    change(Double.parseDouble(before[5]), s.p99()));
+        }
+        return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f", endpoint, s.requests(), s.errors(),
+                s.throughput(), s.p50(), s.p99(), s.p999(), s.max());
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    // earlier report keyed by endpoint, empty when no baseline was given
+    private static Map<String, String[]> baseline() throws IOException {
+        String file = System.getProperty("loadtest.baseline");
+        Map<String, String[]> rows = new HashMap<>();
+        if (file == null) {
+            return rows;
+        }
+        for (String line : Files.readAllLines(Path.of(file))) {
+            if (!line.equals(HEADER) && !line.isBlank()) {
+                String[] columns = line.split(",");
+                rows.put(columns[0], columns);
+            }
+        }
+        return rows;
+    }
+}
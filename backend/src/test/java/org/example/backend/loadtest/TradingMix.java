@@ -0,0 +1,84 @@
+package org.example.backend.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of the requests a load-test user sends, parsed from
+ * name:weight pairs, e.g. "portfolio:30,buy:10,sell:5". Operations left out of
+ * the spec are not sent.
+ */
+class TradingMix {
+
+    // roughly a dashboard session: mostly reads, one trade in four requests
+    static final String DEFAULT = "portfolio:20,pnl:10,balance:10,catalogue:10,quote:10,history:15,buy:15,sell:10";
+
+    enum Operation {
+        PORTFOLIO("GET /portfolio/assets"),
+        PNL("GET /portfolio/pnl"),
+        BALANCE("GET /balance"),
+        CATALOGUE("GET /api/catalogue"),
+        QUOTE("GET /market/quote/{symbol}"),
+        HISTORY("GET /asset_history/{symbol}"),
+        BUY("PUT /portfolio/{symbol}/buy/{quantity}"),
+        SELL("PUT /portfolio/{symbol}/sell/{quantity}");
+
+        final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] table;
+
+    private TradingMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        List<Operation> slots = new ArrayList<>();
+        weights.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        this.table = slots.toArray(new Operation[0]);
+    }
+
+    static TradingMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected name:weight, got '" + part + "'");
+            }
+            Operation operation = Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + operation);
+            }
+            if (weight > 0) {
+                weights.merge(operation, weight, Integer::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix '" + spec + "' has no operations");
+        }
+        return new TradingMix(weights);
+    }
+
+    Operation next(Random random) {
+        return table[random.nextInt(table.length)];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        weights.forEach((operation, weight) -> sb.append(sb.isEmpty() ? "" : ",")
+                .append(operation.name().toLowerCase(Locale.ROOT)).append(':').append(weight));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.AlertType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Price update throughput against one million registered alerts spread over
+ * 2,000 symbols, prices moving in a random walk.
+ * Run with: mvn test -Pbenchmark -Dtest=AlertIndexBenchmark
+ */
+class AlertIndexBenchmark {
+
+    private static final int SYMBOLS = 2_000;
+    private static final int ALERTS = 1_000_000;
+    private static final int UPDATES = 2_000_000;
+
+    @Test
+    void priceUpdatesAgainstMillionAlerts() {
+        run();   // warm-up
+        run();
+    }
+
+    private void run() {
+        Random random = new Random(11);
+        String[] symbols = new String[SYMBOLS];
+        double[] prices = new double[SYMBOLS];
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols[i] = "S" + i;
+            prices[i] = 100;
+        }
+
+        List<AlertIndex.Alert> alerts = new ArrayList<>(ALERTS);
+        AlertType[] types = AlertType.values();
+        for (int i = 0; i < ALERTS; i++) {
+            AlertType type = types[random.nextInt(types.length)];
+            double threshold = switch (type) {
+                case PRICE_ABOVE -> 100 + random.nextDouble() * 100;
+                case PRICE_BELOW -> 100 - random.nextDouble() * 50;
+                case DAILY_MOVE -> 1 + random.nextDouble() * 30;
+                case PNL_BELOW -> -random.nextDouble() * 10_000;
+            };
+            alerts.add(new AlertIndex.Alert(i, symbols[random.nextInt(SYMBOLS)], type, threshold));
+        }
+        AlertIndex index = new AlertIndex();
+        long loadStart = System.nanoTime();
+        index.load(alerts);
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+
+        long[] fired = new long[1];
+        AlertIndex.AlertListener listener = (id, type, threshold, value) -> fired[0]++;
+        long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            int s = random.nextInt(SYMBOLS);
+            prices[s] = Math.max(1, prices[s] * (1 + random.nextGaussian() * 0.002));
+            double price = prices[s];
+            index.evaluate(symbols[s], price, 100, () -> (price - 100) * 50, listener);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("load %,d alerts %d ms | %,d updates in %d ms, %.0f ns/update, %,.0f updates/s, fired %,d, left %,d%n",
+                ALERTS, loadMs, UPDATES, elapsed / 1_000_000, (double) elapsed / UPDATES,
+                UPDATES / (elapsed / 1e9), fired[0], index.size());
+    }
+}
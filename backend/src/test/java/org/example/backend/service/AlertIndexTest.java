@@ -0,0 +1,90 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.AlertType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertIndexTest {
+
+    private final AlertIndex index = new AlertIndex();
+    private final List<Long> fired = new ArrayList<>();
+    private final AlertIndex.AlertListener listener = (id, type, threshold, value) -> fired.add(id);
+
+    private int update(String symbol, double price, double open) {
+        return index.evaluate(symbol, price, open, () -> Double.NaN, listener);
+    }
+
+    @Test
+    void priceAlertsFireOnceWhenTheirThresholdIsReached() {
+        index.add(new AlertIndex.Alert(1, "AAPL", AlertType.PRICE_ABOVE, 110));
+        index.add(new AlertIndex.Alert(2, "AAPL", AlertType.PRICE_ABOVE, 120));
+        index.add(new AlertIndex.Alert(3, "AAPL", AlertType.PRICE_BELOW, 90));
+        index.add(new AlertIndex.Alert(4, "MSFT", AlertType.PRICE_ABOVE, 100));
+
+        assertThat(update("AAPL", 105, 100)).isZero();
+        assertThat(update("AAPL", 115, 100)).isEqualTo(1);
+        assertThat(update("AAPL", 130, 100)).isEqualTo(1);
+        assertThat(update("AAPL", 130, 100)).isZero();
+        assertThat(update("AAPL", 85, 100)).isEqualTo(1);
+
+        assertThat(fired).containsExactly(1L, 2L, 3L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void dailyMoveFiresOnEitherDirection() {
+        index.add(new AlertIndex.Alert(1, "AAPL", AlertType.DAILY_MOVE, 5));
+        index.add(new AlertIndex.Alert(2, "AAPL", AlertType.DAILY_MOVE, 10));
+
+        update("AAPL", 104, 100);
+        update("AAPL", 94, 100);
+
+        assertThat(fired).containsExactly(1L);
+    }
+
+    @Test
+    void pnlAlertsOnlyComputeThePnlWhenTheSymbolHasSome() {
+        index.add(new AlertIndex.Alert(1, "AAPL", AlertType.PNL_BELOW, -500));
+        index.add(new AlertIndex.Alert(2, "MSFT", AlertType.PRICE_ABOVE, 1000));
+        int[] pnlCalls = new int[1];
+
+        index.evaluate("MSFT", 10, 10, () -> { pnlCalls[0]++; return -1000; }, listener);
+        index.evaluate("AAPL", 10, 10, () -> { pnlCalls[0]++; return -400; }, listener);
+        index.evaluate("AAPL", 10, 10, () -> { pnlCalls[0]++; return -600; }, listener);
+
+        assertThat(pnlCalls[0]).isEqualTo(2);
+        assertThat(fired).containsExactly(1L);
+    }
+
+    @Test
+    void removedAlertsNeverFire() {
+        AlertIndex.Alert alert = new AlertIndex.Alert(1, "AAPL", AlertType.PRICE_BELOW, 90);
+        index.add(alert);
+        index.add(new AlertIndex.Alert(2, "AAPL", AlertType.PRICE_BELOW, 90));
+
+        assertThat(index.remove(alert)).isTrue();
+        update("AAPL", 80, 100);
+
+        assertThat(fired).containsExactly(2L);
+    }
+
+    @Test
+    void bulkLoadMatchesIncrementalAdds() {
+        index.load(List.of(
+                new AlertIndex.Alert(1, "AAPL", AlertType.PRICE_ABOVE, 130),
+                new AlertIndex.Alert(2, "AAPL", AlertType.PRICE_ABOVE, 110),
+                new AlertIndex.Alert(3, "AAPL", AlertType.PRICE_BELOW, 80),
+                new AlertIndex.Alert(4, "AAPL", AlertType.PRICE_BELOW, 90)));
+        index.add(new AlertIndex.Alert(5, "AAPL", AlertType.PRICE_ABOVE, 120));
+
+        update("AAPL", 125, 100);
+        update("AAPL", 85, 100);
+
+        assertThat(fired).containsExactly(2L, 5L, 4L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
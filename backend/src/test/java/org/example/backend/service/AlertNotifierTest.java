@@ -0,0 +1,102 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.DTO.AlertTriggerDTO;
+import org.example.backend.Model.AlertType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertNotifierTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AlertNotifier notifier = new AlertNotifier(meterRegistry, 2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        notifier.shutdown();
+    }
+
+    // records what it is sent; a blocked one waits for release before every send
+    private final class RecordingEmitter extends SseEmitter {
+        private final List<Object> sent = new CopyOnWriteArrayList<>();
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final boolean blocked;
+
+        RecordingEmitter(boolean blocked) {
+            super(0L);
+            this.blocked = blocked;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            attempts.incrementAndGet();
+            if (blocked) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(builder);
+        }
+    }
+
+    private static List<AlertTriggerDTO> trigger(long alertId) {
+        return List.of(new AlertTriggerDTO(alertId, "AAPL", AlertType.PRICE_ABOVE, 100, 101, 101, LocalDateTime.now()));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    void aStuckClientDoesNotHoldUpTheOthers() throws Exception {
+        RecordingEmitter stuck = new RecordingEmitter(true);
+        RecordingEmitter healthy = new RecordingEmitter(false);
+        notifier.subscribe(stuck);
+        notifier.subscribe(healthy);
+
+        for (long id = 1; id <= 5; id++) {
+            notifier.publish(trigger(id));
+            int expected = (int) id;
+            await(() -> healthy.sent.size() == expected);
+        }
+        assertThat(stuck.sent).isEmpty();
+    }
+
+    @Test
+    void aClientThatFallsBehindLosesItsOldestTriggers() throws Exception {
+        RecordingEmitter stuck = new RecordingEmitter(true);
+        notifier.subscribe(stuck);
+
+        notifier.publish(trigger(1));
+        await(() -> stuck.attempts.get() == 1);
+        // the first is stuck in send, two fit the queue, the rest push the oldest out
+        for (long id = 2; id <= 6; id++) {
+            notifier.publish(trigger(id));
+        }
+        release.countDown();
+
+        await(() -> stuck.sent.size() == 3);
+        Thread.sleep(50);
+        assertThat(stuck.sent).hasSize(3);
+        assertThat(meterRegistry.get("alerts.notifications.dropped").counter().count()).isEqualTo(3);
+    }
+}
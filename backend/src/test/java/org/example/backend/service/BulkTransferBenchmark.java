@@ -0,0 +1,129 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.DTO.BulkImportResultDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * asset_history import and export through BulkTransferService. The file is generated
+ * while it is read and the export goes to a null stream, so neither side ever exists
+ * in memory; a sampler records the peak heap in use, which should not grow with rows.
+ *
+ * Runs on a file-backed h2 database under target/, so the table lives on disk rather
+ * than on the heap being measured.
+ * Run with: mvn test -Pbenchmark -Dtest=BulkTransferBenchmark -Dbenchmark.bulk.rows=2000000
+ */
+class BulkTransferBenchmark {
+
+    private static final String[] SYMBOLS = {"AAPL", "MSFT", "GOOGL", "AMZN", "NVDA", "META", "TSLA", "JPM"};
+
+    @Test
+    void streamHistory() throws Exception {
+        long rows = Long.getLong("benchmark.bulk.rows", 2_000_000);
+        Path dir = Path.of("target", "bulk-benchmark");
+        if (Files.exists(dir)) {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:file:./" + dir.resolve("db") + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE asset_history (symbol VARCHAR(16) NOT NULL, date DATE NOT NULL, type VARCHAR(255), "
+                + "open DOUBLE NOT NULL, high DOUBLE NOT NULL, low DOUBLE NOT NULL, close DOUBLE NOT NULL, "
+                + "volume BIGINT NOT NULL, PRIMARY KEY (symbol, date))");
+        BulkTransferService service = new BulkTransferService(jdbc, new DataSourceTransactionManager(dataSource),
+                mock(LotAccountingService.class), mock(CatalogueWriteBuffer.class), event -> { },
+                new SimpleMeterRegistry(), 5000, 1000);
+
+        HeapSampler heap = new HeapSampler();
+        heap.start();
+
+        PipedInputStream in = new PipedInputStream(1 << 16);
+        PipedOutputStream pipe = new PipedOutputStream(in);
+        Thread generator = new Thread(() -> generate(pipe, rows), "csv-generator");
+        generator.start();
+        BulkImportResultDTO imported = service.importCsv(BulkTable.ASSET_HISTORY, in);
+        generator.join();
+        System.out.printf("import: %,d rows in %.1f s, %,.0f rows/s, peak heap %,d MB%n",
+                imported.getRowsWritten(), imported.getSeconds(), imported.getRowsPerSecond(), heap.peakMb());
+
+        heap.reset();
+        long start = System.nanoTime();
+        long exported = service.export(BulkTable.ASSET_HISTORY, OutputStream.nullOutputStream());
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("export: %,d rows in %.1f s, %,.0f rows/s, peak heap %,d MB%n",
+                exported, seconds, exported / seconds, heap.peakMb());
+        heap.interrupt();
+    }
+
+    // rows bars spread over SYMBOLS, one weekday after another per symbol
+    private static void generate(OutputStream out, long rows) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16)) {
+            writer.write("symbol,date,type,open,high,low,close,volume\n");
+            LocalDate first = LocalDate.of(1900, 1, 1);
+            for (long i = 0; i < rows; i++) {
+                String symbol = SYMBOLS[(int) (i % SYMBOLS.length)];
+                LocalDate date = first.plusDays(i / SYMBOLS.length);
+                double close = 100 + (i % 997) / 10.0;
+                writer.write(symbol + "," + date + ",STOCK," + (close - 0.5) + "," + (close + 1) + ","
+                        + (close - 1) + "," + close + "," + (1000 + i % 5000) + "\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class HeapSampler extends Thread {
+
+        private final AtomicLong peak = new AtomicLong();
+
+        HeapSampler() {
+            super("heap-sampler");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            Runtime runtime = Runtime.getRuntime();
+            while (!isInterrupted()) {
+                peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        void reset() {
+            System.gc();
+            peak.set(0);
+        }
+
+        long peakMb() {
+            return peak.get() >> 20;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.DTO.BulkImportResultDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.BalanceEntity;
+import org.example.backend.Entity.PortfolioLotEntity;
+import org.example.backend.Entity.PortfolioSnapshotEntity;
+import org.example.backend.Model.Asset;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.AssetHistoryRepository;
+import org.example.backend.Repository.CashFlowRepository;
+import org.example.backend.Repository.PortfolioLotRepository;
+import org.example.backend.Repository.PortfolioSnapshotRepository;
+import org.example.backend.Repository.RealizedTradeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkTransferServiceTest {
+
+    private JdbcTemplate jdbc;
+    private LotAccountingService lotAccounting;
+    private CatalogueWriteBuffer buffer;
+    private final List<Object> events = new ArrayList<>();
+    private BulkTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE asset_catalogue (symbol VARCHAR(255) PRIMARY KEY, name VARCHAR(255), "
+                + "type VARCHAR(255), open DOUBLE NOT NULL, high DOUBLE NOT NULL, low DOUBLE NOT NULL, "
+                + "close DOUBLE NOT NULL, price DOUBLE NOT NULL, volume BIGINT NOT NULL, currency VARCHAR(255), "
+                + "exchange VARCHAR(255), last_updated TIMESTAMP(6))");
+        jdbc.execute("CREATE TABLE asset_history (symbol VARCHAR(16) NOT NULL, date DATE NOT NULL, type VARCHAR(255), "
+                + "open DOUBLE NOT NULL, high DOUBLE NOT NULL, low DOUBLE NOT NULL, close DOUBLE NOT NULL, "
+                + "volume BIGINT NOT NULL, PRIMARY KEY (symbol, date))");
+        jdbc.execute("CREATE TABLE portfolio_asset (id BIGINT AUTO_INCREMENT PRIMARY KEY, symbol VARCHAR(255), "
+                + "name VARCHAR(255), type VARCHAR(255), buy_price DOUBLE NOT NULL, quantity INT NOT NULL, "
+                + "buy_timestamp TIMESTAMP(6))");
+        jdbc.execute("CREATE TABLE portfolio_lot (id BIGINT AUTO_INCREMENT PRIMARY KEY, symbol VARCHAR(255), "
+                + "quantity INT NOT NULL, remaining INT NOT NULL, price DOUBLE NOT NULL, acquired_at TIMESTAMP(6), "
+                + "settled_amount DECIMAL(19, 4))");
+        lotAccounting = mock(LotAccountingService.class);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        buffer = new CatalogueWriteBuffer(jdbc, transactionManager, new SimpleMeterRegistry(), true);
+        service = new BulkTransferService(jdbc, transactionManager, lotAccounting, buffer, events::add,
+                new SimpleMeterRegistry(), 2, 100);
+    }
+
+    private BulkImportResultDTO load(BulkTable table, String csv) throws IOException {
+        return service.importCsv(table, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void importsValidHistoryRowsInBatchesAndReportsTheRest() throws IOException {
+        jdbc.update("INSERT INTO asset_history VALUES ('AAPL', '2026-01-02', 'STOCK', 1, 1, 1, 1, 1)");
+
+        BulkImportResultDTO result = load(BulkTable.ASSET_HISTORY, """
+                symbol,date,type,open,high,low,close,volume
+                AAPL,2026-01-02,STOCK,100,101,99,100.5,1000
+                AAPL,2026-01-05,STOCK,100,101,99,100.5,1000
+                AAPL,2026-01-06,STOCK,100,101,99,100.5,1000
+
+                MSFT,2026-13-01,STOCK,100,101,99,100.5,1000
+                MSFT,2026-01-02,STOCK,100,98,99,100.5,1000
+                MSFT,2026-01-05,STOCK,100,101,99
+                MSFT,2026-01-06,STOCK,100,101,99,100.5,1000
+                """);
+
+        assertThat(result.getRowsRead()).isEqualTo(7);
+        // the bar already stored for AAPL on 2026-01-02 is kept
+        assertThat(result.getRowsWritten()).isEqualTo(3);
+        assertThat(result.getRowsRejected()).isEqualTo(3);
+        assertThat(result.getErrors()).containsExactly(
+                "line 6: date: Text '2026-13-01' could not be parsed: Invalid value for MonthOfYear "
+                        + "(valid values 1 - 12): 13",
+                "line 7: high is below low",
+                "line 8: expected 8 fields, got 6");
+        assertThat(jdbc.queryForObject("SELECT close FROM asset_history WHERE symbol = 'AAPL' AND date = '2026-01-02'",
+                Double.class)).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM asset_history", Integer.class)).isEqualTo(4);
+    }
+
+    @Test
+    void anUnterminatedQuoteOrAnOverlongLineCostsOnlyItsOwnLine() throws IOException {
+        BulkImportResultDTO result = load(BulkTable.ASSET_HISTORY, "symbol,date,type,open,high,low,close,volume\n"
+                + "AAPL,2026-01-02,STOCK,100,101,99,100.5,1000\n"
+                + "AAPL,2026-01-05,STOCK,100,101,99,100.5,1000\n"
+                + "MSFT,2026-01-02,STOCK," + "1".repeat(70_000) + ",101,99,100.5,1000\n"
+                + "AAPL,\"2026-01-06,STOCK,100,101,99,100.5,1000\n"
+                + "AAPL,2026-01-07,STOCK,100,101,99,100.5,1000\n"
+                + "MSFT,2026-01-05,STOCK,100,101,99,100.5,1000\n");
+
+        assertThat(result.getRowsRead()).isEqualTo(6);
+        // the batch committed before the bad line stays, the lines after it are imported
+        assertThat(result.getRowsWritten()).isEqualTo(4);
+        assertThat(result.getErrors()).containsExactly(
+                "line 4: record longer than 65536 characters",
+                "line 5: unterminated quoted field");
+        assertThat(jdbc.queryForList("SELECT date FROM asset_history ORDER BY symbol, date", String.class))
+                .containsExactly("2026-01-02", "2026-01-05", "2026-01-07", "2026-01-05");
+    }
+
+    @Test
+    void aStrayQuoteDoesNotReadTheRestOfTheFileIntoOneField() throws IOException {
+        StringBuilder csv = new StringBuilder("symbol,date,type,open,high,low,close,volume\n");
+        csv.append("\"AAPL,2026-01-02,STOCK,100,101,99,100.5,1000\n");
+        for (int i = 0; i < 2000; i++) {
+            csv.append("S").append(i).append(",2026-01-02,STOCK,100,101,99,100.5,1000\n");
+        }
+
+        BulkImportResultDTO result = load(BulkTable.ASSET_HISTORY, csv.toString());
+
+        assertThat(result.getErrors()).containsExactly("line 2: quoted field runs past 65536 characters");
+        assertThat(result.getRowsWritten()).isEqualTo(2000);
+        assertThat(result.getRowsRead()).isEqualTo(2001);
+    }
+
+    @Test
+    void exportedCatalogueImportsBackUnchanged() throws IOException {
+        jdbc.update("INSERT INTO asset_catalogue VALUES ('BRK-B', 'Berkshire Hathaway, \"B\"', 'STOCK', "
+                + "1, 2, 0.5, 1.5, 1.5, 10, 'USD', 'NYSE', '2026-01-02 10:00:00.123456')");
+        jdbc.update("INSERT INTO asset_catalogue VALUES ('X', null, null, 1, 1, 1, 1, 1, 0, null, null, null)");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(service.export(BulkTable.ASSET_CATALOGUE, out)).isEqualTo(2);
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).contains("BRK-B,\"Berkshire Hathaway, \"\"B\"\"\",STOCK,1.0,2.0,0.5,1.5,1.5,10,USD,NYSE,"
+                + "2026-01-02T10:00:00.123456\n");
+
+        jdbc.update("UPDATE asset_catalogue SET name = 'changed', price = 9");
+        BulkImportResultDTO result = load(BulkTable.ASSET_CATALOGUE, csv);
+
+        assertThat(result.getRowsWritten()).isEqualTo(2);
+        assertThat(jdbc.queryForObject("SELECT name FROM asset_catalogue WHERE symbol = 'BRK-B'", String.class))
+                .isEqualTo("Berkshire Hathaway, \"B\"");
+        assertThat(jdbc.queryForObject("SELECT name FROM asset_catalogue WHERE symbol = 'X'", String.class)).isNull();
+        assertThat(jdbc.queryForObject("SELECT SUM(price) FROM asset_catalogue", Double.class)).isEqualTo(2.5);
+    }
+
+    @Test
+    void importedCatalogueRowsReplaceBufferedQuotesAndPublishChangedPrices() throws IOException {
+        jdbc.update("INSERT INTO asset_catalogue (symbol, open, high, low, close, price, volume) "
+                + "VALUES ('AAPL', 100, 100, 100, 100, 100, 0), ('MSFT', 400, 400, 400, 400, 400, 0)");
+        // a quote not flushed yet, which the next flush would write over the imported row
+        buffer.put(new Asset("AAPL", "Apple", "STOCK", 100, 106, 99, 105, 105, 0, "USD", "NASDAQ",
+                LocalDateTime.now()));
+
+        load(BulkTable.ASSET_CATALOGUE, """
+                symbol,name,type,open,high,low,close,price,volume,currency,exchange,last_updated
+                AAPL,Apple,STOCK,110,121,109,120,120,5,USD,NASDAQ,
+                MSFT,Microsoft,STOCK,400,400,400,400,400,0,USD,NASDAQ,
+                """);
+
+        assertThat(buffer.getPending()).isZero();
+        assertThat(buffer.flush()).isZero();
+        AssetCatalogueEntity aapl = new AssetCatalogueEntity();
+        aapl.setSymbol("AAPL");
+        aapl.setPrice(120);
+        assertThat(buffer.live(aapl)).isSameAs(aapl);
+        assertThat(jdbc.queryForObject("SELECT price FROM asset_catalogue WHERE symbol = 'AAPL'", Double.class))
+                .isEqualTo(120);
+        // MSFT was imported at the price it already had
+        assertThat(events).containsExactly(new PriceUpdatedEvent("AAPL", 120, 110));
+    }
+
+    @Test
+    void portfolioRowsOpenAPositionAndALotForCatalogueSymbolsNotYetHeld() throws IOException {
+        jdbc.update("INSERT INTO asset_catalogue (symbol, open, high, low, close, price, volume) "
+                + "VALUES ('AAPL', 1, 1, 1, 1, 1, 0), ('MSFT', 1, 1, 1, 1, 1, 0)");
+
+        BulkImportResultDTO result = load(BulkTable.PORTFOLIO_ASSET, """
+                symbol,name,type,buy_price,quantity,buy_timestamp
+                AAPL,Apple,STOCK,150.25,10,2025-06-01T09:30:00
+                MSFT,Microsoft,STOCK,400,0,
+                MSFT,Microsoft,STOCK,400,5,
+                AAPL,Apple,STOCK,150.25,10,
+                NOPE,,STOCK,1,1,
+                """);
+
+        assertThat(result.getRowsWritten()).isEqualTo(2);
+        assertThat(result.getErrors()).containsExactly(
+                "line 3: quantity: must be positive: 0",
+                "line 5: symbol: AAPL is already held",
+                "line 6: symbol: NOPE is not in the catalogue");
+        assertThat(jdbc.queryForList("SELECT symbol, quantity, remaining, price FROM portfolio_lot ORDER BY id"))
+                .extracting(row -> row.get("symbol") + " " + row.get("quantity") + " " + row.get("remaining")
+                        + " " + row.get("price"))
+                .containsExactly("AAPL 10 10 150.25", "MSFT 5 5 400.0");
+        verify(lotAccounting).evict("AAPL");
+        verify(lotAccounting).evict("MSFT");
+    }
+
+    @Test
+    void anImportedPositionIsNotReplayedAsACashOutflow() throws IOException {
+        jdbc.update("INSERT INTO asset_catalogue (symbol, open, high, low, close, price, volume) "
+                + "VALUES ('AAPL', 150, 150, 150, 150, 150, 0)");
+        load(BulkTable.PORTFOLIO_ASSET, """
+                symbol,name,type,buy_price,quantity,buy_timestamp
+                AAPL,Apple,STOCK,150,10,2026-03-04T09:30:00
+                """);
+        List<PortfolioLotEntity> lots = jdbc.query(
+                "SELECT symbol, quantity, price, acquired_at, settled_amount FROM portfolio_lot", (rs, i) -> {
+                    PortfolioLotEntity lot = new PortfolioLotEntity(rs.getString(1), rs.getInt(2), rs.getDouble(3),
+                            rs.getTimestamp(4).toLocalDateTime());
+                    lot.setSettledAmount(rs.getBigDecimal(5));
+                    return lot;
+                });
+        assertThat(lots).extracting(PortfolioLotEntity::getSettledAmount).containsExactly(new BigDecimal("0.0000"));
+
+        // a rebuild from the day before the import, with the balance the import left alone
+        PortfolioSnapshotRepository snapshotRepo = mock(PortfolioSnapshotRepository.class);
+        PortfolioSnapshotEntity previous = new PortfolioSnapshotEntity();
+        previous.setSnapshotDate(LocalDate.of(2026, 3, 2));
+        previous.setTotalValue(1000);
+        previous.setTwrIndex(1.0);
+        when(snapshotRepo.findTopBySnapshotDateLessThanOrderBySnapshotDateDesc(any())).thenReturn(Optional.of(previous));
+        PortfolioLotRepository lotRepo = mock(PortfolioLotRepository.class);
+        when(lotRepo.findByAcquiredAtGreaterThanEqualOrderByAcquiredAtAsc(any())).thenReturn(lots);
+        AssetCatalogueRepository catalogueRepo = mock(AssetCatalogueRepository.class);
+        AssetCatalogueEntity aapl = new AssetCatalogueEntity();
+        aapl.setSymbol("AAPL");
+        aapl.setPrice(150);
+        when(catalogueRepo.findBySymbol("AAPL")).thenReturn(Optional.of(aapl));
+        BalanceEntity balance = new BalanceEntity();
+        balance.setAmount(BigDecimal.valueOf(1000));
+        BalanceService balanceService = mock(BalanceService.class);
+        when(balanceService.getBalance()).thenReturn(balance);
+        FxRateService fxRateService = mock(FxRateService.class);
+        when(fxRateService.getRate(any())).thenReturn(BigDecimal.ONE);
+        PortfolioSnapshotService snapshots = new PortfolioSnapshotService(snapshotRepo, lotRepo,
+                mock(RealizedTradeRepository.class), mock(CashFlowRepository.class), mock(AssetHistoryRepository.class),
+                catalogueRepo, buffer, balanceService, fxRateService, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(snapshots, "priceLookbackDays", 14);
+
+        snapshots.rebuild(LocalDate.of(2026, 3, 3), LocalDate.of(2026, 3, 4));
+
+        ArgumentCaptor<List<PortfolioSnapshotEntity>> written = ArgumentCaptor.captor();
+        verify(snapshotRepo).saveAll(written.capture());
+        assertThat(written.getValue())
+                .extracting(PortfolioSnapshotEntity::getCashBalance, PortfolioSnapshotEntity::getHoldingsValue)
+                .containsExactly(tuple(1000.0, 0.0), tuple(1000.0, 1500.0));
+    }
+
+    @Test
+    void rejectsAFileWithTheWrongHeader() {
+        assertThatThrownBy(() -> load(BulkTable.ASSET_HISTORY, "symbol,close\nAAPL,1\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("symbol,date,type,open,high,low,close,volume");
+    }
+}
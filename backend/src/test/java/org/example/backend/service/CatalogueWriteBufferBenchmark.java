@@ -0,0 +1,91 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.Model.Asset;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Catalogue price ticks written the old way (read the row, rewrite all eleven columns,
+ * one commit per tick, as updateAsset's findBySymbol + save did) against the write
+ * buffer (coalesced per symbol, one partial-column batch per flush interval).
+ *
+ * Runs on in-memory h2, where a statement costs no network round trip and no fsync,
+ * so the gap is a lower bound of what MySQL sees.
+ * Run with: mvn test -Pbenchmark -Dtest=CatalogueWriteBufferBenchmark
+ */
+class CatalogueWriteBufferBenchmark {
+
+    private static final int SYMBOLS = 500;
+    private static final int TICKS = 100_000;
+    // ticks between two flushes, about one flush interval at 10k ticks/s
+    private static final int TICKS_PER_FLUSH = 10_000;
+
+    private static final String FULL_UPDATE =
+            "UPDATE asset_catalogue SET name = ?, type = ?, open = ?, high = ?, low = ?, close = ?, price = ?, "
+                    + "volume = ?, currency = ?, exchange = ?, last_updated = ? WHERE symbol = ?";
+
+    @Test
+    void perTickSaveAgainstWriteBehind() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:catalogue-bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        setUp(jdbc);
+
+        for (int round = 0; round < 2; round++) {   // first round is warm-up
+            long perTick = perTick(jdbc);
+            long[] buffered = buffered(jdbc, new DataSourceTransactionManager(dataSource));
+            System.out.printf("per-tick save:   %,9d ticks/s  (%,d rows written)%n", TICKS * 1_000_000_000L / perTick, TICKS);
+            System.out.printf("write-behind:    %,9d ticks/s  (%,d rows written)%n", TICKS * 1_000_000_000L / buffered[0],
+                    buffered[1]);
+        }
+    }
+
+    private long perTick(JdbcTemplate jdbc) {
+        Random random = new Random(11);
+        long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++) {
+            String symbol = "SYM" + random.nextInt(SYMBOLS);
+            double price = 100 + random.nextDouble();
+            jdbc.queryForMap("SELECT * FROM asset_catalogue WHERE symbol = ?", symbol);
+            jdbc.update(FULL_UPDATE, symbol, "STOCK",
+                    100, price, price, price, price, i, "USD", "SIM", Timestamp.valueOf(LocalDateTime.now()), symbol);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // elapsed nanos and rows written
+    private long[] buffered(JdbcTemplate jdbc, DataSourceTransactionManager transactionManager) {
+        CatalogueWriteBuffer buffer = new CatalogueWriteBuffer(jdbc, transactionManager, new SimpleMeterRegistry(), true);
+        Random random = new Random(11);
+        long rows = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++) {
+            String symbol = "SYM" + random.nextInt(SYMBOLS);
+            double price = 100 + random.nextDouble();
+            buffer.put(new Asset(symbol, symbol, "STOCK", 100, price, price, price, price, i, "USD", "SIM", null));
+            if ((i + 1) % TICKS_PER_FLUSH == 0) {
+                rows += buffer.flush();
+            }
+        }
+        rows += buffer.flush();
+        return new long[]{System.nanoTime() - start, rows};
+    }
+
+    private static void setUp(JdbcTemplate jdbc) {
+        jdbc.execute("CREATE TABLE asset_catalogue (symbol VARCHAR(255) NOT NULL, name VARCHAR(255), "
+                + "type VARCHAR(255), open DOUBLE NOT NULL, high DOUBLE NOT NULL, low DOUBLE NOT NULL, "
+                + "close DOUBLE NOT NULL, price DOUBLE NOT NULL, volume BIGINT NOT NULL, currency VARCHAR(255), "
+                + "exchange VARCHAR(255), last_updated TIMESTAMP(6), PRIMARY KEY (symbol))");
+        for (int s = 0; s < SYMBOLS; s++) {
+            jdbc.update("INSERT INTO asset_catalogue VALUES (?, ?, 'STOCK', 100, 100, 100, 100, 100, 0, 'USD', 'SIM', ?)",
+                    "SYM" + s, "SYM" + s, Timestamp.valueOf(LocalDateTime.now()));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Model.Asset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogueWriteBufferTest {
+
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:catalogue-" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        jdbc.execute("CREATE TABLE asset_catalogue (symbol VARCHAR(255) PRIMARY KEY, name VARCHAR(255), "
+                + "type VARCHAR(255), open DOUBLE NOT NULL, high DOUBLE NOT NULL, low DOUBLE NOT NULL, "
+                + "close DOUBLE NOT NULL, price DOUBLE NOT NULL, volume BIGINT NOT NULL, currency VARCHAR(255), "
+                + "exchange VARCHAR(255), last_updated TIMESTAMP(6))");
+        jdbc.update("INSERT INTO asset_catalogue VALUES ('AAPL', 'Apple', 'STOCK', 1, 1, 1, 1, 1, 0, 'USD', 'NASDAQ', ?)",
+                LocalDateTime.of(2026, 1, 2, 10, 0));
+    }
+
+    private CatalogueWriteBuffer buffer(boolean enabled) {
+        return new CatalogueWriteBuffer(jdbc, transactionManager, meterRegistry, enabled);
+    }
+
+    private static Asset quote(double price) {
+        return new Asset("AAPL", "Apple Inc.", "STOCK", 100, price + 1, 99, price, price, 5000,
+                "USD", "NASDAQ", LocalDateTime.now());
+    }
+
+    private AssetCatalogueEntity row() {
+        return jdbc.queryForObject("SELECT * FROM asset_catalogue WHERE symbol = 'AAPL'", (rs, n) -> {
+            AssetCatalogueEntity e = new AssetCatalogueEntity();
+            e.setSymbol(rs.getString("symbol"));
+            e.setName(rs.getString("name"));
+            e.setPrice(rs.getDouble("price"));
+            e.setHigh(rs.getDouble("high"));
+            e.setLastUpdated(rs.getTimestamp("last_updated").toLocalDateTime());
+            return e;
+        });
+    }
+
+    @Test
+    void coalescesQuotesAndShowsTheNewestBeforeTheFlush() {
+        CatalogueWriteBuffer buffer = buffer(true);
+
+        buffer.put(quote(101));
+        buffer.put(quote(102));
+        buffer.put(quote(103));
+
+        assertThat(buffer.getPending()).isEqualTo(1);
+        assertThat(meterRegistry.get("catalogue.buffer.coalesced").counter().count()).isEqualTo(2);
+        assertThat(row().getPrice()).isEqualTo(1);
+        AssetCatalogueEntity live = buffer.live(row());
+        assertThat(live.getPrice()).isEqualTo(103);
+        assertThat(live.getName()).isEqualTo("Apple");
+
+        assertThat(buffer.flush()).isEqualTo(1);
+
+        AssetCatalogueEntity flushed = row();
+        assertThat(flushed.getPrice()).isEqualTo(103);
+        assertThat(flushed.getHigh()).isEqualTo(104);
+        // only the quote columns are written
+        assertThat(flushed.getName()).isEqualTo("Apple");
+        assertThat(buffer.getPending()).isZero();
+        assertThat(buffer.live(flushed)).isSameAs(flushed);
+    }
+
+    @Test
+    void failedFlushKeepsTheQuotes() {
+        CatalogueWriteBuffer buffer = buffer(true);
+        buffer.put(quote(101));
+        jdbc.execute("ALTER TABLE asset_catalogue RENAME TO asset_catalogue_moved");
+
+        assertThat(buffer.flush()).isZero();
+        assertThat(buffer.getPending()).isEqualTo(1);
+
+        jdbc.execute("ALTER TABLE asset_catalogue_moved RENAME TO asset_catalogue");
+        assertThat(buffer.flush()).isEqualTo(1);
+        assertThat(row().getPrice()).isEqualTo(101);
+    }
+
+    @Test
+    void writesThroughWhenDisabled() {
+        CatalogueWriteBuffer buffer = buffer(false);
+
+        buffer.put(quote(120));
+
+        assertThat(buffer.getPending()).isZero();
+        assertThat(row().getPrice()).isEqualTo(120);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.OrderRequestDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.PortfolioLotEntity;
+import org.example.backend.Entity.TradeOrderEntity;
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Model.OrderStatus;
+import org.example.backend.Model.OrderType;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.PortfolioLotRepository;
+import org.example.backend.Repository.TradeOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fills on different order lanes, and a REST trade alongside them, all move the one
+ * balance row; none of their changes may be lost.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrent-fills;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "orders.matching-lanes=4"})
+@ActiveProfiles("local")
+class ConcurrentFillsTest {
+
+    // on lanes 0 and 1 of 4
+    private static final String[] SYMBOLS = {"AAPL", "NVDA"};
+    private static final int ORDERS = 60;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private PortfolioService portfolioService;
+    @Autowired
+    private BalanceService balanceService;
+    @Autowired
+    private TradeOrderRepository orderRepo;
+    @Autowired
+    private PortfolioLotRepository lotRepo;
+    @Autowired
+    private AssetCatalogueRepository catalogueRepo;
+
+    @Test
+    void concurrentFillsOnTwoLanesKeepEveryBalanceChange() throws Exception {
+        BigDecimal start = Money.of(10_000_000);
+        balanceService.updateBalance(start);
+        long lotsBefore = lotRepo.count();
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            String symbol = SYMBOLS[i % SYMBOLS.length];
+            double price = catalogueRepo.findBySymbol(symbol).map(AssetCatalogueEntity::getPrice).orElseThrow();
+            OrderRequestDTO request = new OrderRequestDTO();
+            request.setSymbol(symbol);
+            request.setSide(OrderSide.BUY);
+            request.setType(OrderType.LIMIT);
+            request.setQuantity(1);
+            // far above the price, so it triggers as soon as it is rested
+            request.setPrice(price * 10);
+            ids.add(orderService.place(request).getId());
+            if (i % 10 == 0) {
+                portfolioService.buyAsset("MSFT", 1);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        List<TradeOrderEntity> orders = orderRepo.findAllById(ids);
+        while (orders.stream().anyMatch(o -> o.getStatus() == OrderStatus.OPEN)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            orders = orderRepo.findAllById(ids);
+        }
+
+        assertThat(orders).extracting(TradeOrderEntity::getStatus).containsOnly(OrderStatus.FILLED);
+        List<PortfolioLotEntity> lots = lotRepo.findAll();
+        assertThat(lots).hasSize((int) lotsBefore + ORDERS + ORDERS / 10);
+        BigDecimal spent = lots.stream()
+                .map(PortfolioLotEntity::getSettledAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(balanceService.getBalance().getAmount()).isEqualByComparingTo(start.subtract(spent));
+    }
+}
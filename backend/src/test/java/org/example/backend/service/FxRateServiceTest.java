@@ -0,0 +1,133 @@
+package org.example.backend.service;
+
+import org.example.backend.Entity.FxRateEntity;
+import org.example.backend.Model.FxRates;
+import org.example.backend.Repository.FxRateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FxRateServiceTest {
+
+    private MarketApiService market;
+    // the fx_rate table, shared by every instance a test creates
+    private final Map<String, FxRateEntity> stored = new HashMap<>();
+    private FxRateRepository fxRateRepo;
+
+    @BeforeEach
+    void setUp() {
+        market = mock(MarketApiService.class);
+        when(market.getFxRates(eq("USD"), anyCollection()))
+                .thenReturn(new FxRates("USD", Map.of("EUR", 1.1, "GBP", 1.25)));
+        fxRateRepo = mock(FxRateRepository.class);
+        when(fxRateRepo.saveAll(anyIterable())).thenAnswer(call -> {
+            call.<Iterable<FxRateEntity>>getArgument(0).forEach(row -> stored.put(row.getCurrency(), row));
+            return List.of();
+        });
+        when(fxRateRepo.findAllById(anyIterable())).thenAnswer(call -> {
+            List<FxRateEntity> rows = new ArrayList<>();
+            call.<Iterable<String>>getArgument(0).forEach(currency -> {
+                if (stored.containsKey(currency)) {
+                    rows.add(stored.get(currency));
+                }
+            });
+            return rows;
+        });
+    }
+
+    private FxRateService service(String baseCurrency, long ttlMs) {
+        return new FxRateService(market, fxRateRepo, mock(PlatformTransactionManager.class), baseCurrency, ttlMs);
+    }
+
+    @Test
+    void fetchesEveryMissingCurrencyInOneCallAndCachesThem() {
+        FxRateService fx = service("usd", 60_000);
+
+        Map<String, BigDecimal> rates = fx.getRates(List.of("EUR", "GBP", "USD"));
+        fx.getRates(List.of("EUR", "GBP"));
+
+        assertThat(rates.get("EUR")).isEqualByComparingTo("1.1");
+        assertThat(rates.get("GBP")).isEqualByComparingTo("1.25");
+        assertThat(rates.get("USD")).isEqualByComparingTo("1");
+        verify(market, times(1)).getFxRates(eq("USD"), anyCollection());
+    }
+
+    @Test
+    void minorUnitsAndMissingCurrenciesAreConverted() {
+        FxRateService fx = service("USD", 60_000);
+        Set<String> currencies = new HashSet<>();
+        currencies.add("GBp");
+        currencies.add(null);
+
+        Map<String, BigDecimal> rates = fx.getRates(currencies);
+
+        assertThat(rates.get("GBp")).isEqualByComparingTo("0.0125");
+        assertThat(rates.get(fx.key(null))).isEqualByComparingTo("1");
+    }
+
+    @Test
+    void expiredRatesAreUsedWhenTheMarketServiceIsDown() {
+        FxRateService fx = service("USD", 0);
+        fx.getRates(List.of("EUR"));
+        when(market.getFxRates(eq("USD"), anyCollection())).thenThrow(new MarketUnavailableException("down"));
+
+        assertThat(fx.getRate("EUR")).isEqualByComparingTo("1.1");
+        assertThatThrownBy(() -> fx.getRate("JPY")).isInstanceOf(MarketUnavailableException.class);
+    }
+
+    @Test
+    void aColdStartWhileTheMarketServiceIsDownUsesTheStoredRates() {
+        service("USD", 60_000).getRates(List.of("EUR", "GBP"));
+        when(market.getFxRates(eq("USD"), anyCollection())).thenThrow(new MarketUnavailableException("down"));
+
+        // a restarted instance, nothing cached yet
+        FxRateService restarted = service("USD", 60_000);
+
+        assertThat(restarted.getRates(List.of("EUR", "GBp")))
+                .containsEntry("EUR", new BigDecimal("1.1"))
+                .containsEntry("GBp", new BigDecimal("0.0125"));
+        assertThatThrownBy(() -> restarted.getRate("JPY")).isInstanceOf(MarketUnavailableException.class);
+    }
+
+    @Test
+    void storedRatesForAnotherBaseCurrencyAreNotUsed() {
+        service("USD", 60_000).getRates(List.of("EUR"));
+        when(market.getFxRates(eq("CHF"), anyCollection())).thenThrow(new MarketUnavailableException("down"));
+
+        assertThatThrownBy(() -> service("CHF", 60_000).getRate("EUR"))
+                .isInstanceOf(MarketUnavailableException.class);
+    }
+
+    @Test
+    void aStoredRateIsFetchedAgainOnceTheMarketServiceIsBack() {
+        service("USD", 60_000).getRates(List.of("EUR"));
+        when(market.getFxRates(eq("USD"), anyCollection())).thenThrow(new MarketUnavailableException("down"));
+        FxRateService restarted = service("USD", 60_000);
+        restarted.getRate("EUR");
+
+        reset(market);
+        when(market.getFxRates(eq("USD"), anyCollection())).thenReturn(new FxRates("USD", Map.of("EUR", 1.2)));
+
+        assertThat(restarted.getRate("EUR")).isEqualByComparingTo("1.2");
+        assertThat(stored.get("EUR").getRate()).isEqualByComparingTo("1.2");
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.backend.service;
+
+import org.example.backend.Entity.IngestionCheckpointEntity;
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+import org.example.backend.Repository.IngestionCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngestionWriterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 27);
+
+    private JdbcTemplate jdbc;
+    private AssetCatalogueService catalogueService;
+    private IngestionCheckpointRepository checkpointRepo;
+    private IngestionWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = mock(JdbcTemplate.class);
+        catalogueService = mock(AssetCatalogueService.class);
+        checkpointRepo = mock(IngestionCheckpointRepository.class);
+        writer = new IngestionWriter(jdbc, catalogueService, checkpointRepo);
+    }
+
+    private static IngestionItem item(String symbol, LocalDate... days) {
+        List<AssetHistory> bars = new ArrayList<>();
+        for (LocalDate day : days) {
+            bars.add(new AssetHistory(symbol, "STOCK", day, 1, 1, 1, 1, 100));
+        }
+        Asset quote = new Asset(symbol, symbol, "STOCK", 1, 1, 1, 1, 1, 0, "USD", "NASDAQ", LocalDateTime.now());
+        return new IngestionItem(symbol, quote, bars, days.length == 0 ? null : days[days.length - 1], null);
+    }
+
+    @Test
+    void writesBarsQuotesAndCheckpointsOfSucceededItemsOnly() {
+        IngestionCheckpointEntity msft = new IngestionCheckpointEntity("MSFT");
+        msft.setLastHistoryDate(DAY.minusDays(7));
+        when(checkpointRepo.findAllById(anyList())).thenReturn(List.of(msft));
+        when(jdbc.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        int rows = writer.writeBatch(List.of(
+                item("AAPL", DAY.minusDays(1), DAY),
+                item("MSFT"),
+                IngestionItem.failed("BAD", "timeout")));
+
+        assertThat(rows).isEqualTo(2);
+        ArgumentCaptor<List<Object[]>> history = ArgumentCaptor.captor();
+        verify(jdbc).batchUpdate(anyString(), history.capture());
+        assertThat(history.getValue()).extracting(row -> row[0]).containsExactly("AAPL", "AAPL");
+        ArgumentCaptor<List<Asset>> quotes = ArgumentCaptor.captor();
+        verify(catalogueService).applyQuotes(quotes.capture());
+        assertThat(quotes.getValue()).extracting(Asset::getSymbol).containsExactly("AAPL", "MSFT");
+
+        ArgumentCaptor<Iterable<IngestionCheckpointEntity>> saved = ArgumentCaptor.captor();
+        verify(checkpointRepo).saveAll(saved.capture());
+        assertThat(saved.getValue()).allSatisfy(c -> assertThat(c.getLastIngested()).isNotNull())
+                .extracting(IngestionCheckpointEntity::getSymbol, IngestionCheckpointEntity::getLastHistoryDate)
+                .containsExactlyInAnyOrder(
+                        tuple("AAPL", DAY),
+                        // no new bars: the resume point stays where it was
+                        tuple("MSFT", DAY.minusDays(7)));
+    }
+
+    @Test
+    void barsAlreadyStoredAreNotCountedAsWritten() {
+        // the first bar was ingested before, IGNORE skips it
+        when(jdbc.batchUpdate(anyString(), anyList())).thenReturn(new int[]{0, 1});
+
+        assertThat(writer.writeBatch(List.of(item("AAPL", DAY.minusDays(1), DAY)))).isEqualTo(1);
+    }
+
+    @Test
+    void aFailedHistoryWriteLeavesTheCheckpointsAlone() {
+        when(jdbc.batchUpdate(anyString(), anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertThatThrownBy(() -> writer.writeBatch(List.of(item("AAPL", DAY))))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(catalogueService, never()).applyQuotes(any());
+        verify(checkpointRepo, never()).saveAll(any());
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.backend.service;
+
+import org.example.backend.Entity.PortfolioLotEntity;
+import org.example.backend.Model.CostBasisMethod;
+import org.example.backend.Repository.LotAverageCostRepository;
+import org.example.backend.Repository.PortfolioLotRepository;
+import org.example.backend.Repository.RealizedTradeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Which transaction a book is loaded in: only a write transaction is trusted to
+ * read the primary, everything else loads through a new read-write one.
+ */
+class LotAccountingServiceTest {
+
+    private PlatformTransactionManager transactionManager;
+    private LotAccountingService service;
+
+    @BeforeEach
+    void setUp() {
+        PortfolioLotRepository lotRepo = mock(PortfolioLotRepository.class);
+        PortfolioLotEntity lot = new PortfolioLotEntity("AAPL", 10, 100, LocalDateTime.now());
+        lot.setId(1L);
+        when(lotRepo.findBySymbolAndRemainingGreaterThanOrderByIdAsc("AAPL", 0)).thenReturn(List.of(lot));
+        transactionManager = mock(PlatformTransactionManager.class);
+        service = new LotAccountingService(lotRepo, mock(LotAverageCostRepository.class),
+                mock(RealizedTradeRepository.class), transactionManager, CostBasisMethod.FIFO);
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    private void verifyLoadedInANewWriteTransaction() {
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW
+                        && !definition.isReadOnly()));
+    }
+
+    @Test
+    void withoutATransactionTheBookIsLoadedFromThePrimary() {
+        // e.g. an alert evaluated from a price event fired outside any transaction
+        assertThat(service.getQuantity("AAPL")).isEqualTo(10);
+
+        verifyLoadedInANewWriteTransaction();
+    }
+
+    @Test
+    void aReadOnlyCallerStillLoadsTheBookFromThePrimary() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(service.getQuantity("AAPL")).isEqualTo(10);
+
+        verifyLoadedInANewWriteTransaction();
+    }
+
+    @Test
+    void aWriteTransactionLoadsTheBookItself() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThat(service.getQuantity("AAPL")).isEqualTo(10);
+
+        verify(transactionManager, never()).getTransaction(any());
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.CostBasisMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Sale matching against a book of one million open lots.
+ * Run with: mvn test -Pbenchmark -Dtest=LotBookBenchmark
+ */
+class LotBookBenchmark {
+
+    private static final int LOTS = 1_000_000;
+    private static final int SALES = 200_000;
+
+    @Test
+    void matchSalesAgainstMillionLotBook() {
+        for (CostBasisMethod method : CostBasisMethod.values()) {
+            run(method);   // warm-up
+            run(method);
+        }
+    }
+
+    private void run(CostBasisMethod method) {
+        Random random = new Random(7);
+        long buildStart = System.nanoTime();
+        LotBook book = new LotBook(16);
+        for (int i = 0; i < LOTS; i++) {
+            book.addLot(i, 1 + random.nextInt(100), 50 + random.nextDouble() * 100);
+        }
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        long[] lotsTouched = new long[1];
+        LotBook.LotListener listener = (id, remaining) -> lotsTouched[0]++;
+        long start = System.nanoTime();
+        for (int i = 0; i < SALES; i++) {
+            book.consume(1 + random.nextInt(150), method, listener);
+            // keep the book at about a million lots
+            book.addLot(LOTS + i, 1 + random.nextInt(100), 50 + random.nextDouble() * 100);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-7s build %,d lots %4d ms | %,d sales in %4d ms, %6.0f ns/sale, %.2f lots/sale, open lots %,d%n",
+                method, LOTS, buildMs, SALES, elapsed / 1_000_000, (double) elapsed / SALES,
+                (double) lotsTouched[0] / SALES, book.getOpenLots());
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.CostBasisMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LotBookTest {
+
+    private final List<String> touched = new ArrayList<>();
+    private final LotBook.LotListener listener = (id, remaining) -> touched.add(id + ":" + remaining);
+
+    // portfolio_lot rows as LotAccountingService writes them back: id -> [remaining, price]
+    private final Map<Long, double[]> stored = new TreeMap<>();
+    private final LotBook.LotListener store = (id, remaining) -> stored.get(id)[0] = remaining;
+
+    private LotBook book() {
+        LotBook book = new LotBook(4);
+        book.addLot(1, 10, 100.0);
+        book.addLot(2, 10, 110.0);
+        book.addLot(3, 10, 120.0);
+        return book;
+    }
+
+    @Test
+    void fifoMatchesOldestLotsFirst() {
+        LotBook book = book();
+
+        double cost = book.consume(15, CostBasisMethod.FIFO, listener);
+
+        assertThat(cost).isEqualTo(10 * 100.0 + 5 * 110.0);
+        assertThat(touched).containsExactly("1:0", "2:5");
+        assertThat(book.getOpenLots()).isEqualTo(2);
+        assertThat(book.getCostBasis()).isEqualTo(5 * 110.0 + 10 * 120.0);
+    }
+
+    @Test
+    void lifoMatchesNewestLotsFirst() {
+        LotBook book = book();
+
+        double cost = book.consume(15, CostBasisMethod.LIFO, listener);
+
+        assertThat(cost).isEqualTo(10 * 120.0 + 5 * 110.0);
+        assertThat(touched).containsExactly("3:0", "2:5");
+        assertThat(book.unrealizedPnl(130.0)).isEqualTo(15 * 130.0 - (10 * 100.0 + 5 * 110.0));
+    }
+
+    @Test
+    void averageCostUsesTheBookAverageAndOnlyTouchesTheConsumedLots() {
+        LotBook book = book();
+
+        double cost = book.consume(15, CostBasisMethod.AVERAGE, listener);
+
+        assertThat(cost).isCloseTo(15 * 110.0, within(1e-9));
+        assertThat(book.getCostBasis()).isCloseTo(15 * 110.0, within(1e-9));
+        assertThat(touched).containsExactly("1:0", "2:5");
+        assertThat(book.getAveragedThrough()).isEqualTo(3);
+        assertThat(book.getAverageCost()).isCloseTo(110.0, within(1e-9));
+    }
+
+    @Test
+    void lotsBoughtAfterAnAverageSaleKeepTheirOwnPrice() {
+        LotBook book = book();
+        book.consume(15, CostBasisMethod.AVERAGE, listener);
+        book.addLot(4, 10, 200.0);
+
+        // 5 left of lot 2 and 10 of lot 3 at the average, then 5 of lot 4 at its price
+        assertThat(book.consume(20, CostBasisMethod.FIFO, listener)).isCloseTo(15 * 110.0 + 5 * 200.0, within(1e-9));
+        assertThat(book.getCostBasis()).isCloseTo(5 * 200.0, within(1e-9));
+    }
+
+    @Test
+    void aBookReloadedFromTheStoredLotsMatchesTheOneInMemory() {
+        LotBook book = new LotBook(4);
+        addAndStore(book, 1, 10, 100.0);
+        addAndStore(book, 2, 10, 110.0);
+        addAndStore(book, 3, 10, 120.0);
+
+        book.consume(15, CostBasisMethod.AVERAGE, store);
+        assertThat(reload(book).getCostBasis()).isCloseTo(book.getCostBasis(), within(1e-9));
+
+        addAndStore(book, 4, 10, 130.0);
+        book.consume(12, CostBasisMethod.FIFO, store);
+        book.consume(3, CostBasisMethod.AVERAGE, store);
+        book.consume(2, CostBasisMethod.LIFO, store);
+
+        LotBook reloaded = reload(book);
+        assertThat(reloaded.getQuantity()).isEqualTo(book.getQuantity()).isEqualTo(8);
+        assertThat(reloaded.getCostBasis()).isCloseTo(book.getCostBasis(), within(1e-9));
+        assertThat(reloaded.consume(8, CostBasisMethod.FIFO, listener))
+                .isCloseTo(book.consume(8, CostBasisMethod.FIFO, listener), within(1e-9));
+    }
+
+    private void addAndStore(LotBook book, long id, int quantity, double price) {
+        book.addLot(id, quantity, price);
+        stored.put(id, new double[]{quantity, price});
+    }
+
+    private LotBook reload(LotBook original) {
+        LotBook book = new LotBook(4);
+        stored.forEach((id, lot) -> book.addLot(id, (int) lot[0], lot[1]));
+        // the lot_average_cost row the last average sale wrote
+        if (original.getAveragedThrough() >= 0) {
+            book.applyAverage(original.getAveragedThrough(), original.getAverageCost());
+        }
+        return book;
+    }
+
+    @Test
+    void keepsOrderWhenTheRingBufferWrapsAndGrows() {
+        LotBook book = new LotBook(4);
+        for (int i = 0; i < 3; i++) {
+            book.addLot(i, 1, i);
+        }
+        book.consume(2, CostBasisMethod.FIFO, listener);
+        for (int i = 3; i < 10; i++) {
+            book.addLot(i, 1, i);
+        }
+        touched.clear();
+
+        book.consume(8, CostBasisMethod.FIFO, listener);
+
+        assertThat(touched).containsExactly("2:0", "3:0", "4:0", "5:0", "6:0", "7:0", "8:0", "9:0");
+        assertThat(book.getQuantity()).isZero();
+    }
+
+    @Test
+    void rejectsSellingMoreThanIsOpen() {
+        assertThatThrownBy(() -> book().consume(31, CostBasisMethod.FIFO, listener))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
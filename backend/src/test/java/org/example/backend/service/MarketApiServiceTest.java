@@ -0,0 +1,223 @@
+package org.example.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.backend.Config.MarketResilienceConfig;
+import org.example.backend.Config.RestTemplateConfig;
+import org.example.backend.DTO.MarketResultDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Model.Asset;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs MarketApiService against a local stub of the Flask service that can be
+ * told to fail or to respond slowly.
+ */
+class MarketApiServiceTest {
+
+    private static final String QUOTE_JSON = "{\"symbol\":\"AAPL\",\"name\":\"Apple\",\"type\":\"STOCK\","
+            + "\"open\":188.0,\"high\":191.0,\"low\":187.5,\"close\":189.0,\"price\":190.5,\"volume\":1000,"
+            + "\"currency\":\"USD\",\"exchange\":\"NASDAQ\",\"timestamp\":\"2026-01-02T10:00:00.000\"}";
+
+    private HttpServer stub;
+    private final AtomicInteger calls = new AtomicInteger();
+    private volatile int failuresLeft;
+    private volatile long latencyMs;
+
+    private AssetCatalogueRepository catalogueRepo;
+    private MarketCircuitBreaker circuitBreaker;
+    private MarketApiService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/api/market/quote/", exchange -> {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            boolean fail = failuresLeft > 0;
+            if (fail) {
+                failuresLeft--;
+            }
+            byte[] body = (fail ? "{\"error\":\"boom\"}" : QUOTE_JSON).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+
+        catalogueRepo = mock(AssetCatalogueRepository.class);
+        MarketResilienceConfig resilience = new MarketResilienceConfig();
+        circuitBreaker = new MarketCircuitBreaker(3, Duration.ofMillis(200));
+        service = new MarketApiService(
+                new FlaskMarketDataClient(new RestTemplateConfig().restTemplate(500, 300),
+                        "http://127.0.0.1:" + stub.getAddress().getPort()),
+                catalogueRepo,
+                new CatalogueWriteBuffer(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                        new SimpleMeterRegistry(), true),
+                circuitBreaker,
+                new MarketBulkhead(2, Duration.ofMillis(50)),
+                resilience.marketRetryTemplate(2, 10, 5, 50),
+                Runnable::run,
+                ObservationRegistry.NOOP,
+                1000);
+        ReflectionTestUtils.setField(service, "quoteTtlMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    void retriesTransientErrors() {
+        failuresLeft = 2;
+
+        Asset asset = service.getQuote("AAPL");
+
+        assertThat(asset.getPrice()).isEqualTo(190.5);
+        assertThat(asset.isStale()).isFalse();
+        assertThat(calls.get()).isEqualTo(3);
+        assertThat(circuitBreaker.getState()).isEqualTo(MarketCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensCircuitAndServesStaleCataloguePrice() {
+        failuresLeft = Integer.MAX_VALUE;
+        AssetCatalogueEntity cached = new AssetCatalogueEntity();
+        cached.setSymbol("AAPL");
+        cached.setPrice(180.0);
+        when(catalogueRepo.findBySymbol("AAPL")).thenReturn(Optional.of(cached));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.getQuote("AAPL").isStale()).isTrue();
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(MarketCircuitBreaker.State.OPEN);
+
+        // open circuit: no more upstream calls, still answered from the catalogue
+        int callsWhenOpened = calls.get();
+        Asset asset = service.getQuote("AAPL");
+        assertThat(asset.isStale()).isTrue();
+        assertThat(asset.getPrice()).isEqualTo(180.0);
+        assertThat(calls.get()).isEqualTo(callsWhenOpened);
+    }
+
+    @Test
+    void halfOpenTrialClosesCircuitOnceUpstreamRecovers() throws Exception {
+        failuresLeft = 9;
+        when(catalogueRepo.findBySymbol("AAPL")).thenReturn(Optional.empty());
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> service.getQuote("AAPL")).isInstanceOf(RuntimeException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(MarketCircuitBreaker.State.OPEN);
+
+        Thread.sleep(250);
+
+        assertThat(service.getQuote("AAPL").isStale()).isFalse();
+        assertThat(circuitBreaker.getState()).isEqualTo(MarketCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void bulkQuotesOnlyFetchSymbolsMissingFromCache() {
+        service.getQuote("AAPL");
+        calls.set(0);
+
+        List<MarketResultDTO<Asset>> results = service.getQuotes(List.of("AAPL", "MSFT")).stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertThat(results).extracting(MarketResultDTO::getSymbol).containsExactly("AAPL", "MSFT");
+        assertThat(results).extracting(MarketResultDTO::isCached).containsExactly(true, false);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void aColdBulkRequestKeepsItsFetchesWithinTheBulkhead() {
+        latencyMs = 100;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            ReflectionTestUtils.setField(service, "marketExecutor", pool);
+            // the bulkhead has 2 permits and waits 50 ms for one, well under the latency
+            ReflectionTestUtils.setField(service, "bulkMaxInFlight", 2);
+
+            List<MarketResultDTO<Asset>> results = service.getQuotes(List.of("A", "B", "C", "D", "E", "F")).stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+
+            assertThat(results).extracting(MarketResultDTO::getError).containsOnlyNulls();
+            assertThat(calls.get()).isEqualTo(6);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void aSaturatedExecutorFailsTheFutureAsUnavailable() {
+        ReflectionTestUtils.setField(service, "marketExecutor", (Executor) task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+
+        CompletableFuture<Asset> quote = service.getQuoteAsync("AAPL");
+
+        assertThat(quote).isCompletedExceptionally();
+        assertThatThrownBy(quote::join).hasCauseInstanceOf(MarketUnavailableException.class);
+        assertThat(calls.get()).isZero();
+    }
+
+    @Test
+    void slowUpstreamTimesOutAndBulkheadRejectsExcessCalls() throws Exception {
+        latencyMs = 1000;
+        when(catalogueRepo.findBySymbol("AAPL")).thenReturn(Optional.empty());
+
+        Thread[] callers = new Thread[2];
+        for (int i = 0; i < callers.length; i++) {
+            callers[i] = new Thread(() -> {
+                try {
+                    service.getQuote("AAPL");
+                } catch (RuntimeException ignored) {
+                    // read timeout
+                }
+            });
+            callers[i].start();
+        }
+        Thread.sleep(100);
+
+        // both permits are held by the slow calls
+        assertThatThrownBy(() -> service.getQuote("AAPL"))
+                .isInstanceOf(MarketUnavailableException.class);
+
+        for (Thread caller : callers) {
+            caller.join();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketCacheTest {
+
+    @Test
+    void dropsTheOldestFetchPastMaxEntries() {
+        MarketCache<String> cache = new MarketCache<>(2);
+        cache.put("AAPL", "a", 60_000);
+        cache.put("MSFT", "m", 60_000);
+        // refetching moves AAPL behind MSFT
+        cache.put("AAPL", "a2", 60_000);
+        cache.put("GOOGL", "g", 60_000);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.fresh("MSFT", 60_000)).isNull();
+        assertThat(cache.fresh("AAPL", 60_000)).isEqualTo("a2");
+        assertThat(cache.fresh("GOOGL", 60_000)).isEqualTo("g");
+    }
+
+    @Test
+    void removesStaleEntriesInsteadOfKeepingThem() throws InterruptedException {
+        MarketCache<String> cache = new MarketCache<>(100);
+        cache.put("AAPL", "a", 20);
+        cache.put("MSFT", "m", 20);
+        Thread.sleep(30);
+
+        assertThat(cache.fresh("AAPL", 20)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.put("GOOGL", "g", 20);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+}
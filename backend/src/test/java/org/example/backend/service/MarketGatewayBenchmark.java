@@ -0,0 +1,177 @@
+package org.example.backend.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.backend.Config.AsyncConfig;
+import org.example.backend.Config.MarketResilienceConfig;
+import org.example.backend.Config.RestTemplateConfig;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares how many quote requests can be in flight at once when the servlet
+ * thread blocks on Flask versus when it hands the call to the market executor.
+ *
+ * The market executor and bulkhead are built by AsyncConfig and MarketResilienceConfig
+ * from the values in application.properties, so the numbers are what the app delivers:
+ * requests the bulkhead turns away are reported as rejected, not served.
+ * Run with: mvn test -Pbenchmark -Dtest=MarketGatewayBenchmark
+ */
+class MarketGatewayBenchmark {
+
+    private static final int SERVLET_THREADS = 200;   // tomcat default max threads
+    private static final int REQUESTS = 2000;
+    private static final long UPSTREAM_LATENCY_MS = 300;
+
+    private static final String QUOTE_JSON = "{\"symbol\":\"AAPL\",\"name\":\"Apple\",\"type\":\"STOCK\","
+            + "\"open\":1,\"high\":1,\"low\":1,\"close\":1,\"price\":1,\"volume\":1,"
+            + "\"currency\":\"USD\",\"exchange\":\"NASDAQ\",\"timestamp\":\"2026-01-02T10:00:00.000\"}";
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private HttpServer stub;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"))
+                .forEach((key, value) -> environment.setProperty((String) key, (String) value));
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), REQUESTS);
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/api/market/quote/", exchange -> {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(UPSTREAM_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            byte[] body = QUOTE_JSON.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    void blockingVersusAsyncGateway() throws Exception {
+        ExecutorService servletPool = Executors.newFixedThreadPool(SERVLET_THREADS);
+        try {
+            report("blocking servlet threads", run(servletPool, Runnable::run, false));
+
+            Executor marketExecutor = new AsyncConfig().marketTaskExecutor(environment,
+                    property("market.async.pool-size"), property("market.async.queue-capacity"));
+            report("async market executor", run(servletPool, marketExecutor, true));
+        } finally {
+            servletPool.shutdownNow();
+        }
+    }
+
+    private Result run(ExecutorService servletPool, Executor marketExecutor, boolean async) throws Exception {
+        MarketApiService service = service(marketExecutor);
+        peakInFlight.set(0);
+        AtomicInteger rejected = new AtomicInteger();
+        System.gc();
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+
+        List<CompletableFuture<?>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            CompletableFuture<Object> response = new CompletableFuture<>();
+            servletPool.execute(() -> {
+                if (async) {
+                    // the servlet thread only registers the callback and is free again;
+                    // a full executor queue fails the future too
+                    service.getQuoteAsync("AAPL").whenComplete((asset, error) -> {
+                        if (error != null) {
+                            rejected.incrementAndGet();
+                        }
+                        response.complete(asset);
+                    });
+                } else {
+                    try {
+                        response.complete(service.getQuote("AAPL"));
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                        response.complete(null);
+                    }
+                }
+            });
+            responses.add(response);
+        }
+        int peakThreads = ManagementFactory.getThreadMXBean().getThreadCount();
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return new Result(peakInFlight.get(), rejected.get(), elapsedMs, peakThreads, usedHeap() - heapBefore);
+    }
+
+    private MarketApiService service(Executor marketExecutor) {
+        MarketApiService service = new MarketApiService(
+                new FlaskMarketDataClient(new RestTemplateConfig().restTemplate(2000, 10000),
+                        "http://127.0.0.1:" + stub.getAddress().getPort()),
+                mock(AssetCatalogueRepository.class),
+                new CatalogueWriteBuffer(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                        new SimpleMeterRegistry(), true),
+                // the stub never fails, so the breaker would stay closed with any threshold
+                new MarketCircuitBreaker(Integer.MAX_VALUE, Duration.ofSeconds(1)),
+                new MarketResilienceConfig().marketBulkhead(property("market.resilience.bulkhead.max-concurrent"),
+                        property("market.resilience.bulkhead.max-wait-ms")),
+                new MarketResilienceConfig().marketRetryTemplate(0, 10, 0, 10),
+                marketExecutor,
+                ObservationRegistry.NOOP,
+                property("market.cache.max-symbols"));
+        return service;
+    }
+
+    private int property(String key) {
+        return Integer.parseInt(environment.getRequiredProperty(key));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void report(String mode, Result result) {
+        int served = REQUESTS - result.rejected;
+        System.out.printf("%-26s peak in-flight=%4d  served=%5d  rejected=%5d  elapsed=%5d ms  "
+                        + "throughput=%6.0f req/s  threads=%4d  heap delta=%d KB%n",
+                mode, result.peakInFlight, served, result.rejected, result.elapsedMs,
+                served * 1000.0 / result.elapsedMs, result.threads, result.heapDelta / 1024);
+    }
+
+    private record Result(int peakInFlight, int rejected, long elapsedMs, int threads, long heapDelta) {
+    }
+}
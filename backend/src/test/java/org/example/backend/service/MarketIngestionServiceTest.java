@@ -0,0 +1,206 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.IngestionCheckpointEntity;
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.AssetHistoryRepository;
+import org.example.backend.Repository.IngestionCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MarketIngestionServiceTest {
+
+    private static final LocalDate LAST_BAR = LocalDate.of(2026, 2, 27);
+
+    private AssetCatalogueRepository catalogueRepo;
+    private AssetHistoryRepository historyRepo;
+    private IngestionCheckpointRepository checkpointRepo;
+    private MarketApiService marketApiService;
+    private IngestionWriter writer;
+    private SimpleMeterRegistry meterRegistry;
+    private MarketIngestionService service;
+
+    private final AtomicInteger quotesFetched = new AtomicInteger();
+    private final Set<String> fetchThreads = ConcurrentHashMap.newKeySet();
+    private final List<String> fetchOrder = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        catalogueRepo = mock(AssetCatalogueRepository.class);
+        historyRepo = mock(AssetHistoryRepository.class);
+        checkpointRepo = mock(IngestionCheckpointRepository.class);
+        marketApiService = mock(MarketApiService.class);
+        writer = mock(IngestionWriter.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(checkpointRepo.findAll()).thenReturn(List.of());
+        when(marketApiService.getQuote(anyString())).thenAnswer(call -> {
+            String symbol = call.getArgument(0);
+            quotesFetched.incrementAndGet();
+            fetchThreads.add(Thread.currentThread().getName());
+            synchronized (fetchOrder) {
+                fetchOrder.add(symbol);
+            }
+            return new Asset(symbol, symbol, "STOCK", 1, 1, 1, 1, 1, 0, "USD", "NASDAQ", LocalDateTime.now());
+        });
+        // three weekday bars ending on LAST_BAR for every symbol
+        when(marketApiService.getHistory(anyString())).thenAnswer(call -> List.of(
+                bar(call.getArgument(0), LAST_BAR.minusDays(2)),
+                bar(call.getArgument(0), LAST_BAR.minusDays(1)),
+                bar(call.getArgument(0), LAST_BAR)));
+        when(writer.writeBatch(anyList())).thenAnswer(call -> rows(call.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    private MarketIngestionService service(int workers, int queueCapacity) {
+        service = new MarketIngestionService(catalogueRepo, historyRepo, checkpointRepo, marketApiService, writer,
+                meterRegistry, workers, queueCapacity, 500);
+        return service;
+    }
+
+    private void catalogue(String... symbols) {
+        List<AssetCatalogueEntity> entities = new ArrayList<>();
+        for (String symbol : symbols) {
+            AssetCatalogueEntity entity = new AssetCatalogueEntity();
+            entity.setSymbol(symbol);
+            entities.add(entity);
+        }
+        when(catalogueRepo.findAll()).thenReturn(entities);
+    }
+
+    private static AssetHistory bar(String symbol, LocalDate date) {
+        return new AssetHistory(symbol, "STOCK", date, 1, 1, 1, 1, 100);
+    }
+
+    private static int rows(List<IngestionItem> batch) {
+        return batch.stream().mapToInt(item -> item.newBars().size()).sum();
+    }
+
+    @Test
+    void fetchersWaitForASlowWriterInsteadOfRunningAhead() throws Exception {
+        catalogue(IntStream.range(0, 20).mapToObj(i -> "S" + i).toArray(String[]::new));
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        AtomicInteger inWriter = new AtomicInteger();
+        when(writer.writeBatch(anyList())).thenAnswer(call -> {
+            inWriter.compareAndSet(0, ((List<?>) call.getArgument(0)).size());
+            writerBlocked.countDown();
+            releaseWriter.await();
+            return rows(call.getArgument(0));
+        });
+        MarketIngestionService service = service(2, 2);
+
+        CompletableFuture<Integer> run = CompletableFuture.supplyAsync(service::runOnce);
+        assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        // the batch in the writer, a full queue and one item held by each blocked fetcher
+        int expected = inWriter.get() + 2 + 2;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (quotesFetched.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(100);
+
+        assertThat(quotesFetched.get()).isEqualTo(expected).isLessThan(20);
+        assertThat(meterRegistry.get("ingestion.queue.depth").gauge().value()).isEqualTo(2);
+        assertThat(fetchThreads).containsExactlyInAnyOrder("ingestion-fetch-1", "ingestion-fetch-2");
+
+        releaseWriter.countDown();
+        assertThat(run.get(5, TimeUnit.SECONDS)).isEqualTo(20 * 3);
+        assertThat(quotesFetched.get()).isEqualTo(20);
+        assertThat(meterRegistry.get("ingestion.rows.written").counter().count()).isEqualTo(60);
+    }
+
+    @Test
+    void resumesFromTheCheckpointsOfThePreviousRun() {
+        catalogue("AAPL", "MSFT", "GOOGL");
+        IngestionCheckpointEntity aapl = new IngestionCheckpointEntity("AAPL");
+        aapl.setLastIngested(LocalDateTime.now().minusHours(1));
+        aapl.setLastHistoryDate(LAST_BAR.minusDays(1));
+        IngestionCheckpointEntity msft = new IngestionCheckpointEntity("MSFT");
+        msft.setLastIngested(LocalDateTime.now().minusHours(2));
+        msft.setLastHistoryDate(LAST_BAR);
+        when(checkpointRepo.findAll()).thenReturn(List.of(aapl, msft));
+        // no checkpoint: only bars after the latest stored one
+        when(historyRepo.findLatestDate("GOOGL")).thenReturn(LAST_BAR.minusDays(2));
+
+        int written = service(1, 8).runOnce();
+
+        // never ingested first, then the oldest checkpoint
+        assertThat(fetchOrder).containsExactly("GOOGL", "MSFT", "AAPL");
+        ArgumentCaptor<List<IngestionItem>> batches = ArgumentCaptor.captor();
+        verify(writer, atLeastOnce()).writeBatch(batches.capture());
+        List<IngestionItem> items = batches.getAllValues().stream().flatMap(List::stream).toList();
+        assertThat(items).extracting(IngestionItem::symbol).containsExactly("GOOGL", "MSFT", "AAPL");
+        assertThat(items).extracting(item -> item.newBars().size()).containsExactly(2, 0, 1);
+        assertThat(items).extracting(IngestionItem::lastDate).containsOnly(LAST_BAR);
+        assertThat(written).isEqualTo(3);
+    }
+
+    @Test
+    void aFailingWriterEndsTheRunWithoutStrandingFetchers() throws Exception {
+        catalogue(IntStream.range(0, 20).mapToObj(i -> "S" + i).toArray(String[]::new));
+        when(writer.writeBatch(anyList())).thenThrow(new IllegalStateException("database down"));
+        MarketIngestionService service = service(4, 1);
+
+        assertThatThrownBy(service::runOnce).hasMessage("database down");
+        int fetchedByFailedRun = quotesFetched.get();
+        Thread.sleep(50);
+        assertThat(quotesFetched.get()).isEqualTo(fetchedByFailedRun);
+        assertThat(meterRegistry.get("ingestion.queue.depth").gauge().value()).isZero();
+
+        // the next run is not locked out and gets through every symbol
+        doAnswer(call -> rows(call.getArgument(0))).when(writer).writeBatch(anyList());
+        quotesFetched.set(0);
+        assertThat(CompletableFuture.supplyAsync(service::runOnce).get(5, TimeUnit.SECONDS)).isEqualTo(20 * 3);
+        assertThat(quotesFetched.get()).isEqualTo(20);
+        assertThat(meterRegistry.get("ingestion.rows.written").counter().count()).isEqualTo(60);
+    }
+
+    @Test
+    void failedSymbolsAreCountedAndSkipped() {
+        catalogue("AAPL", "BAD");
+        when(marketApiService.getQuote("BAD")).thenThrow(new MarketUnavailableException("no quote for BAD"));
+
+        int written = service(2, 8).runOnce();
+
+        assertThat(written).isEqualTo(3);
+        assertThat(meterRegistry.get("ingestion.symbols.failed").counter().count()).isEqualTo(1);
+        ArgumentCaptor<List<IngestionItem>> batches = ArgumentCaptor.captor();
+        verify(writer, atLeastOnce()).writeBatch(batches.capture());
+        assertThat(batches.getAllValues().stream().flatMap(List::stream))
+                .extracting(IngestionItem::symbol).containsExactly("AAPL");
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoneyTest {
+
+    @Test
+    void convertsTheStoredDecimalPriceNotItsBinaryApproximation() {
+        // 1.00015 as a double is just below 1.00015, which rounded the old double product down
+        assertThat(Money.convert(1.00015, 1, BigDecimal.ONE)).isEqualTo(new BigDecimal("1.0002"));
+        assertThat(Money.convert(0.1, 3, new BigDecimal("1.1"))).isEqualTo(new BigDecimal("0.3300"));
+    }
+
+    @Test
+    void roundsOnceAfterTheRate() {
+        // 2 * 0.00125 GBP at 1.25 USD is 0.003125, rounded half even at 4 places
+        assertThat(Money.convert(0.00125, 2, new BigDecimal("1.25"))).isEqualTo(new BigDecimal("0.0031"));
+        // -31.5 at 0.0067 is exactly -0.21105
+        assertThat(Money.convert(new BigDecimal("-10.5"), 3, new BigDecimal("0.0067")))
+                .isEqualTo(new BigDecimal("-0.2110"));
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Model.OrderType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Order triggers per second: 1M resting orders over 1,000 symbols, price
+ * updates in a random walk, with one lane and with one lane per core.
+ * Run with: mvn test -Pbenchmark -Dtest=OrderMatcherBenchmark
+ */
+class OrderMatcherBenchmark {
+
+    private static final int SYMBOLS = 1_000;
+    private static final int ORDERS = 1_000_000;
+    private static final int UPDATES = 2_000_000;
+
+    @Test
+    void triggersPerSecond() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        run(1);   // warm-up
+        run(1);
+        run(cores);
+    }
+
+    private void run(int lanes) throws Exception {
+        Random random = new Random(5);
+        String[] symbols = new String[SYMBOLS];
+        double[] prices = new double[SYMBOLS];
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols[i] = "S" + i;
+            prices[i] = 100;
+        }
+
+        LongAdder triggers = new LongAdder();
+        OrderMatcher matcher = new OrderMatcher(lanes, (id, symbol, price) -> triggers.increment());
+        try {
+            CompletableFuture<?>[] adds = new CompletableFuture<?>[ORDERS];
+            for (int i = 0; i < ORDERS; i++) {
+                OrderSide side = random.nextBoolean() ? OrderSide.BUY : OrderSide.SELL;
+                OrderType type = random.nextBoolean() ? OrderType.LIMIT : OrderType.STOP;
+                boolean above = (side == OrderSide.SELL) == (type == OrderType.LIMIT);
+                double price = above ? 100 + random.nextDouble() * 20 : 100 - random.nextDouble() * 20;
+                adds[i] = matcher.add(i, symbols[random.nextInt(SYMBOLS)], side, type, price, 100);
+            }
+            CompletableFuture.allOf(adds).join();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < UPDATES; i++) {
+                int s = random.nextInt(SYMBOLS);
+                prices[s] = Math.max(1, prices[s] * (1 + random.nextGaussian() * 0.003));
+                matcher.onPrice(symbols[s], prices[s]);
+            }
+            // a cancel per symbol queues behind its updates, so this waits for every lane to drain
+            CompletableFuture<?>[] drains = new CompletableFuture<?>[SYMBOLS];
+            for (int s = 0; s < SYMBOLS; s++) {
+                drains[s] = matcher.cancel(-1, symbols[s], OrderSide.BUY, OrderType.LIMIT, 0);
+            }
+            CompletableFuture.allOf(drains).join();
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("lanes %2d | %,d updates in %d ms, %,.0f updates/s | %,d triggers, %,.0f triggers/s, %,d resting%n",
+                    lanes, UPDATES, elapsed / 1_000_000, UPDATES / (elapsed / 1e9),
+                    triggers.sum(), triggers.sum() / (elapsed / 1e9), matcher.size());
+        } finally {
+            matcher.shutdown();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Model.OrderType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderMatcherTest {
+
+    private final List<Long> triggered = new CopyOnWriteArrayList<>();
+    private final OrderMatcher matcher = new OrderMatcher(2, (id, symbol, price) -> triggered.add(id));
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        matcher.shutdown();
+    }
+
+    // a cancel is queued behind everything sent to the lane before it
+    private void drain(String symbol) {
+        matcher.cancel(-1, symbol, OrderSide.BUY, OrderType.LIMIT, 0).join();
+    }
+
+    @Test
+    void limitsAndStopsTriggerOnTheRightSideOfThePrice() {
+        matcher.add(1, "AAPL", OrderSide.BUY, OrderType.LIMIT, 95, 100).join();
+        matcher.add(2, "AAPL", OrderSide.SELL, OrderType.LIMIT, 110, 100).join();
+        matcher.add(3, "AAPL", OrderSide.BUY, OrderType.STOP, 105, 100).join();
+        matcher.add(4, "AAPL", OrderSide.SELL, OrderType.STOP, 90, 100).join();
+
+        matcher.onPrice("AAPL", 106);
+        drain("AAPL");
+        assertThat(triggered).containsExactly(3L);
+
+        matcher.onPrice("AAPL", 111);
+        matcher.onPrice("AAPL", 94);
+        matcher.onPrice("AAPL", 89);
+        drain("AAPL");
+        assertThat(triggered).containsExactly(3L, 2L, 1L, 4L);
+        assertThat(matcher.size()).isZero();
+    }
+
+    @Test
+    void orderAlreadyCrossedByTheCurrentPriceTriggersWhenPlaced() {
+        matcher.add(1, "MSFT", OrderSide.BUY, OrderType.LIMIT, 300, 290).join();
+
+        assertThat(triggered).containsExactly(1L);
+    }
+
+    @Test
+    void cancelledOrdersNeverTrigger() {
+        matcher.add(1, "AAPL", OrderSide.SELL, OrderType.STOP, 90, 100).join();
+
+        assertThat(matcher.cancel(1, "AAPL", OrderSide.SELL, OrderType.STOP, 90).join()).isTrue();
+        matcher.onPrice("AAPL", 80);
+        drain("AAPL");
+
+        assertThat(triggered).isEmpty();
+        assertThat(matcher.cancel(1, "AAPL", OrderSide.SELL, OrderType.STOP, 90).join()).isFalse();
+    }
+
+    @Test
+    void anOrderCancelledWhileWaitingToBeRestedAgainStaysOut() {
+        matcher.add(1, "AAPL", OrderSide.BUY, OrderType.LIMIT, 100, 110).join();
+        matcher.onPrice("AAPL", 99);
+        drain("AAPL");
+        assertThat(triggered).containsExactly(1L);
+
+        // the cancel saw it open and marked it cancelled before the re-rest ran
+        matcher.restAgain(1, "AAPL", OrderSide.BUY, OrderType.LIMIT, 100, 101, () -> false).join();
+        matcher.onPrice("AAPL", 98);
+        drain("AAPL");
+
+        assertThat(triggered).containsExactly(1L);
+        assertThat(matcher.size()).isZero();
+    }
+}
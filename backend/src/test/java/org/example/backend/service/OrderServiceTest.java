@@ -0,0 +1,299 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.Config.ReadWriteRoutingDataSource;
+import org.example.backend.Config.ReplicaRoutingPolicy;
+import org.example.backend.DTO.OrderRequestDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.TradeOrderEntity;
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.OrderSide;
+import org.example.backend.Model.OrderStatus;
+import org.example.backend.Model.OrderType;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.TradeOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The path from a price update through the matcher to the executor, with the
+ * trade itself mocked out. Transactions route between two in-memory databases
+ * standing in for the primary and a replica; the order repository answers from
+ * orders on the primary and from replicaOrders on the replica.
+ */
+class OrderServiceTest {
+
+    private final Map<Long, TradeOrderEntity> orders = new ConcurrentHashMap<>();
+    private final Map<Long, TradeOrderEntity> replicaOrders = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AssetCatalogueEntity aapl = new AssetCatalogueEntity();
+
+    private PortfolioService portfolioService;
+    private CatalogueWriteBuffer buffer;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingPolicy policy;
+    private JdbcTemplate routedJdbc;
+    private TransactionTemplate repositoryRead;
+    private AssetCatalogueRepository catalogueRepo;
+    private OrderService service;
+
+    @BeforeEach
+    void setUp() {
+        // replica lag unknown until a test records it, so reads stay on the primary
+        policy = new ReplicaRoutingPolicy(1000);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(policy);
+        DataSource primary = database("primary");
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Target.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Target.REPLICA, database("replica")));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        routedJdbc = new JdbcTemplate(dataSource);
+        PlatformTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        // what a repository call does on its own: joins a transaction, or opens a read-only one
+        repositoryRead = new TransactionTemplate(transactionManager);
+        repositoryRead.setReadOnly(true);
+
+        TradeOrderRepository orderRepo = mock(TradeOrderRepository.class);
+        when(orderRepo.save(any())).thenAnswer(call -> {
+            TradeOrderEntity order = call.getArgument(0);
+            if (order.getId() == null) {
+                order.setId(ids.incrementAndGet());
+            }
+            orders.put(order.getId(), order);
+            return order;
+        });
+        when(orderRepo.findById(anyLong())).thenAnswer(call -> Optional.ofNullable(
+                (onReplica() ? replicaOrders : orders).get(call.getArgument(0))));
+
+        aapl.setSymbol("AAPL");
+        aapl.setPrice(110);
+        catalogueRepo = mock(AssetCatalogueRepository.class);
+        when(catalogueRepo.findBySymbol("AAPL")).thenReturn(Optional.of(aapl));
+
+        portfolioService = mock(PortfolioService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        // never flushed here, the test reads quotes back through live()
+        buffer = new CatalogueWriteBuffer(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                meterRegistry, true);
+        OrderExecutor executor = new OrderExecutor(orderRepo, catalogueRepo, buffer, portfolioService,
+                transactionManager);
+        service = new OrderService(orderRepo, catalogueRepo, buffer, executor, meterRegistry, 1,
+                transactionManager);
+    }
+
+    private boolean onReplica() {
+        return "replica".equals(repositoryRead.execute(status ->
+                routedJdbc.queryForObject("SELECT name FROM marker", String.class)));
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate setup = new JdbcTemplate(dataSource);
+        setup.execute("CREATE TABLE marker (name VARCHAR(16))");
+        setup.update("INSERT INTO marker VALUES (?)", name);
+        return dataSource;
+    }
+
+    // the replica's copy of an order, as it was when the copy was taken
+    private void replicate(TradeOrderEntity order) {
+        TradeOrderEntity copy = new TradeOrderEntity();
+        copy.setId(order.getId());
+        copy.setSymbol(order.getSymbol());
+        copy.setSide(order.getSide());
+        copy.setType(order.getType());
+        copy.setQuantity(order.getQuantity());
+        copy.setOrderPrice(order.getOrderPrice());
+        copy.setStatus(order.getStatus());
+        copy.setCreatedAt(order.getCreatedAt());
+        replicaOrders.put(copy.getId(), copy);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    private TradeOrderEntity place(OrderSide side, OrderType type, double price) {
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setSymbol("AAPL");
+        request.setSide(side);
+        request.setType(type);
+        request.setQuantity(5);
+        request.setPrice(price);
+        return service.place(request);
+    }
+
+    // the catalogue moves to current, the matcher is told about trigger
+    private void tick(double trigger, double current) {
+        aapl.setPrice(current);
+        service.onPriceUpdated(new PriceUpdatedEvent("AAPL", trigger, 110));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    @Test
+    void aFailedTradeRejectsTheTriggeredOrder() throws Exception {
+        doThrow(new DomainException(DomainError.INSUFFICIENT_BALANCE, "Insufficient balance"))
+                .when(portfolioService).buyAssetAt("AAPL", 5, 99.0, Map.of());
+        TradeOrderEntity order = place(OrderSide.BUY, OrderType.LIMIT, 100);
+
+        tick(99, 99);
+
+        // the message is the last field reject sets
+        await(() -> order.getMessage() != null);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.REJECTED);
+        assertThat(order.getMessage()).isEqualTo("Insufficient balance");
+        assertThat(order.getExecutedPrice()).isNull();
+        assertThat(counter("orders.rejected")).isEqualTo(1);
+        assertThat(counter("orders.filled")).isZero();
+    }
+
+    @Test
+    void aLimitOrderFillsAtThePriceReadWhenItIsFilled() throws Exception {
+        TradeOrderEntity order = place(OrderSide.BUY, OrderType.LIMIT, 100);
+
+        // triggered at 99, and by the fill the price improved further
+        tick(99, 97.5);
+
+        await(() -> counter("orders.filled") == 1);
+        verify(portfolioService).buyAssetAt("AAPL", 5, 97.5, Map.of());
+        assertThat(order.getExecutedPrice()).isEqualTo(97.5);
+        assertThat(order.getMessage()).isEqualTo("Triggered at 99.0");
+    }
+
+    @Test
+    void aLimitOrderWhosePriceMovedBackIsRestedNotFilled() throws Exception {
+        TradeOrderEntity order = place(OrderSide.BUY, OrderType.LIMIT, 100);
+
+        // triggered at 99, but back above the limit by the time it is filled
+        tick(99, 101);
+        await(() -> counter("orders.rested.again") == 1);
+        Thread.sleep(50);
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.OPEN);
+        assertThat(counter("orders.rested.again")).isEqualTo(1);
+        verify(portfolioService, never()).buyAssetAt(anyString(), anyInt(), anyDouble(), any());
+
+        tick(98, 98);
+        await(() -> counter("orders.filled") == 1);
+        verify(portfolioService, times(1)).buyAssetAt("AAPL", 5, 98.0, Map.of());
+    }
+
+    @Test
+    void anOrderWaitingToBeRestedAgainCanStillBeCancelled() throws Exception {
+        // open in the store but in no book, as between a PRICE_MOVED trigger and its re-rest
+        TradeOrderEntity order = new TradeOrderEntity();
+        order.setSymbol("AAPL");
+        order.setSide(OrderSide.BUY);
+        order.setType(OrderType.LIMIT);
+        order.setQuantity(5);
+        order.setOrderPrice(100);
+        order.setStatus(OrderStatus.OPEN);
+        order.setId(ids.incrementAndGet());
+        orders.put(order.getId(), order);
+
+        assertThat(service.cancel(order.getId()).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThatThrownBy(() -> service.cancel(order.getId()))
+                .isInstanceOf(DomainException.class)
+                .hasMessage("Order " + order.getId() + " is already CANCELLED");
+    }
+
+    @Test
+    void aCancelReadsTheStatusFromThePrimaryNotALaggingReplica() {
+        TradeOrderEntity order = place(OrderSide.BUY, OrderType.LIMIT, 100);
+        replicate(order);
+        // filled on the primary, the replica has not caught up
+        order.setStatus(OrderStatus.FILLED);
+        order.setExecutedPrice(99.0);
+        policy.recordReplicaLag(0);
+
+        assertThatThrownBy(() -> service.cancel(order.getId()))
+                .isInstanceOf(DomainException.class)
+                .hasMessage("Order " + order.getId() + " is already FILLED");
+        assertThat(orders.get(order.getId()).getStatus()).isEqualTo(OrderStatus.FILLED);
+        assertThat(orders.get(order.getId()).getExecutedPrice()).isEqualTo(99.0);
+    }
+
+    @Test
+    void anOrderCancelledOnThePrimaryIsNotRestedAgainFromAStaleReplica() throws Exception {
+        TradeOrderEntity order = place(OrderSide.BUY, OrderType.LIMIT, 100);
+        replicate(order);
+        policy.recordReplicaLag(0);
+        // cancelled on the primary while the triggered order is being filled, the replica still says open
+        when(catalogueRepo.findBySymbol("AAPL")).thenAnswer(call -> {
+            order.setStatus(OrderStatus.CANCELLED);
+            return Optional.of(aapl);
+        });
+
+        tick(99, 101);
+        await(() -> counter("orders.rested.again") == 1);
+        Thread.sleep(50);
+
+        assertThat(meterRegistry.get("orders.open").gauge().value()).isZero();
+    }
+
+    @Test
+    void aNewOrderIsMatchedAgainstTheNewestBufferedQuote() throws Exception {
+        // the row still says 110, the quote waiting to be flushed says 95
+        buffer.put(new Asset("AAPL", "Apple", "STOCK", 96, 96, 95, 95, 95, 0, "USD", "NASDAQ", LocalDateTime.now()));
+
+        TradeOrderEntity order = place(OrderSide.BUY, OrderType.LIMIT, 100);
+
+        await(() -> counter("orders.filled") == 1);
+        verify(portfolioService).buyAssetAt("AAPL", 5, 95.0, Map.of());
+    }
+
+    @Test
+    void aTriggeredStopFillsAtTheCurrentPriceEvenPastItsLevel() throws Exception {
+        TradeOrderEntity order = place(OrderSide.SELL, OrderType.STOP, 90);
+
+        // gapped down through the stop
+        tick(89, 85);
+
+        await(() -> counter("orders.filled") == 1);
+        verify(portfolioService).sellAssetAt("AAPL", 5, 85.0, Map.of());
+        assertThat(order.getExecutedPrice()).isEqualTo(85.0);
+    }
+}
@@ -0,0 +1,290 @@
+package org.example.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.AssetHistoryEntity;
+import org.example.backend.Entity.BalanceEntity;
+import org.example.backend.Entity.CashFlowEntity;
+import org.example.backend.Entity.PortfolioLotEntity;
+import org.example.backend.Entity.PortfolioSnapshotEntity;
+import org.example.backend.Entity.RealizedTradeEntity;
+import org.example.backend.Model.Asset;
+import org.example.backend.Repository.AssetCatalogueRepository;
+import org.example.backend.Repository.AssetHistoryRepository;
+import org.example.backend.Repository.CashFlowRepository;
+import org.example.backend.Repository.PortfolioLotRepository;
+import org.example.backend.Repository.PortfolioSnapshotRepository;
+import org.example.backend.Repository.RealizedTradeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PortfolioSnapshotServiceTest {
+
+    // a Wednesday
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 4);
+
+    private PortfolioSnapshotRepository snapshotRepo;
+    private PortfolioLotRepository lotRepo;
+    private RealizedTradeRepository realizedRepo;
+    private CashFlowRepository cashFlowRepo;
+    private AssetHistoryRepository historyRepo;
+    private AssetCatalogueRepository catalogueRepo;
+    private CatalogueWriteBuffer catalogueBuffer;
+    private BalanceService balanceService;
+    private FxRateService fxRateService;
+    private PlatformTransactionManager transactionManager;
+    private PortfolioSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        snapshotRepo = mock(PortfolioSnapshotRepository.class);
+        lotRepo = mock(PortfolioLotRepository.class);
+        realizedRepo = mock(RealizedTradeRepository.class);
+        cashFlowRepo = mock(CashFlowRepository.class);
+        historyRepo = mock(AssetHistoryRepository.class);
+        catalogueRepo = mock(AssetCatalogueRepository.class);
+        catalogueBuffer = new CatalogueWriteBuffer(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), true);
+        balanceService = mock(BalanceService.class);
+        fxRateService = mock(FxRateService.class);
+        when(fxRateService.key(any())).thenAnswer(call -> call.getArgument(0) == null ? "USD" : call.getArgument(0));
+        rates(Map.of());
+        transactionManager = mock(PlatformTransactionManager.class);
+        service = new PortfolioSnapshotService(snapshotRepo, lotRepo, realizedRepo, cashFlowRepo, historyRepo,
+                catalogueRepo, catalogueBuffer, balanceService, fxRateService, transactionManager);
+        ReflectionTestUtils.setField(service, "backfillDays", 365);
+        ReflectionTestUtils.setField(service, "priceLookbackDays", 14);
+    }
+
+    private void balance(double amount) {
+        BalanceEntity balance = new BalanceEntity();
+        balance.setAmount(BigDecimal.valueOf(amount));
+        when(balanceService.getBalance()).thenReturn(balance);
+    }
+
+    // every currency not listed is the base currency
+    private void rates(Map<String, Double> rates) {
+        doAnswer(call -> {
+            Map<String, BigDecimal> result = new HashMap<>();
+            for (String currency : call.<Collection<String>>getArgument(0)) {
+                result.put(currency, BigDecimal.valueOf(rates.getOrDefault(currency, 1.0)));
+            }
+            return result;
+        }).when(fxRateService).getRates(any());
+        doAnswer(call -> BigDecimal.valueOf(
+                call.getArgument(0) == null ? 1.0 : rates.getOrDefault(call.getArgument(0), 1.0)))
+                .when(fxRateService).getRate(any());
+    }
+
+    private void listed(String symbol, String currency, double price) {
+        AssetCatalogueEntity entity = new AssetCatalogueEntity();
+        entity.setSymbol(symbol);
+        entity.setCurrency(currency);
+        entity.setPrice(price);
+        when(catalogueRepo.findBySymbol(symbol)).thenReturn(Optional.of(entity));
+    }
+
+    private void closes(String symbol, double... closes) {
+        List<AssetHistoryEntity> bars = new ArrayList<>();
+        for (int i = 0; i < closes.length; i++) {
+            AssetHistoryEntity bar = new AssetHistoryEntity();
+            bar.setSymbol(symbol);
+            bar.setDate(DAY.plusDays(i));
+            bar.setClose(closes[i]);
+            bars.add(bar);
+        }
+        when(historyRepo.findBySymbolAndDateBetweenOrderByDateAsc(eq(symbol), any(), any())).thenReturn(bars);
+    }
+
+    private static RealizedTradeEntity sale(String symbol, int quantity, double price, LocalDateTime at) {
+        RealizedTradeEntity sale = new RealizedTradeEntity();
+        sale.setSymbol(symbol);
+        sale.setQuantity(quantity);
+        sale.setSalePrice(price);
+        sale.setSoldAt(at);
+        return sale;
+    }
+
+    private List<PortfolioSnapshotEntity> saved() {
+        ArgumentCaptor<List<PortfolioSnapshotEntity>> snapshots = ArgumentCaptor.captor();
+        verify(snapshotRepo).saveAll(snapshots.capture());
+        return snapshots.getValue();
+    }
+
+    @Test
+    void replaysFlowsTradesAndClosesDayByDay() {
+        CashFlowEntity deposit = new CashFlowEntity(BigDecimal.valueOf(1000), "DEPOSIT", DAY.atTime(9, 0));
+        PortfolioLotEntity buy = new PortfolioLotEntity("AAPL", 10, 50, DAY.atTime(10, 0));
+        when(cashFlowRepo.findFirstByOrderByOccurredAtAsc()).thenReturn(Optional.of(deposit));
+        when(cashFlowRepo.findByOccurredAtGreaterThanEqualOrderByOccurredAtAsc(any())).thenReturn(List.of(deposit));
+        when(lotRepo.findByAcquiredAtGreaterThanEqualOrderByAcquiredAtAsc(any())).thenReturn(List.of(buy));
+        when(realizedRepo.findBySoldAtGreaterThanEqualOrderBySoldAtAsc(any()))
+                .thenReturn(List.of(sale("AAPL", 4, 55, DAY.plusDays(1).atTime(14, 0))));
+        // today's balance: deposit, minus the buy, plus the sale
+        balance(1000 - 500 + 220);
+        // no bar on the third day, the second day's close still prices it
+        closes("AAPL", 52, 55);
+
+        assertThat(service.refresh(DAY.plusDays(2))).isEqualTo(3);
+
+        List<PortfolioSnapshotEntity> days = saved();
+        assertThat(days).extracting(PortfolioSnapshotEntity::getSnapshotDate)
+                .containsExactly(DAY, DAY.plusDays(1), DAY.plusDays(2));
+        assertThat(days).extracting(PortfolioSnapshotEntity::getCashBalance).containsExactly(500.0, 720.0, 720.0);
+        assertThat(days).extracting(PortfolioSnapshotEntity::getHoldingsValue).containsExactly(520.0, 330.0, 330.0);
+        assertThat(days).extracting(PortfolioSnapshotEntity::getNetFlow).containsExactly(1000.0, 0.0, 0.0);
+        // the deposit earns the first day's return from the start of the day
+        assertThat(days.get(0).getDailyReturn()).isCloseTo(0.02, within(1e-12));
+        assertThat(days.get(1).getDailyReturn()).isCloseTo(1050.0 / 1020 - 1, within(1e-12));
+        assertThat(days.get(2).getDailyReturn()).isZero();
+        assertThat(days.get(2).getTwrIndex()).isCloseTo(1.05, within(1e-12));
+    }
+
+    @Test
+    void continuesFromTheLastSnapshotWithPositionsHeldBeforeIt() {
+        PortfolioSnapshotEntity last = new PortfolioSnapshotEntity();
+        last.setSnapshotDate(DAY.minusDays(1));
+        last.setTotalValue(1000);
+        last.setTwrIndex(1.5);
+        when(snapshotRepo.findTopByOrderBySnapshotDateDesc()).thenReturn(Optional.of(last));
+        List<Object[]> bought = List.of(new Object[]{"AAPL", 10L}, new Object[]{"XYZ", 2L});
+        when(lotRepo.sumQuantityBySymbolBefore(DAY.atStartOfDay())).thenReturn(bought);
+        List<Object[]> sold = List.<Object[]>of(new Object[]{"AAPL", 4L});
+        when(realizedRepo.sumQuantityBySymbolBefore(DAY.atStartOfDay())).thenReturn(sold);
+        balance(640);
+        closes("AAPL", 55);
+        // no history at all: the catalogue price
+        listed("XYZ", "USD", 30);
+
+        assertThat(service.refresh(DAY)).isEqualTo(1);
+
+        PortfolioSnapshotEntity day = saved().get(0);
+        assertThat(day.getSnapshotDate()).isEqualTo(DAY);
+        assertThat(day.getHoldingsValue()).isEqualTo(6 * 55.0 + 2 * 30.0);
+        assertThat(day.getTotalValue()).isEqualTo(1030.0);
+        assertThat(day.getTwrIndex()).isCloseTo(1.5 * 1.03, within(1e-12));
+    }
+
+    @Test
+    void theCatalogueFallbackTakesTheNewestBufferedQuote() {
+        PortfolioSnapshotEntity last = new PortfolioSnapshotEntity();
+        last.setSnapshotDate(DAY.minusDays(1));
+        last.setTotalValue(100);
+        when(snapshotRepo.findTopByOrderBySnapshotDateDesc()).thenReturn(Optional.of(last));
+        List<Object[]> bought = List.<Object[]>of(new Object[]{"XYZ", 2L});
+        when(lotRepo.sumQuantityBySymbolBefore(DAY.atStartOfDay())).thenReturn(bought);
+        balance(40);
+        listed("XYZ", "USD", 30);
+        // not flushed to the catalogue row yet
+        catalogueBuffer.put(new Asset("XYZ", "XYZ", "STOCK", 31, 32, 31, 32, 32, 0, "USD", "NASDAQ",
+                LocalDateTime.now()));
+
+        service.refresh(DAY);
+
+        assertThat(saved().get(0).getHoldingsValue()).isEqualTo(2 * 32.0);
+    }
+
+    @Test
+    void foreignTradesAndHoldingsAreInTheBaseCurrency() {
+        CashFlowEntity deposit = new CashFlowEntity(BigDecimal.valueOf(1000), "DEPOSIT", DAY.atTime(9, 0));
+        // settled at 1.25 when it was bought
+        PortfolioLotEntity buy = new PortfolioLotEntity("VOD", 10, 40, DAY.atTime(10, 0));
+        buy.setSettledAmount(BigDecimal.valueOf(500));
+        // recorded before settled amounts were, so converted at today's rate
+        RealizedTradeEntity sale = sale("VOD", 4, 50, DAY.plusDays(1).atTime(14, 0));
+        when(cashFlowRepo.findFirstByOrderByOccurredAtAsc()).thenReturn(Optional.of(deposit));
+        when(cashFlowRepo.findByOccurredAtGreaterThanEqualOrderByOccurredAtAsc(any())).thenReturn(List.of(deposit));
+        when(lotRepo.findByAcquiredAtGreaterThanEqualOrderByAcquiredAtAsc(any())).thenReturn(List.of(buy));
+        when(realizedRepo.findBySoldAtGreaterThanEqualOrderBySoldAtAsc(any())).thenReturn(List.of(sale));
+        listed("VOD", "GBP", 50);
+        rates(Map.of("GBP", 1.2));
+        balance(1000 - 500 + 4 * 50 * 1.2);
+        closes("VOD", 42, 50);
+
+        assertThat(service.refresh(DAY.plusDays(1))).isEqualTo(2);
+
+        List<PortfolioSnapshotEntity> days = saved();
+        assertThat(days.get(0).getCashBalance()).isCloseTo(500.0, within(1e-9));
+        assertThat(days.get(0).getHoldingsValue()).isCloseTo(10 * 42 * 1.2, within(1e-9));
+        assertThat(days.get(1).getCashBalance()).isCloseTo(740.0, within(1e-9));
+        assertThat(days.get(1).getHoldingsValue()).isCloseTo(6 * 50 * 1.2, within(1e-9));
+        assertThat(days.get(1).getTotalValue()).isCloseTo(1100.0, within(1e-9));
+    }
+
+    @Test
+    void ratesAreResolvedBeforeTheWriteTransactionOpens() {
+        balance(0);
+
+        service.refresh(DAY);
+
+        InOrder order = inOrder(fxRateService, transactionManager);
+        order.verify(fxRateService).getRates(any());
+        order.verify(transactionManager).getTransaction(any());
+    }
+
+    @Test
+    void nothingToDoWhenAlreadyUpToDate() {
+        PortfolioSnapshotEntity last = new PortfolioSnapshotEntity();
+        last.setSnapshotDate(DAY);
+        when(snapshotRepo.findTopByOrderBySnapshotDateDesc()).thenReturn(Optional.of(last));
+
+        assertThat(service.refresh(DAY)).isZero();
+        verify(lotRepo, never()).findByAcquiredAtGreaterThanEqualOrderByAcquiredAtAsc(any());
+    }
+
+    @Test
+    void concurrentRefreshesCommitOneAfterTheOther() throws Exception {
+        AtomicInteger open = new AtomicInteger();
+        AtomicInteger maxOpen = new AtomicInteger();
+        when(transactionManager.getTransaction(any())).thenAnswer(call -> {
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            return null;
+        });
+        doAnswer(call -> {
+            // a slow commit is where a proxy around a synchronized method let the next run in
+            Thread.sleep(50);
+            open.decrementAndGet();
+            return null;
+        }).when(transactionManager).commit(any());
+        PortfolioSnapshotEntity last = new PortfolioSnapshotEntity();
+        last.setSnapshotDate(DAY);
+        when(snapshotRepo.findTopByOrderBySnapshotDateDesc()).thenReturn(Optional.of(last));
+
+        CompletableFuture<?>[] runs = new CompletableFuture<?>[4];
+        for (int i = 0; i < runs.length; i++) {
+            runs[i] = CompletableFuture.runAsync(() -> service.refresh(DAY));
+        }
+        CompletableFuture.allOf(runs).join();
+
+        assertThat(maxOpen.get()).isEqualTo(1);
+        assertThat(open.get()).isZero();
+    }
+}
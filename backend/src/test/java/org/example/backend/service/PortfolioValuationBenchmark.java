@@ -0,0 +1,101 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.PortfolioAssetDTO;
+import org.example.backend.Entity.AssetCatalogueEntity;
+import org.example.backend.Entity.PortfolioAssetEntity;
+import org.example.backend.Model.FxRates;
+import org.example.backend.Repository.FxRateRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Valuation pass over 10,000 positions in five currencies: the BigDecimal, FX
+ * converting pass against the plain double arithmetic it replaced.
+ * Run with: mvn test -Pbenchmark -Dtest=PortfolioValuationBenchmark
+ */
+class PortfolioValuationBenchmark {
+
+    private static final int POSITIONS = 10_000;
+    private static final int ROUNDS = 200;
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "GBp", "JPY"};
+
+    @Test
+    void valuationThroughput() {
+        Random random = new Random(3);
+        List<PortfolioAssetEntity> assets = new ArrayList<>(POSITIONS);
+        Map<String, AssetCatalogueEntity> catalogue = new HashMap<>();
+        for (int i = 0; i < POSITIONS; i++) {
+            PortfolioAssetEntity asset = new PortfolioAssetEntity();
+            asset.setSymbol("S" + i);
+            asset.setQuantity(1 + random.nextInt(1000));
+            asset.setBuyPrice(10 + random.nextDouble() * 300);
+            assets.add(asset);
+
+            AssetCatalogueEntity entry = new AssetCatalogueEntity();
+            entry.setSymbol("S" + i);
+            entry.setPrice(10 + random.nextDouble() * 300);
+            entry.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+            catalogue.put(entry.getSymbol(), entry);
+        }
+
+        MarketApiService market = mock(MarketApiService.class);
+        when(market.getFxRates(eq("USD"), anyCollection()))
+                .thenReturn(new FxRates("USD", Map.of("EUR", 1.08, "GBP", 1.27, "JPY", 0.0067)));
+        FxRateService fx = new FxRateService(market, mock(FxRateRepository.class),
+                mock(PlatformTransactionManager.class), "USD", 60_000);
+        Map<String, BigDecimal> rates = fx.getRates(Set.of(CURRENCIES));
+
+        for (int pass = 0; pass < 2; pass++) {   // first pass is warm-up
+            long doubleNs = time(() -> doublePass(assets, catalogue));
+            long decimalNs = time(() -> PortfolioService.valuePositions(assets, catalogue, rates, fx));
+            System.out.printf("double %.2f ms | BigDecimal + FX %.2f ms per %,d positions (%.0f ns/position)%n",
+                    doubleNs / 1e6, decimalNs / 1e6, POSITIONS, (double) decimalNs / POSITIONS);
+        }
+    }
+
+    private static long time(Runnable pass) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            pass.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    // what valuation did before: the same fields in raw doubles, no conversion
+    private static List<PortfolioAssetDTO> doublePass(List<PortfolioAssetEntity> assets,
+                                                      Map<String, AssetCatalogueEntity> catalogue) {
+        List<PortfolioAssetDTO> result = new ArrayList<>(assets.size());
+        for (PortfolioAssetEntity asset : assets) {
+            AssetCatalogueEntity entry = catalogue.get(asset.getSymbol());
+            PortfolioAssetDTO dto = new PortfolioAssetDTO();
+            dto.setSymbol(asset.getSymbol());
+            dto.setName(asset.getName());
+            dto.setType(asset.getType());
+            dto.setBuyPrice(asset.getBuyPrice());
+            dto.setQuantity(asset.getQuantity());
+            dto.setBuyTimestamp(asset.getBuyTimestamp());
+            dto.setCurrentPrice(entry.getPrice());
+            dto.setHigh(entry.getHigh());
+            dto.setLow(entry.getLow());
+            dto.setVolume(entry.getVolume());
+            dto.setProfitLoss((entry.getPrice() - asset.getBuyPrice()) * asset.getQuantity());
+            result.add(dto);
+        }
+        return result;
+    }
+}
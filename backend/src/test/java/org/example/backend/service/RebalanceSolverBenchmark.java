@@ -0,0 +1,51 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.RebalancePlanDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Plan latency for portfolios of a few thousand positions over six asset types.
+ * Run with: mvn test -Pbenchmark -Dtest=RebalanceSolverBenchmark
+ */
+class RebalanceSolverBenchmark {
+
+    private static final String[] TYPES = {"STOCK", "BOND", "ETF", "CURRENCY", "CRYPTO", "COMMODITY"};
+    private static final Map<String, Double> TARGETS = Map.of(
+            "STOCK", 0.40, "BOND", 0.20, "ETF", 0.15, "CURRENCY", 0.05, "CRYPTO", 0.05, "COMMODITY", 0.10);
+    private static final int ROUNDS = 200;
+
+    @Test
+    void planLatency() {
+        for (int positions : new int[]{1_000, 5_000, 20_000}) {
+            run(positions);   // warm-up
+            run(positions);
+        }
+    }
+
+    private void run(int positions) {
+        Random random = new Random(positions);
+        List<RebalanceSolver.Holding> holdings = new ArrayList<>(positions);
+        for (int i = 0; i < positions; i++) {
+            holdings.add(new RebalanceSolver.Holding("S" + i, TYPES[random.nextInt(TYPES.length)],
+                    1 + random.nextInt(500), 1 + random.nextDouble() * 500));
+        }
+
+        long[] samples = new long[ROUNDS];
+        int trades = 0;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            RebalancePlanDTO plan = RebalanceSolver.solve(holdings, List.of(), 100_000, TARGETS);
+            samples[r] = System.nanoTime() - start;
+            trades = plan.getTrades().size();
+        }
+        Arrays.sort(samples);
+        System.out.printf("%,6d positions | %d trades | p50 %.3f ms, p99 %.3f ms%n",
+                positions, trades, samples[ROUNDS / 2] / 1e6, samples[ROUNDS * 99 / 100] / 1e6);
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.RebalancePlanDTO;
+import org.example.backend.DTO.RebalanceTradeDTO;
+import org.example.backend.Model.OrderSide;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class RebalanceSolverTest {
+
+    private static RebalanceSolver.Holding holding(String symbol, String type, int quantity, double price) {
+        return new RebalanceSolver.Holding(symbol, type, quantity, price);
+    }
+
+    @Test
+    void sellsTheOverweightTypeAndBuysTheUnderweightOne() {
+        // 8,000 stock, 1,000 bond, 1,000 cash -> 50/40/10
+        List<RebalanceSolver.Holding> holdings = List.of(
+                holding("AAPL", "STOCK", 30, 200),
+                holding("MSFT", "STOCK", 10, 200),
+                holding("GOVT", "BOND", 10, 100));
+
+        RebalancePlanDTO plan = RebalanceSolver.solve(holdings, List.of(), 1000, Map.of("STOCK", 0.5, "BOND", 0.4));
+
+        assertThat(plan.getTrades()).extracting(RebalanceTradeDTO::getSymbol, RebalanceTradeDTO::getSide,
+                        RebalanceTradeDTO::getQuantity)
+                .containsExactly(
+                        tuple("AAPL", OrderSide.SELL, 15),
+                        tuple("GOVT", OrderSide.BUY, 30));
+        assertThat(plan.getCashAfter()).isCloseTo(1000, within(1e-9));
+        assertThat(plan.getProjectedWeights().get("STOCK")).isCloseTo(0.5, within(1e-9));
+        assertThat(plan.getProjectedWeights().get("BOND")).isCloseTo(0.4, within(1e-9));
+    }
+
+    @Test
+    void buysAreCappedByTheCashAvailable() {
+        List<RebalanceSolver.Holding> holdings = List.of(holding("GOVT", "BOND", 1, 100));
+
+        RebalancePlanDTO plan = RebalanceSolver.solve(holdings, List.of(), 450, Map.of("BOND", 1.0));
+
+        assertThat(plan.getTrades()).singleElement()
+                .satisfies(t -> assertThat(t.getQuantity()).isEqualTo(4));
+        assertThat(plan.getCashAfter()).isCloseTo(50, within(1e-9));
+    }
+
+    @Test
+    void aTypeWithNothingHeldBuysItsCheapestListing() {
+        List<RebalanceSolver.Holding> holdings = List.of(holding("AAPL", "STOCK", 10, 100));
+        List<RebalanceSolver.Holding> listings = List.of(
+                holding("AAPL", "STOCK", 0, 100),
+                holding("TLT", "BOND", 0, 90),
+                holding("GOVT", "BOND", 0, 25));
+
+        RebalancePlanDTO plan = RebalanceSolver.solve(holdings, listings, 1000, Map.of("STOCK", 0.5, "BOND", 0.5));
+
+        assertThat(plan.getTrades()).extracting(RebalanceTradeDTO::getSymbol, RebalanceTradeDTO::getSide,
+                        RebalanceTradeDTO::getQuantity)
+                .containsExactly(tuple("GOVT", OrderSide.BUY, 40));
+        assertThat(plan.getProjectedWeights().get("BOND")).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    void typesWithoutATargetAreLeftAlone() {
+        List<RebalanceSolver.Holding> holdings = List.of(
+                holding("AAPL", "STOCK", 5, 100),
+                holding("EUR", "CURRENCY", 5, 100));
+
+        RebalancePlanDTO plan = RebalanceSolver.solve(holdings, List.of(), 0, Map.of("STOCK", 0.5));
+
+        assertThat(plan.getTrades()).isEmpty();
+    }
+
+    @Test
+    void rejectsTargetsThatDoNotFit() {
+        List<RebalanceSolver.Holding> holdings = List.of(holding("EUR", "CURRENCY", 5, 100));
+
+        assertThatThrownBy(() -> RebalanceSolver.solve(holdings, List.of(), 500, Map.of("STOCK", 0.6)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
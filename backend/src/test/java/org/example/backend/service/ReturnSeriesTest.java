@@ -0,0 +1,78 @@
+package org.example.backend.service;
+
+import org.example.backend.DTO.PerformanceDTO;
+import org.example.backend.Entity.PortfolioSnapshotEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ReturnSeriesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    private static PortfolioSnapshotEntity snapshot(int day, double value, double flow, double dailyReturn, double index) {
+        PortfolioSnapshotEntity s = new PortfolioSnapshotEntity();
+        s.setSnapshotDate(DAY.plusDays(day));
+        s.setTotalValue(value);
+        s.setNetFlow(flow);
+        s.setDailyReturn(dailyReturn);
+        s.setTwrIndex(index);
+        return s;
+    }
+
+    @Test
+    void withoutFlowsBothReturnsMatchTheValueChange() {
+        PortfolioSnapshotEntity base = snapshot(0, 100, 0, 0, 1.0);
+        List<PortfolioSnapshotEntity> rows = List.of(
+                snapshot(1, 110, 0, 0.10, 1.10),
+                snapshot(2, 121, 0, 0.10, 1.21));
+
+        PerformanceDTO result = ReturnSeries.build(base, rows);
+
+        assertThat(result.getTimeWeightedReturn()).isCloseTo(0.21, within(1e-9));
+        assertThat(result.getMoneyWeightedReturn()).isCloseTo(0.21, within(1e-9));
+        assertThat(result.getPoints()).hasSize(2);
+        assertThat(result.getPoints().get(0).getMoneyWeightedReturn()).isCloseTo(0.10, within(1e-9));
+    }
+
+    @Test
+    void depositBeforeALossWeighsOnMoneyButNotOnTimeWeightedReturn() {
+        // +10% on 100, then 100 deposited at the start of a -10% day
+        PortfolioSnapshotEntity base = snapshot(0, 100, 0, 0, 1.0);
+        List<PortfolioSnapshotEntity> rows = List.of(
+                snapshot(1, 110, 0, 0.10, 1.10),
+                snapshot(2, 189, 100, -0.10, 0.99));
+
+        PerformanceDTO result = ReturnSeries.build(base, rows);
+
+        assertThat(result.getTimeWeightedReturn()).isCloseTo(-0.01, within(1e-9));
+        // 100 x^2 + 100 x = 189, period return x^2 - 1
+        double x = (-1 + Math.sqrt(1 + 4 * 1.89)) / 2;
+        assertThat(result.getMoneyWeightedReturn()).isCloseTo(x * x - 1, within(1e-6));
+        assertThat(result.getNetFlows()).isEqualTo(100);
+    }
+
+    @Test
+    void rangeStartingAtTheFirstSnapshotUsesItAsTheBase() {
+        List<PortfolioSnapshotEntity> rows = List.of(
+                snapshot(0, 1000, 1000, 0, 1.0),
+                snapshot(1, 1050, 0, 0.05, 1.05));
+
+        PerformanceDTO result = ReturnSeries.build(null, rows);
+
+        assertThat(result.getFrom()).isEqualTo(DAY);
+        assertThat(result.getStartValue()).isEqualTo(1000);
+        assertThat(result.getPoints().get(0).getTimeWeightedReturn()).isZero();
+        assertThat(result.getTimeWeightedReturn()).isCloseTo(0.05, within(1e-9));
+        assertThat(result.getMoneyWeightedReturn()).isCloseTo(0.05, within(1e-9));
+    }
+
+    @Test
+    void emptyRangeHasNoPoints() {
+        assertThat(ReturnSeries.build(null, List.of()).getPoints()).isEmpty();
+    }
+}
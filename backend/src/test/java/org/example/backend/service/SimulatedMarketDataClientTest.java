@@ -0,0 +1,85 @@
+package org.example.backend.service;
+
+import org.example.backend.Model.Asset;
+import org.example.backend.Model.AssetHistory;
+import org.example.backend.Model.FxRates;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SimulatedMarketDataClientTest {
+
+    // a Monday, so the last bar is the Friday before
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 2);
+
+    private static SimulatedMarketDataClient client(long seed) {
+        return new SimulatedMarketDataClient(seed, 2, 0.02, 0.001, 0, 1000, TODAY);
+    }
+
+    @Test
+    void sameSeedGivesSameHistoryAndQuotes() {
+        SimulatedMarketDataClient a = client(7);
+        SimulatedMarketDataClient b = client(7);
+
+        assertThat(a.getHistory("AAPL")).usingRecursiveComparison().isEqualTo(b.getHistory("AAPL"));
+        for (int i = 0; i < 100; i++) {
+            assertThat(a.getQuote("AAPL").getPrice()).isEqualTo(b.getQuote("AAPL").getPrice());
+        }
+        assertThat(client(8).getHistory("AAPL").get(0).getClose())
+                .isNotEqualTo(a.getHistory("AAPL").get(0).getClose());
+    }
+
+    @Test
+    void historyCoversWeekdaysUpToTheLastSession() {
+        List<AssetHistory> bars = client(1).getHistory("MSFT");
+
+        assertThat(bars).hasSizeBetween(2 * 260, 2 * 262);
+        assertThat(bars.get(bars.size() - 1).getDate()).isEqualTo(LocalDate.of(2026, 2, 27));
+        assertThat(bars).allSatisfy(bar -> {
+            assertThat(bar.getDate().getDayOfWeek()).isNotIn(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+            assertThat(bar.getHigh()).isGreaterThanOrEqualTo(Math.max(bar.getOpen(), bar.getClose()));
+            assertThat(bar.getLow()).isLessThanOrEqualTo(Math.min(bar.getOpen(), bar.getClose()));
+        });
+    }
+
+    @Test
+    void quotesWalkOnFromTheLastClose() {
+        SimulatedMarketDataClient client = client(3);
+        List<AssetHistory> bars = client.getHistory("BTC-USD");
+
+        Asset first = client.getQuote("BTC-USD");
+        Asset second = client.getQuote("BTC-USD");
+
+        assertThat(first.getType()).isEqualTo("CRYPTO");
+        assertThat(first.getOpen()).isEqualTo(bars.get(bars.size() - 1).getClose());
+        assertThat(second.getHigh()).isGreaterThanOrEqualTo(Math.max(first.getPrice(), second.getPrice()));
+        assertThat(second.getVolume()).isGreaterThan(first.getVolume());
+    }
+
+    @Test
+    void keepsAtMostMaxSymbolsWalksAndRebuildsEvictedOnes() {
+        SimulatedMarketDataClient client = new SimulatedMarketDataClient(5, 2, 0.02, 0.001, 0, 2, TODAY);
+        List<AssetHistory> aapl = client.getHistory("AAPL");
+
+        client.getHistory("MSFT");
+        client.getHistory("NOT-A-SYMBOL");
+
+        assertThat(client.walkCount()).isEqualTo(2);
+        assertThat(client.getHistory("AAPL")).usingRecursiveComparison().isEqualTo(aapl);
+        assertThat(client.walkCount()).isEqualTo(2);
+    }
+
+    @Test
+    void crossesFxRatesThroughUsd() {
+        FxRates rates = client(1).getFxRates("EUR", List.of("USD", "GBP", "EUR", "XYZ"));
+
+        assertThat(rates.getBase()).isEqualTo("EUR");
+        assertThat(rates.getRates()).containsOnlyKeys("USD", "GBP");
+        assertThat(rates.getRates().get("USD")).isCloseTo(1 / 1.08, within(1e-12));
+    }
+}
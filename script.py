@@ -1,4 +1,4 @@
-from flask import Flask, jsonify
+from flask import Flask, jsonify, request
 import yfinance as yf
 from datetime import datetime
 
@@ -86,6 +86,34 @@ def get_history(ticker):
     return jsonify(result)
 
 
+# ---------------------------------
+# API 3: FX rates into a base currency, all pairs in one download
+# ---------------------------------
+@app.route("/api/market/fx", methods=["GET"])
+def get_fx_rates():
+    base = request.args.get("base", "USD").upper()
+    currencies = [c.strip().upper() for c in request.args.get("currencies", "").split(",") if c.strip()]
+    currencies = [c for c in currencies if c != base]
+
+    rates = {}
+    if currencies:
+        tickers = [f"{c}{base}=X" for c in currencies]
+        hist = yf.download(tickers, period="5d", interval="1d", progress=False, group_by="ticker")
+
+        for currency, ticker in zip(currencies, tickers):
+            try:
+                closes = hist[ticker]["Close"]
+            except KeyError:
+                # older yfinance versions return flat columns for a single ticker
+                closes = hist["Close"]
+            closes = closes.dropna()
+            if not closes.empty:
+                # value of one unit of currency in the base currency
+                rates[currency] = round(float(closes.iloc[-1]), 6)
+
+    return jsonify({"base": base, "rates": rates})
+
+
 # ---------------------------------
 # Run app
 # ---------------------------------